@@ -0,0 +1,61 @@
+package com.kmmanagement.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Métricas próprias da aplicação, expostas junto das do Spring em /actuator/prometheus.
+ * Latência por endpoint (http.server.requests) e pool do Hikari (hikaricp.*) vêm do Actuator.
+ */
+@Component
+public class AppMetrics {
+
+    @Autowired
+    private MeterRegistry registry;
+
+    // Agendamento recusado porque o horário já estava ocupado (origem: criar, atualizar, lote, recorrencia)
+    public void conflitoDeHorario(String origem) {
+        registry.counter("km.agendamento.conflitos", "origem", origem).increment();
+    }
+
+    // Login recusado (motivo: usuario, senha)
+    public void falhaDeLogin(String motivo) {
+        registry.counter("km.login.falhas", "motivo", motivo).increment();
+    }
+
+    // Tentativa de login/cadastro barrada pelo RateLimitFilter (tipo: ip, email)
+    public void limiteExcedido(String rota, String tipo) {
+        registry.counter("km.limite.rejeitados", "rota", rota, "tipo", tipo).increment();
+    }
+
+    // Bearer presente mas inválido, expirado ou de usuário removido
+    public void tokenRejeitado() {
+        registry.counter("km.token.rejeitados").increment();
+    }
+
+    // Comandos SQL e tempo de JDBC de uma requisição, por endpoint: N+1 aparece como salto nos buckets altos
+    public void sqlPorRequisicao(String method, String uri, long comandos, long nanos) {
+        DistributionSummary.builder("km.http.sql.statements")
+                .description("Comandos SQL executados por requisição")
+                .tags("method", method, "uri", uri)
+                .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100)
+                .register(registry)
+                .record(comandos);
+        Timer.builder("km.http.sql.time")
+                .description("Tempo de JDBC somado por requisição")
+                .tags("method", method, "uri", uri)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Requisição acima do orçamento de comandos ou de tempo de SQL (SqlMonitor)
+    public void orcamentoSqlExcedido(String method, String uri) {
+        registry.counter("km.http.sql.orcamento.excedido", "method", method, "uri", uri).increment();
+    }
+}
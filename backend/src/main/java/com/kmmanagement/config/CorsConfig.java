@@ -21,6 +21,8 @@ public class CorsConfig {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "HEAD"));
         // Libera todos os cabeçalhos (Token, JSON, etc)
         configuration.setAllowedHeaders(List.of("*"));
+        // Cursor da próxima página de /tarefas precisa ser legível pelo front
+        configuration.setExposedHeaders(List.of("X-Next-Cursor"));
         // Permite credenciais se necessário
         configuration.setAllowCredentials(true);
 
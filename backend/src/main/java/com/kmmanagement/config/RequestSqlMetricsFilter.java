@@ -0,0 +1,45 @@
+package com.kmmanagement.config;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Abre a janela do SqlMonitor antes da segurança (o lookup do usuário também conta) e, no fim,
+ * registra comandos e tempo de JDBC da requisição, com a mesma tag uri do http.server.requests.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class RequestSqlMetricsFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private SqlMonitor monitor;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        monitor.iniciar(request.getMethod() + " " + request.getRequestURI());
+        String violacao;
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Padrão do mapping (/tarefas/{id}), nunca a URL crua: cardinalidade limitada
+            Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            violacao = monitor.encerrar(request.getMethod(), padrao != null ? padrao.toString() : "UNKNOWN");
+        }
+        // Nos testes o estouro derruba a requisição (o MockMvc propaga a exceção): N+1 quebra o build
+        if (violacao != null && monitor.isFalhar()) {
+            throw new IllegalStateException(violacao);
+        }
+    }
+}
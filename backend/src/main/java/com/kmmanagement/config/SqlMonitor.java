@@ -0,0 +1,167 @@
+package com.kmmanagement.config;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Orçamento de SQL por requisição e amostragem de comandos lentos.
+ * O SqlTimingDataSource registra cada comando (SQL + duração) na janela da thread, aberta pelo
+ * RequestSqlMetricsFilter; no fim da requisição, quem passou do limite de comandos ou de tempo de
+ * JDBC é logado com os SQLs mais repetidos (o padrão de um N+1). Comandos acima de sql.lento.millis,
+ * dentro ou fora de requisição, vão para um buffer circular lido em /diagnostico/sql-lentos.
+ * Com sql.orcamento.falhar=true (testes) a requisição que estoura o orçamento lança exceção.
+ */
+@Component
+public class SqlMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlMonitor.class);
+
+    // SQLs distintos guardados por requisição (além disso só os totais contam) e SQLs no log
+    private static final int MAX_SQL_DISTINTOS = 100;
+    private static final int SQL_NO_LOG = 5;
+    private static final int MAX_TAMANHO_SQL = 500;
+
+    public record SqlLento(Instant quando, String requisicao, String sql, long millis) {}
+
+    private static final class Janela {
+        final String requisicao;
+        long comandos;
+        long nanos;
+        // SQL -> {execuções, nanos}
+        final Map<String, long[]> porSql = new HashMap<>();
+
+        Janela(String requisicao) {
+            this.requisicao = requisicao;
+        }
+    }
+
+    private final ThreadLocal<Janela> janela = new ThreadLocal<>();
+
+    private final int maxComandos;
+    private final long maxNanos;
+    private final long lentoNanos;
+    private final boolean falhar;
+
+    private final SqlLento[] lentos;
+    private int proximo;
+    private long totalLentos;
+
+    @Autowired
+    private AppMetrics metrics;
+
+    public SqlMonitor(
+            @Value("${sql.orcamento.comandos:40}") int maxComandos,
+            @Value("${sql.orcamento.millis:1000}") long maxMillis,
+            @Value("${sql.orcamento.falhar:false}") boolean falhar,
+            @Value("${sql.lento.millis:200}") long lentoMillis,
+            @Value("${sql.lento.buffer:100}") int buffer) {
+        this.maxComandos = maxComandos;
+        this.maxNanos = maxMillis * 1_000_000;
+        this.falhar = falhar;
+        this.lentoNanos = lentoMillis * 1_000_000;
+        this.lentos = new SqlLento[Math.max(1, buffer)];
+    }
+
+    @Autowired
+    void monitorar(DataSource dataSource) {
+        if (dataSource instanceof SqlTimingDataSource timing) timing.setMonitor(this);
+    }
+
+    public void iniciar(String requisicao) {
+        janela.set(new Janela(requisicao));
+    }
+
+    // Chamado pelo SqlTimingDataSource após cada execute*
+    void registrar(String sql, long nanos) {
+        String texto = sql != null ? sql : "(lote sem SQL)";
+        Janela j = janela.get();
+        if (j != null) {
+            j.comandos++;
+            j.nanos += nanos;
+            long[] porSql = j.porSql.get(texto);
+            if (porSql == null && j.porSql.size() < MAX_SQL_DISTINTOS) {
+                porSql = new long[2];
+                j.porSql.put(texto, porSql);
+            }
+            if (porSql != null) {
+                porSql[0]++;
+                porSql[1] += nanos;
+            }
+        }
+        if (nanos >= lentoNanos) {
+            guardarLento(new SqlLento(Instant.now(), j != null ? j.requisicao : null, abreviar(texto),
+                    nanos / 1_000_000));
+        }
+    }
+
+    /**
+     * Fecha a janela da thread, registra as métricas e confere o orçamento.
+     * Retorna a descrição da violação (já logada) ou null se a requisição ficou dentro dos limites.
+     */
+    public String encerrar(String method, String uri) {
+        Janela j = janela.get();
+        janela.remove();
+        if (j == null) return null;
+
+        metrics.sqlPorRequisicao(method, uri, j.comandos, j.nanos);
+        boolean excedeu = j.comandos > maxComandos || (maxNanos > 0 && j.nanos > maxNanos);
+        if (!excedeu) return null;
+
+        metrics.orcamentoSqlExcedido(method, uri);
+        StringBuilder sb = new StringBuilder()
+                .append("Orçamento de SQL excedido em ").append(j.requisicao).append(": ")
+                .append(j.comandos).append(" comandos, ").append(j.nanos / 1_000_000).append(" ms de JDBC (limites: ")
+                .append(maxComandos).append(" comandos, ").append(maxNanos / 1_000_000).append(" ms)");
+        // Mais repetidos primeiro: um N+1 aparece como o mesmo SELECT dezenas de vezes
+        j.porSql.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, long[]> e) -> e.getValue()[0])
+                        .thenComparingLong(e -> e.getValue()[1])
+                        .reversed())
+                .limit(SQL_NO_LOG)
+                .forEach(e -> sb.append("\n  ").append(e.getValue()[0]).append("x, ")
+                        .append(e.getValue()[1] / 1_000_000).append(" ms: ").append(abreviar(e.getKey())));
+        String violacao = sb.toString();
+        log.warn(violacao);
+        return violacao;
+    }
+
+    public boolean isFalhar() {
+        return falhar;
+    }
+
+    // Mais recentes primeiro
+    public synchronized List<SqlLento> lentos() {
+        int guardados = (int) Math.min(totalLentos, lentos.length);
+        List<SqlLento> lista = new ArrayList<>(guardados);
+        for (int i = 1; i <= guardados; i++) {
+            lista.add(lentos[(proximo - i + lentos.length) % lentos.length]);
+        }
+        return lista;
+    }
+
+    public synchronized long getTotalLentos() {
+        return totalLentos;
+    }
+
+    private synchronized void guardarLento(SqlLento lento) {
+        lentos[proximo] = lento;
+        proximo = (proximo + 1) % lentos.length;
+        totalLentos++;
+    }
+
+    private static String abreviar(String sql) {
+        return sql.length() > MAX_TAMANHO_SQL ? sql.substring(0, MAX_TAMANHO_SQL) + "…" : sql;
+    }
+}
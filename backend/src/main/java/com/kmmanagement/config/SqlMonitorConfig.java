@@ -0,0 +1,25 @@
+package com.kmmanagement.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SqlMonitorConfig {
+
+    // Embrulha o DataSource do Hikari; métricas do pool continuam achando o Hikari via unwrap
+    @Bean
+    public static BeanPostProcessor sqlTimingDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SqlTimingDataSource)) {
+                    return new SqlTimingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
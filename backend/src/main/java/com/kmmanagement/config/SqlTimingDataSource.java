@@ -0,0 +1,78 @@
+package com.kmmanagement.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource que cronometra cada execute* dos Statements e repassa SQL e duração ao SqlMonitor.
+ * Fica na frente do Hikari (SqlMonitorConfig), então cobre JPA, repositórios e JdbcTemplate.
+ * Até o SqlMonitor ser criado (ex.: migrations na subida) os comandos só passam direto.
+ */
+public class SqlTimingDataSource extends DelegatingDataSource {
+
+    private volatile SqlMonitor monitor;
+
+    public SqlTimingDataSource(DataSource alvo) {
+        super(alvo);
+    }
+
+    void setMonitor(SqlMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return conexao(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return conexao(super.getConnection(username, password));
+    }
+
+    private Connection conexao(Connection conexao) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, metodo, args) -> {
+                    Object resultado = invocar(conexao, metodo, args);
+                    Class<?> tipo = metodo.getReturnType();
+                    if (resultado instanceof Statement statement && Statement.class.isAssignableFrom(tipo)) {
+                        // prepareStatement/prepareCall: o SQL vem agora; createStatement: vem em cada execute
+                        String sql = metodo.getName().startsWith("prepare") ? (String) args[0] : null;
+                        return comando(statement, tipo, sql);
+                    }
+                    return resultado;
+                });
+    }
+
+    private Object comando(Statement statement, Class<?> tipo, String sqlPreparado) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {tipo},
+                (proxy, metodo, args) -> {
+                    SqlMonitor m = monitor;
+                    if (m == null || !metodo.getName().startsWith("execute")) return invocar(statement, metodo, args);
+
+                    long inicio = System.nanoTime();
+                    try {
+                        return invocar(statement, metodo, args);
+                    } finally {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : sqlPreparado;
+                        m.registrar(sql, System.nanoTime() - inicio);
+                    }
+                });
+    }
+
+    private static Object invocar(Object alvo, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
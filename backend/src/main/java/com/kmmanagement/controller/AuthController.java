@@ -4,25 +4,31 @@ import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.kmmanagement.config.AppMetrics;
 import com.kmmanagement.dto.LoginRequestDTO;
 import com.kmmanagement.dto.RegisterRequestDTO;
 import com.kmmanagement.dto.ResponseDTO;
 import com.kmmanagement.model.User;
 import com.kmmanagement.repository.UserRepository;
+import com.kmmanagement.security.PasswordHasher;
+import com.kmmanagement.security.PasswordHasher.Verificacao;
 import com.kmmanagement.security.TokenService;
+import com.kmmanagement.service.TableVersions;
+import com.kmmanagement.service.TableVersions.Tabela;
 
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
     private final UserRepository repository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final TokenService tokenService;
+    private final TableVersions versions;
+    private final AppMetrics metrics;
 
     @Value("${api.security.token.user}")
     private String userToken;
@@ -30,36 +36,51 @@ public class AuthController {
     @Value("${api.security.token.admin}")
     private String adminToken;
 
-    public AuthController(UserRepository repository, PasswordEncoder passwordEncoder, TokenService tokenService) {
+    public AuthController(UserRepository repository, PasswordHasher passwordHasher, TokenService tokenService,
+                          TableVersions versions, AppMetrics metrics) {
         this.repository = repository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
         this.tokenService = tokenService;
+        this.versions = versions;
+        this.metrics = metrics;
     }
 
     @PostMapping("/login")
     public ResponseEntity login(@RequestBody LoginRequestDTO body) {
-        User user = repository.findByEmail(body.email())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        if (passwordEncoder.matches(body.password(), user.getPassword())) {
+        // E-mail desconhecido responde como senha errada (400): não revela quem tem cadastro
+        Optional<User> encontrado = repository.findByEmail(User.normalizarEmail(body.email()));
+        if (encontrado.isEmpty()) {
+            metrics.falhaDeLogin("usuario");
+            return ResponseEntity.badRequest().build();
+        }
+        User user = encontrado.get();
+
+        // BCrypt no pool do PasswordHasher (fila cheia: 503), não na thread da requisição
+        Verificacao verificacao = passwordHasher.verificar(body.password(), user.getPassword());
+        if (verificacao.confere()) {
+            if (verificacao.novoHash() != null) {
+                repository.atualizarHashSenha(user.getId(), user.getPassword(), verificacao.novoHash());
+            }
             String token = tokenService.generateToken(user);
             return ResponseEntity.ok(new ResponseDTO(user.getName(), token, user.getRole(), user.getId()));
         }
+        metrics.falhaDeLogin("senha");
         return ResponseEntity.badRequest().build();
     }
 
     @PostMapping("/register")
     public ResponseEntity register(@RequestBody RegisterRequestDTO dto) {
-        Optional<User> userOpt = repository.findByEmail(dto.email());
+        String email = User.normalizarEmail(dto.email());
+        Optional<User> userOpt = repository.findByEmail(email);
         if (userOpt.isPresent()) {
             return ResponseEntity.badRequest().body("Já existe usuário com este e-mail.");
         }
 
         User newUser = new User();
         newUser.setName(dto.name());
-        newUser.setEmail(dto.email());
-        newUser.setPassword(passwordEncoder.encode(dto.password()));
+        newUser.setEmail(email);
 
+        // Token conferido antes do hash: cadastro recusado não gasta BCrypt
         if (dto.token().equals(adminToken)) {
             newUser.setRole("ADMIN");
         } else if (dto.token().equals(userToken)) {
@@ -67,8 +88,10 @@ public class AuthController {
         } else {
             return ResponseEntity.status(403).body("Token de acesso inválido.");
         }
+        newUser.setPassword(passwordHasher.hash(dto.password()));
 
         repository.save(newUser);
+        versions.alterou(Tabela.USERS);
         String token = tokenService.generateToken(newUser);
         
         return ResponseEntity.ok(new ResponseDTO(newUser.getName(), token, newUser.getRole(), newUser.getId()));
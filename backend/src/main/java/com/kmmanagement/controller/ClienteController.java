@@ -1,12 +1,19 @@
 package com.kmmanagement.controller;
 
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,11 +22,25 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.kmmanagement.dto.ClienteDTO;
+import com.kmmanagement.dto.ClienteListagemDTO;
+import com.kmmanagement.dto.ClienteResumo;
+import com.kmmanagement.dto.ClienteResumoDTO;
 import com.kmmanagement.model.Cliente;
 import com.kmmanagement.repository.ClienteRepository;
+import com.kmmanagement.service.ClienteSearchIndex;
+import com.kmmanagement.service.RecorrenciaService;
+import com.kmmanagement.service.StreamingExporter;
+import com.kmmanagement.service.TableVersions;
+import com.kmmanagement.service.TableVersions.Tabela;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 // CORREÇÃO: Removemos o "/api" para alinhar com o Frontend
@@ -27,9 +48,24 @@ import com.kmmanagement.repository.ClienteRepository;
 @CrossOrigin(origins = "*") // Pode manter ou remover, já que o CorsConfig global trata isso
 public class ClienteController {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private ClienteRepository clienteRepository;
 
+    @Autowired
+    private StreamingExporter exporter;
+
+    @Autowired
+    private ClienteSearchIndex searchIndex;
+
+    @Autowired
+    private TableVersions versions;
+
+    @Autowired
+    private RecorrenciaService recorrenciaService;
+
     private ClienteDTO toDTO(Cliente c) {
         return new ClienteDTO(
                 c.getId(), c.getNome(), c.getTelefone(),
@@ -47,11 +83,83 @@ public class ClienteController {
         return c;
     }
 
+    // ETag pela versão da tabela: If-None-Match igual responde 304 sem consultar o banco.
+    // Sem limit/cursor/resumo devolve a lista completa (tela de clientes e Agenda); com eles, página por
+    // id (próxima no header X-Next-Cursor). resumo=true anexa o histórico da página em um SELECT agrupado
     @GetMapping
-    public List<ClienteDTO> listarTodos() {
-        return clienteRepository.findAll().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+    public ResponseEntity<List<?>> listarTodos(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean resumo,
+            WebRequest request
+    ) {
+        // Com resumo a resposta depende também das tarefas
+        String etag = resumo
+                ? versions.etag("clientes-resumo", Tabela.CLIENTES, Tabela.TAREFAS)
+                : versions.etag("clientes", Tabela.CLIENTES);
+        ResponseEntity<List<?>> naoModificado = TableVersions.naoModificado(request, etag);
+        if (naoModificado != null) return naoModificado;
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag).cacheControl(TableVersions.REVALIDAR);
+        if (limit == null && cursor == null && !resumo) {
+            return response.body(clienteRepository.findAll().stream()
+                    .map(this::toDTO)
+                    .collect(Collectors.toList()));
+        }
+
+        Long depoisDe = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                depoisDe = Long.valueOf(cursor);
+            } catch (NumberFormatException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+            }
+        }
+        int pageSize = Math.max(1, Math.min(limit != null ? limit : DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE));
+
+        // Busca um a mais só para saber se existe próxima página
+        List<ClienteDTO> clientes = clienteRepository.findPage(depoisDe, PageRequest.of(0, pageSize + 1));
+        if (clientes.size() > pageSize) {
+            clientes = clientes.subList(0, pageSize);
+            response.header(TaskController.NEXT_CURSOR_HEADER, clientes.get(pageSize - 1).getId().toString());
+        }
+        if (!resumo) return response.body(clientes);
+
+        Map<Long, ClienteResumo> resumos = clienteRepository.resumos(clientes.stream().map(ClienteDTO::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(ClienteResumo::getClienteId, Function.identity()));
+        return response.body(clientes.stream()
+                .map(c -> {
+                    ClienteResumo r = resumos.get(c.getId());
+                    // Removido entre as duas consultas: segue sem resumo
+                    return new ClienteListagemDTO(c, r != null ? ClienteResumoDTO.de(r) : null);
+                })
+                .toList());
+    }
+
+    // Busca por nome, telefone, email ou endereço (índice de trigramas em memória, sem acentos)
+    @GetMapping("/search")
+    public List<ClienteDTO> buscar(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return searchIndex.buscar(q, limit);
+    }
+
+    // Exportação em streaming (NDJSON ou CSV, gzip se aceito)
+    @GetMapping("/export")
+    @Transactional(readOnly = true)
+    public void exportar(
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        try (Stream<ClienteDTO> clientes = clienteRepository.streamAll()) {
+            exporter.exportar(clientes, ClienteDTO.class, StreamingExporter.formato(format), "clientes",
+                    List.of("id", "nome", "telefone", "endereco", "email", "notas"),
+                    c -> Arrays.asList(c.getId(), c.getNome(), c.getTelefone(), c.getEndereco(), c.getEmail(), c.getNotas()),
+                    request, response);
+        }
     }
 
     @GetMapping("/{id}")
@@ -61,6 +169,20 @@ public class ClienteController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Histórico do cliente (visitas, faturado, pago, em aberto) em um único SELECT agrupado.
+    // Só tarefas gravadas: ocorrências de recorrências ainda não materializadas não entram
+    @GetMapping("/{id}/resumo")
+    public ResponseEntity<ClienteResumoDTO> resumo(@PathVariable Long id, WebRequest request) {
+        String etag = versions.etag("cliente-resumo-" + id, Tabela.CLIENTES, Tabela.TAREFAS);
+        ResponseEntity<ClienteResumoDTO> naoModificado = TableVersions.naoModificado(request, etag);
+        if (naoModificado != null) return naoModificado;
+
+        return clienteRepository.resumos(List.of(id)).stream()
+                .findFirst()
+                .map(r -> ResponseEntity.ok().eTag(etag).cacheControl(TableVersions.REVALIDAR).body(ClienteResumoDTO.de(r)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping
     public ResponseEntity<?> criar(@RequestBody ClienteDTO dto) {
         Map<String, String> errors = new HashMap<>();
@@ -78,7 +200,10 @@ public class ClienteController {
         }
 
         Cliente salvo = clienteRepository.save(toEntity(dto));
-        return ResponseEntity.ok(toDTO(salvo));
+        ClienteDTO resposta = toDTO(salvo);
+        searchIndex.indexar(resposta);
+        versions.alterou(Tabela.CLIENTES);
+        return ResponseEntity.ok(resposta);
     }
 
     @PutMapping("/{id}")
@@ -108,7 +233,10 @@ public class ClienteController {
                     c.setEmail(dto.getEmail());
                     c.setNotas(dto.getNotas());
                     Cliente atualizado = clienteRepository.save(c);
-                    return ResponseEntity.ok(toDTO(atualizado));
+                    ClienteDTO resposta = toDTO(atualizado);
+                    searchIndex.indexar(resposta);
+                    versions.alterou(Tabela.CLIENTES);
+                    return ResponseEntity.ok(resposta);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -118,6 +246,10 @@ public class ClienteController {
         return clienteRepository.findById(id)
                 .map(c -> {
                     clienteRepository.deleteById(id);
+                    searchIndex.remover(id);
+                    // Recorrências do cliente saem em cascata no banco
+                    recorrenciaService.clienteRemovido(id);
+                    versions.alterou(Tabela.CLIENTES);
                     return ResponseEntity.noContent().<Void>build();
                 })
                 .orElse(ResponseEntity.notFound().build());
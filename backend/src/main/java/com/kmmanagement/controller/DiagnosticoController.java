@@ -0,0 +1,29 @@
+package com.kmmanagement.controller;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.kmmanagement.config.SqlMonitor;
+
+@RestController
+@RequestMapping("/diagnostico") // Só ADMIN (SecurityConfig)
+public class DiagnosticoController {
+
+    @Autowired
+    private SqlMonitor sqlMonitor;
+
+    // Últimos comandos lentos (mais recentes primeiro) e quantos já passaram do limite desde a subida
+    @GetMapping("/sql-lentos")
+    public ResponseEntity<Map<String, Object>> sqlLentos() {
+        Map<String, Object> resposta = new HashMap<>();
+        resposta.put("total", sqlMonitor.getTotalLentos());
+        resposta.put("recentes", sqlMonitor.lentos());
+        return ResponseEntity.ok(resposta);
+    }
+}
@@ -0,0 +1,90 @@
+package com.kmmanagement.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import com.kmmanagement.dto.QuoteDTO;
+import com.kmmanagement.dto.QuoteRequestDTO;
+import com.kmmanagement.security.AuthenticatedUser;
+import com.kmmanagement.service.QuotePdfService;
+import com.kmmanagement.service.QuoteService;
+
+@RestController
+@RequestMapping("/orcamentos")
+public class QuoteController {
+
+    @Autowired
+    private QuoteService quoteService;
+
+    @Autowired
+    private QuotePdfService pdfService;
+
+    @GetMapping
+    public List<QuoteDTO> listarPorCliente(@RequestParam Long clienteId) {
+        return quoteService.listarPorCliente(clienteId);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<QuoteDTO> buscarPorId(@PathVariable Long id) {
+        return quoteService.buscar(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public QuoteDTO criar(@RequestBody QuoteRequestDTO dados) {
+        return quoteService.criar(dados, AuthenticatedUser.nomeLogado());
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<QuoteDTO> atualizar(@PathVariable Long id, @RequestBody QuoteRequestDTO dados) {
+        return quoteService.atualizar(id, dados)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deletar(@PathVariable Long id) {
+        return quoteService.excluir(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    // PDF gerado no servidor; ETag = hash do conteúdo, então orçamento inalterado responde 304
+    @GetMapping("/{id}/pdf")
+    public ResponseEntity<byte[]> pdf(@PathVariable Long id, WebRequest request) {
+        QuoteDTO quote = quoteService.buscar(id).orElse(null);
+        if (quote == null) return ResponseEntity.notFound().build();
+
+        String hash = pdfService.hash(quote);
+        String etag = "\"" + hash + "\"";
+        if (request.checkNotModified(etag)) return null;
+
+        byte[] pdf = pdfService.obter(quote, hash);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                        .filename("Orçamento " + quote.clienteNome() + ".pdf", StandardCharsets.UTF_8)
+                        .build().toString())
+                .body(pdf);
+    }
+}
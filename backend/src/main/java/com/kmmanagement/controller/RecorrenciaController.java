@@ -0,0 +1,56 @@
+package com.kmmanagement.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.kmmanagement.dto.RecorrenciaDTO;
+import com.kmmanagement.security.AuthenticatedUser;
+import com.kmmanagement.service.RecorrenciaService;
+
+// Agendamentos semanais fixos; editar ou pagar uma ocorrência é um POST /tarefas com recorrenciaId + ocorrencia
+@RestController
+@RequestMapping("/recorrencias")
+public class RecorrenciaController {
+
+    @Autowired
+    private RecorrenciaService recorrenciaService;
+
+    @GetMapping
+    public List<RecorrenciaDTO> listarPorCliente(@RequestParam Long clienteId) {
+        return recorrenciaService.listarPorCliente(clienteId);
+    }
+
+    @PostMapping
+    public RecorrenciaDTO criar(@RequestBody RecorrenciaDTO dados) {
+        return recorrenciaService.criar(dados, AuthenticatedUser.nomeLogado());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deletar(@PathVariable Long id) {
+        return recorrenciaService.excluir(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    // Cancela só a ocorrência da data (vira exceção da regra)
+    @DeleteMapping("/{id}/ocorrencias/{dia}")
+    public ResponseEntity<Void> pularOcorrencia(
+            @PathVariable Long id,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dia
+    ) {
+        recorrenciaService.pular(id, dia);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,39 +1,82 @@
 package com.kmmanagement.controller;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.kmmanagement.config.AppMetrics;
+import com.kmmanagement.dto.DashboardAggregate;
 import com.kmmanagement.dto.DashboardStatsDTO;
+import com.kmmanagement.dto.DisponibilidadeDiaDTO;
+import com.kmmanagement.dto.RollupVerificacaoDTO;
+import com.kmmanagement.dto.TaskBatchItemDTO;
+import com.kmmanagement.dto.TaskCursor;
 import com.kmmanagement.dto.TaskDTO;
+import com.kmmanagement.dto.TaskRow;
 import com.kmmanagement.model.Cliente;
+import com.kmmanagement.model.Dinheiro;
+import com.kmmanagement.model.StatusTarefa;
 import com.kmmanagement.model.Task;
-import com.kmmanagement.model.User;
+import com.kmmanagement.model.TipoCliente;
 import com.kmmanagement.repository.ClienteRepository;
 import com.kmmanagement.repository.TaskRepository;
+import com.kmmanagement.security.AuthenticatedUser;
+import com.kmmanagement.service.AgendaSchedule;
+import com.kmmanagement.service.DashboardRollupService;
+import com.kmmanagement.service.DashboardRollupService.Contribuicao;
+import com.kmmanagement.service.RecorrenciaIndex;
+import com.kmmanagement.service.RecorrenciaIndex.Ocorrencia;
+import com.kmmanagement.service.RecorrenciaService;
+import com.kmmanagement.service.SlotOccupancyIndex;
+import com.kmmanagement.service.StreamingExporter;
+import com.kmmanagement.service.TaskChangeFeed;
+import com.kmmanagement.service.TableVersions;
+import com.kmmanagement.service.TableVersions.Tabela;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/tarefas")
@@ -45,14 +88,58 @@ public class TaskController {
     @Autowired
     private ClienteRepository clienteRepository;
 
+    @Autowired
+    private DashboardRollupService rollupService;
+
+    @Autowired
+    private SlotOccupancyIndex slotIndex;
+
+    @Autowired
+    private AgendaSchedule schedule;
+
+    @Autowired
+    private StreamingExporter exporter;
+
+    @Autowired
+    private TableVersions versions;
+
+    @Autowired
+    private TaskChangeFeed changeFeed;
+
+    @Autowired
+    private RecorrenciaIndex recorrencias;
+
+    @Autowired
+    private RecorrenciaService recorrenciaService;
+
+    @Autowired
+    private AppMetrics metrics;
+
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    // Índice único de V2__indices.sql (um agendamento por horário)
+    private static final String HORARIO_UNICO = "uk_tarefas_data_servico";
+    private static final int DEFAULT_PAGE_SIZE = 500;
+    private static final int MAX_PAGE_SIZE = 2000;
+    private static final int MAX_DIAS_DISPONIBILIDADE = 62;
+    private static final int MAX_LOTE = 500;
+    private static final List<String> CSV_CABECALHO = List.of(
+            "id", "titulo", "descricao", "status", "prioridade", "clienteId", "clienteNome", "clienteEndereco",
+            "dataServico", "criadoPor", "valorPago", "valorTotal", "quantidadePessoas");
+
     @GetMapping("/dashboard")
     public ResponseEntity<DashboardStatsDTO> getDashboardStats(
             @RequestParam(defaultValue = "month") String period,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest request
     ) {
         LocalDate anchorDate = (date != null) ? date : LocalDate.now();
+
+        // Sem "date" a resposta muda na virada do dia: a data entra no ETag
+        String etag = versions.etag("dashboard-" + anchorDate, Tabela.TAREFAS);
+        ResponseEntity<DashboardStatsDTO> naoModificado = TableVersions.naoModificado(request, etag);
+        if (naoModificado != null) return naoModificado;
         
         LocalDateTime start;
         LocalDateTime end;
@@ -68,55 +155,32 @@ public class TaskController {
             end = LocalDateTime.of(anchorDate.with(TemporalAdjusters.lastDayOfMonth()), LocalTime.MAX);
         }
 
-        // MANTIDO O FILTRO ORIGINAL: Só mostra tarefas que têm cliente
-        List<Task> tarefasPeriodo = repository.findByDataServicoBetween(start, end).stream()
-                .filter(t -> t.getCliente() != null)
-                .collect(Collectors.toList());
-
-        long totalAgendamentos = tarefasPeriodo.size();
-
-        BigDecimal valorEsperado = tarefasPeriodo.stream()
-                .map(t -> {
-                    Double val = t.getValorTotal();
-                    return val != null ? BigDecimal.valueOf(val) : BigDecimal.ZERO;
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        BigDecimal valorRecebido = tarefasPeriodo.stream()
-                .map(t -> {
-                    if ("PAGO".equalsIgnoreCase(t.getStatus())) {
-                        Double val = t.getValorPago();
-                        return val != null ? BigDecimal.valueOf(val) : BigDecimal.ZERO;
-                    } 
-                    return BigDecimal.ZERO;
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal valorAPagar = tarefasPeriodo.stream()
-                .map(t -> {
-                     Double totalObj = t.getValorTotal();
-                     Double pagoObj = t.getValorPago();
-                     double total = totalObj != null ? totalObj : 0.0;
-                     double pago = pagoObj != null ? pagoObj : 0.0;
-
-                     if ("PAGO".equalsIgnoreCase(t.getStatus())) {
-                        return BigDecimal.valueOf(Math.max(0, total - pago));
-                     } else if ("A_PAGAR".equalsIgnoreCase(t.getStatus())) {
-                        return BigDecimal.valueOf(total);
-                     }
-                     return BigDecimal.ZERO;
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Soma o rollup diário (no máximo 31 linhas); como antes, só entram tarefas com cliente e com data
+        DashboardAggregate agg = rollupService.somarPeriodo(start.toLocalDate(), end.toLocalDate());
 
-        long clientesNovos = tarefasPeriodo.stream()
-                .filter(t -> t.getPrioridade() != null && t.getPrioridade() == 1)
-                .count();
+        long totalAgendamentos = agg.getTotalAgendamentos() != null ? agg.getTotalAgendamentos() : 0L;
+        long clientesNovos = agg.getClientesNovos() != null ? agg.getClientesNovos() : 0L;
+        long clientesRecorrentes = agg.getClientesRecorrentes() != null ? agg.getClientesRecorrentes() : 0L;
+        // Centavos: acumuladores long, convertidos para reais só na resposta
+        long esperado = agg.getValorEsperado() != null ? agg.getValorEsperado() : 0L;
+        long recebido = agg.getValorRecebido() != null ? agg.getValorRecebido() : 0L;
+        long aPagar = agg.getValorAPagar() != null ? agg.getValorAPagar() : 0L;
 
-        long clientesRecorrentes = tarefasPeriodo.stream()
-                .filter(t -> t.getPrioridade() != null && t.getPrioridade() == 2)
-                .count();
+        // Ocorrências de recorrências ainda não materializadas contam como tarefas (expandidas só no período)
+        for (Ocorrencia o : recorrencias.ocorrencias(start, end)) {
+            Contribuicao c = Contribuicao.de(o.regra().comoTarefa(o.dia()));
+            totalAgendamentos += c.total();
+            clientesNovos += c.novos();
+            clientesRecorrentes += c.recorrentes();
+            esperado += c.esperado();
+            recebido += c.recebido();
+            aPagar += c.aPagar();
+        }
+        BigDecimal valorEsperado = Dinheiro.emBigDecimal(esperado);
+        BigDecimal valorRecebido = Dinheiro.emBigDecimal(recebido);
+        BigDecimal valorAPagar = Dinheiro.emBigDecimal(aPagar);
 
-        return ResponseEntity.ok(new DashboardStatsDTO(
+        return ResponseEntity.ok().eTag(etag).cacheControl(TableVersions.REVALIDAR).body(new DashboardStatsDTO(
             totalAgendamentos,
             clientesNovos,
             clientesRecorrentes,
@@ -126,49 +190,76 @@ public class TaskController {
         ));
     }
 
-    private String getUsuarioLogado() {
-        try {
-            Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-            if (principal instanceof User user) return user.getName();
-        } catch (Exception e) {}
-        return "Sistema";
+    @PostMapping("/dashboard/rollup/rebuild")
+    public ResponseEntity<Map<String, Integer>> reconstruirRollup() {
+        int dias = rollupService.reconstruir();
+        versions.alterou(Tabela.TAREFAS);
+        return ResponseEntity.ok(Map.of("dias", dias));
     }
 
-    private TaskDTO toDTO(Task t) {
+    @GetMapping("/dashboard/rollup/check")
+    public ResponseEntity<RollupVerificacaoDTO> verificarRollup() {
+        return ResponseEntity.ok(rollupService.verificar());
+    }
+
+    // Mapeamentos com visibilidade de pacote para os benchmarks JMH (src/test)
+    TaskDTO toDTO(Task t) {
         Cliente c = t.getCliente();
         return new TaskDTO(
                 t.getId(),
                 t.getTitulo(),
                 t.getDescricao(),
-                t.getStatus(),
-                t.getPrioridade(),
+                t.getStatus() != null ? t.getStatus().name() : null,
+                TipoCliente.codigo(t.getTipoCliente()),
                 c != null ? c.getId() : null,
                 c != null ? c.getNome() : null,
                 c != null ? c.getEndereco() : null,
                 t.getDataServico() != null ? t.getDataServico().format(DATE_TIME_FORMATTER) : null,
                 t.getCriadoPor(),
-                t.getValorPago(),
-                t.getValorTotal(),
+                Dinheiro.emReais(t.getValorPago()),
+                Dinheiro.emReais(t.getValorTotal()),
                 t.getQuantidadePessoas()
         );
     }
 
-    private Task toEntity(TaskDTO dto) {
+    TaskDTO toDTO(TaskRow r) {
+        return new TaskDTO(
+                r.id(),
+                r.titulo(),
+                r.descricao(),
+                r.status() != null ? r.status().name() : null,
+                TipoCliente.codigo(r.tipoCliente()),
+                r.clienteId(),
+                r.clienteNome(),
+                r.clienteEndereco(),
+                r.dataServico() != null ? r.dataServico().format(DATE_TIME_FORMATTER) : null,
+                r.criadoPor(),
+                Dinheiro.emReais(r.valorPago()),
+                Dinheiro.emReais(r.valorTotal()),
+                r.quantidadePessoas()
+        );
+    }
+
+    Task toEntity(TaskDTO dto) {
+        return toEntity(dto, id -> clienteRepository.findById(id).orElse(null));
+    }
+
+    // No lote os clientes já vêm carregados de uma vez (findAllById)
+    private Task toEntity(TaskDTO dto, Function<Long, Cliente> clientes) {
         Task task = new Task();
         task.setTitulo(dto.getTitulo());
         task.setDescricao(dto.getDescricao());
-        task.setStatus(dto.getStatus());
-        task.setPrioridade(dto.getPrioridade());
-        task.setValorPago(dto.getValorPago());
-        task.setValorTotal(dto.getValorTotal());
+        try {
+            task.setStatus(StatusTarefa.de(dto.getStatus()));
+            task.setTipoCliente(TipoCliente.deCodigo(dto.getPrioridade()));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        task.setValorPago(Dinheiro.deReais(dto.getValorPago()));
+        task.setValorTotal(Dinheiro.deReais(dto.getValorTotal()));
         task.setQuantidadePessoas(dto.getQuantidadePessoas());
 
-        if (dto.getClienteId() != null && dto.getClienteId() > 0) {
-            Optional<Cliente> cliente = clienteRepository.findById(dto.getClienteId());
-            cliente.ifPresent(task::setCliente);
-        } else {
-            task.setCliente(null);
-        }
+        task.setCliente(dto.getClienteId() != null && dto.getClienteId() > 0 ? clientes.apply(dto.getClienteId()) : null);
         
         if (dto.getDataServico() != null && !dto.getDataServico().isEmpty()) {
             String cleanDate = dto.getDataServico().replace("T", " ");
@@ -177,64 +268,406 @@ public class TaskController {
         return task;
     }
 
+    // Tarefas com data em (dataServico, id) e, sem janela de datas, as sem data em seguida (só pelo id).
+    // A segunda consulta só roda quando as com data acabam dentro da página. quantidade null = sem limite
+    private List<TaskRow> buscarPagina(LocalDateTime from, LocalDateTime to, StatusTarefa status, Long clienteId,
+                                       TaskCursor after, Integer quantidade) {
+        boolean jaNasSemData = after != null && after.dataServico() == null;
+        List<TaskRow> linhas = new ArrayList<>();
+        if (!jaNasSemData) {
+            linhas.addAll(repository.findPage(from, to, status, clienteId,
+                    after != null ? after.dataServico() : null,
+                    after != null ? after.id() : null,
+                    quantidade != null ? PageRequest.of(0, quantidade) : Pageable.unpaged()));
+        }
+        if (from == null && to == null && (quantidade == null || linhas.size() < quantidade)) {
+            linhas.addAll(repository.findPageSemData(status, clienteId,
+                    jaNasSemData ? after.id() : null,
+                    quantidade != null ? PageRequest.of(0, quantidade - linhas.size()) : Pageable.unpaged()));
+        }
+        return linhas;
+    }
+
+    // Listagem por janela de datas. Sem limit/cursor devolve tudo o que casa com os filtros (como /clientes);
+    // com eles, página por cursor (próxima no header X-Next-Cursor). Sem from/to, as tarefas sem data vêm no fim
     @GetMapping
-    public List<TaskDTO> listar() {
-        return repository.findAll().stream().map(this::toDTO).collect(Collectors.toList());
+    public ResponseEntity<List<TaskDTO>> listar(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long clienteId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request
+    ) {
+        // Versões lidas antes da consulta; a listagem traz nome/endereço do cliente
+        String etag = versions.etag("tarefas", Tabela.TAREFAS, Tabela.CLIENTES);
+        ResponseEntity<List<TaskDTO>> naoModificado = TableVersions.naoModificado(request, etag);
+        if (naoModificado != null) return naoModificado;
+
+        TaskCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                after = TaskCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+        }
+        StatusTarefa filtroStatus;
+        try {
+            filtroStatus = StatusTarefa.de(status);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag).cacheControl(TableVersions.REVALIDAR);
+        // Sem limit/cursor, sem limite; paginado, busca um a mais só para saber se existe próxima página
+        Integer pageSize = null;
+        Integer quantidade = null;
+        if (limit != null || cursor != null) {
+            pageSize = Math.max(1, Math.min(limit != null ? limit : DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE));
+            quantidade = pageSize + 1;
+        }
+
+        List<ItemListagem> itens = new ArrayList<>();
+        for (TaskRow r : buscarPagina(from, to, filtroStatus, clienteId, after, quantidade)) {
+            itens.add(new ItemListagem(r.dataServico(), r.id(), toDTO(r)));
+        }
+        // Ocorrências de recorrências são expandidas só na janela pedida e entram na mesma ordem e no mesmo cursor
+        if (from != null && to != null) {
+            itens.addAll(ocorrenciasVirtuais(from, to, filtroStatus, clienteId, after, quantidade));
+            itens.sort(ItemListagem.ORDEM);
+        }
+        if (pageSize != null && itens.size() > pageSize) {
+            itens = itens.subList(0, pageSize);
+            ItemListagem ultimo = itens.get(pageSize - 1);
+            response.header(NEXT_CURSOR_HEADER, new TaskCursor(ultimo.dataServico(), ultimo.id()).encode());
+        }
+        return response.body(itens.stream().map(ItemListagem::dto).collect(Collectors.toList()));
+    }
+
+    // Item da listagem com a chave do cursor. Ocorrência virtual (sem id) usa id 0: vem antes de qualquer
+    // tarefa no mesmo horário. Sem data só existe fora de janela de datas, e vai para o fim
+    private record ItemListagem(LocalDateTime dataServico, long id, TaskDTO dto) {
+        static final Comparator<ItemListagem> ORDEM = Comparator
+                .comparing(ItemListagem::dataServico, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparingLong(ItemListagem::id);
+    }
+
+    // Ocorrências da janela depois do cursor, em ordem de horário; só as que cabem na página buscam cliente
+    private List<ItemListagem> ocorrenciasVirtuais(LocalDateTime from, LocalDateTime to, StatusTarefa status, Long clienteId,
+                                                   TaskCursor after, Integer quantidade) {
+        List<Ocorrencia> ocorrencias = recorrencias.ocorrencias(from, to).stream()
+                .filter(o -> status == null || status == o.regra().status())
+                .filter(o -> clienteId == null || clienteId.equals(o.regra().clienteId()))
+                .filter(o -> after == null || (after.dataServico() != null && o.dataServico().isAfter(after.dataServico())))
+                .sorted(Comparator.comparing(Ocorrencia::dataServico))
+                .limit(quantidade != null ? quantidade : Long.MAX_VALUE)
+                .toList();
+        if (ocorrencias.isEmpty()) return List.of();
+
+        Map<Long, Cliente> clientes = clienteRepository.findAllById(
+                        ocorrencias.stream().map(o -> o.regra().clienteId()).distinct().toList()).stream()
+                .collect(Collectors.toMap(Cliente::getId, Function.identity()));
+        List<ItemListagem> lista = new ArrayList<>(ocorrencias.size());
+        for (Ocorrencia o : ocorrencias) {
+            Task t = o.regra().comoTarefa(o.dia());
+            Cliente c = clientes.get(o.regra().clienteId());
+            if (c != null) t.setCliente(c);
+            TaskDTO dto = toDTO(t);
+            dto.setRecorrenciaId(o.regra().id());
+            dto.setOcorrencia(o.dia().toString());
+            lista.add(new ItemListagem(o.dataServico(), 0L, dto));
+        }
+        return lista;
+    }
+
+    // Exportação em streaming para a contabilidade (NDJSON ou CSV, gzip se aceito): memória constante
+    @GetMapping("/export")
+    @Transactional(readOnly = true)
+    public void exportar(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        try (Stream<TaskRow> rows = repository.streamRows(from, to)) {
+            exporter.exportar(rows.map(this::toDTO), TaskDTO.class, StreamingExporter.formato(format), "tarefas",
+                    CSV_CABECALHO,
+                    t -> Arrays.asList(t.getId(), t.getTitulo(), t.getDescricao(), t.getStatus(), t.getPrioridade(),
+                            t.getClienteId(), t.getClienteNome(), t.getClienteEndereco(), t.getDataServico(),
+                            t.getCriadoPor(), t.getValorPago(), t.getValorTotal(), t.getQuantidadePessoas()),
+                    request, response);
+        }
+    }
+
+    // Horários livres/ocupados por dia, calculados no servidor a partir do índice de ocupação
+    @GetMapping("/disponibilidade")
+    public ResponseEntity<List<DisponibilidadeDiaDTO>> disponibilidade(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        if (to.isBefore(from) || from.plusDays(MAX_DIAS_DISPONIBILIDADE).isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Intervalo inválido (máximo de " + MAX_DIAS_DISPONIBILIDADE + " dias).");
+        }
+        return ResponseEntity.ok(slotIndex.disponibilidade(from, to));
+    }
+
+    // Alterações da agenda em tempo real (SSE); reconectando com Last-Event-ID vem só o que foi perdido
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return changeFeed.assinar(lastEventId);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<TaskDTO> buscar(@PathVariable Long id) {
-        return repository.findById(id).map(task -> ResponseEntity.ok(toDTO(task))).orElse(ResponseEntity.notFound().build());
+        return repository.findRowById(id).map(row -> ResponseEntity.ok(toDTO(row))).orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
+    @Transactional
     public TaskDTO criar(@RequestBody TaskDTO dto) {
-        if (dto.getDataServico() != null && !dto.getDataServico().isEmpty()) {
-            String cleanDate = dto.getDataServico().replace("T", " ");
-            LocalDateTime novaData = LocalDateTime.parse(cleanDate, DATE_TIME_FORMATTER);
-            
-            if (repository.existsByDataServico(novaData)) {
-                throw new ResponseStatusException(HttpStatus.CONFLICT, "Já existe um agendamento para este horário.");
+        Task novaTarefa = toEntity(dto);
+        validarObrigatorios(novaTarefa);
+        validarFuncionamento(novaTarefa.getDataServico());
+
+        // Ocorrência de recorrência editada ou paga: vira tarefa real e a data sai da regra (antes da reserva)
+        LocalDate ocorrencia = null;
+        if (dto.getRecorrenciaId() != null) {
+            try {
+                ocorrencia = LocalDate.parse(String.valueOf(dto.getOcorrencia()));
+            } catch (DateTimeParseException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe a data da ocorrência (yyyy-MM-dd).");
             }
+            recorrenciaService.materializar(dto.getRecorrenciaId(), ocorrencia);
         }
 
-        Task novaTarefa = toEntity(dto);
-        novaTarefa.setCriadoPor(getUsuarioLogado());
-        return toDTO(repository.save(novaTarefa));
+        // Checagem e reserva atômicas no índice em memória (liberado se a transação falhar)
+        if (novaTarefa.getDataServico() != null
+                && !slotIndex.moverNaTransacao(null, novaTarefa.getDataServico())) {
+            throw conflito("criar", "Já existe um agendamento para este horário.");
+        }
+
+        novaTarefa.setCriadoPor(AuthenticatedUser.nomeLogado());
+        Task salva = salvarComHorarioUnico(novaTarefa, "criar", "Já existe um agendamento para este horário.");
+        rollupService.aplicar(null, Contribuicao.de(salva));
+        versions.alterou(Tabela.TAREFAS);
+        TaskDTO resposta = toDTO(salva);
+        if (ocorrencia != null) {
+            // Quem recebe o evento troca a ocorrência virtual pela tarefa
+            resposta.setRecorrenciaId(dto.getRecorrenciaId());
+            resposta.setOcorrencia(ocorrencia.toString());
+        }
+        changeFeed.publicar(TaskChangeFeed.UPSERT, resposta);
+        return resposta;
     }
 
     @PutMapping("/{id}")
+    @Transactional
     public ResponseEntity<TaskDTO> atualizar(@PathVariable Long id, @RequestBody TaskDTO dados) {
         return repository.findById(id).map(task -> {
-            if (dados.getDataServico() != null && !dados.getDataServico().isEmpty()) {
-                String cleanDate = dados.getDataServico().replace("T", " ");
-                LocalDateTime novaData = LocalDateTime.parse(cleanDate, DATE_TIME_FORMATTER);
+            Contribuicao antes = Contribuicao.de(task);
+            Task nova = toEntity(dados);
+            validarObrigatorios(nova);
+            // Só valida a grade se mudou o horário (agendamentos antigos podem estar fora dela)
+            if (nova.getDataServico() != null && !nova.getDataServico().equals(task.getDataServico())) {
+                validarFuncionamento(nova.getDataServico());
+            }
 
-                if (repository.existsByDataServicoAndIdNot(novaData, id)) {
-                    throw new ResponseStatusException(HttpStatus.CONFLICT, "Horário indisponível. Já existe outro agendamento.");
-                }
+            if (!slotIndex.moverNaTransacao(task.getDataServico(), nova.getDataServico())) {
+                throw conflito("atualizar", "Horário indisponível. Já existe outro agendamento.");
             }
 
-            Task nova = toEntity(dados);
-            task.setTitulo(nova.getTitulo());
-            task.setDescricao(nova.getDescricao());
-            task.setStatus(nova.getStatus()); 
-            task.setPrioridade(nova.getPrioridade());
-            task.setCliente(nova.getCliente());
-            task.setDataServico(nova.getDataServico());
-            task.setValorPago(nova.getValorPago());
-            task.setValorTotal(nova.getValorTotal());
-            task.setQuantidadePessoas(nova.getQuantidadePessoas());
-            return ResponseEntity.ok(toDTO(repository.save(task)));
+            copiarCampos(nova, task);
+            Task salva = salvarComHorarioUnico(task, "atualizar", "Horário indisponível. Já existe outro agendamento.");
+            rollupService.aplicar(antes, Contribuicao.de(salva));
+            versions.alterou(Tabela.TAREFAS);
+            TaskDTO resposta = toDTO(salva);
+            changeFeed.publicar(TaskChangeFeed.UPSERT, resposta);
+            return ResponseEntity.ok(resposta);
         }).orElse(ResponseEntity.notFound().build());
     }
 
+    private static void copiarCampos(Task origem, Task destino) {
+        destino.setTitulo(origem.getTitulo());
+        destino.setDescricao(origem.getDescricao());
+        destino.setStatus(origem.getStatus());
+        destino.setTipoCliente(origem.getTipoCliente());
+        destino.setCliente(origem.getCliente());
+        destino.setDataServico(origem.getDataServico());
+        destino.setValorPago(origem.getValorPago());
+        destino.setValorTotal(origem.getValorTotal());
+        destino.setQuantidadePessoas(origem.getQuantidadePessoas());
+    }
+
+    /**
+     * Cria ou atualiza várias tarefas de uma vez (item com id = atualização). Clientes e tarefas
+     * existentes vêm de um findAllById cada, o conflito de horário é checado e reservado no
+     * SlotOccupancyIndex e os INSERTs vão em lotes JDBC. Com atomico=true (padrão) qualquer
+     * item com erro desfaz o lote inteiro; com atomico=false os itens válidos são gravados.
+     * A resposta traz o resultado de cada item, na ordem enviada.
+     */
+    @PostMapping("/batch")
+    @Transactional
+    public ResponseEntity<List<TaskBatchItemDTO>> lote(
+            @RequestBody List<TaskDTO> itens,
+            @RequestParam(defaultValue = "true") boolean atomico
+    ) {
+        if (itens == null || itens.isEmpty() || itens.size() > MAX_LOTE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Envie de 1 a " + MAX_LOTE + " tarefas por lote.");
+        }
+
+        Map<Long, Cliente> clientes = clienteRepository.findAllById(ids(itens, TaskDTO::getClienteId)).stream()
+                .collect(Collectors.toMap(Cliente::getId, Function.identity()));
+        Map<Long, Task> existentes = repository.findAllById(ids(itens, TaskDTO::getId)).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        String usuario = AuthenticatedUser.nomeLogado();
+        TaskBatchItemDTO[] resultados = new TaskBatchItemDTO[itens.size()];
+        List<Integer> indices = new ArrayList<>();
+        List<Task> aceitas = new ArrayList<>();
+        List<Contribuicao> antes = new ArrayList<>();
+        Set<Long> atualizadas = new HashSet<>();
+        HttpStatus primeiroErro = null;
+
+        for (int i = 0; i < itens.size(); i++) {
+            TaskDTO dto = itens.get(i);
+            try {
+                Task nova;
+                try {
+                    nova = toEntity(dto, clientes::get);
+                } catch (DateTimeParseException e) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Data inválida (use yyyy-MM-dd HH:mm).");
+                }
+                validarObrigatorios(nova);
+
+                Task task = dto.getId() != null ? existentes.get(dto.getId()) : null;
+                if (dto.getId() != null && task == null) {
+                    throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Tarefa não encontrada.");
+                }
+                if (task != null && !atualizadas.add(task.getId())) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Tarefa repetida no lote.");
+                }
+                LocalDateTime horarioAntigo = task != null ? task.getDataServico() : null;
+                if (nova.getDataServico() != null && !nova.getDataServico().equals(horarioAntigo)) {
+                    validarFuncionamento(nova.getDataServico());
+                }
+                // Reserva por último: daqui em diante o item está aceito (rollback libera a reserva)
+                if (!slotIndex.moverNaTransacao(horarioAntigo, nova.getDataServico())) {
+                    throw conflito("lote", "Já existe um agendamento para este horário.");
+                }
+
+                if (task != null) {
+                    antes.add(Contribuicao.de(task));
+                    copiarCampos(nova, task);
+                } else {
+                    antes.add(null);
+                    nova.setCriadoPor(usuario);
+                    task = nova;
+                }
+                indices.add(i);
+                aceitas.add(task);
+            } catch (ResponseStatusException e) {
+                HttpStatus status = HttpStatus.valueOf(e.getStatusCode().value());
+                if (primeiroErro == null) primeiroErro = status;
+                resultados[i] = new TaskBatchItemDTO(i, status.value(), e.getReason(), null);
+            }
+        }
+
+        if (primeiroErro != null && atomico) {
+            // Nada é gravado; o rollback também devolve os horários reservados acima
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            for (int i : indices) {
+                resultados[i] = new TaskBatchItemDTO(i, HttpStatus.FAILED_DEPENDENCY.value(),
+                        "Não gravado: outro item do lote falhou.", null);
+            }
+            return ResponseEntity.status(primeiroErro).body(Arrays.asList(resultados));
+        }
+
+        try {
+            repository.saveAll(aceitas);
+            repository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (!horarioRepetido(e)) throw e;
+            throw conflito("lote", "Conflito de horário ao gravar o lote.");
+        }
+
+        List<Contribuicao> depois = new ArrayList<>(aceitas.size());
+        for (int k = 0; k < aceitas.size(); k++) {
+            Task salva = aceitas.get(k);
+            depois.add(Contribuicao.de(salva));
+            TaskDTO resposta = toDTO(salva);
+            changeFeed.publicar(TaskChangeFeed.UPSERT, resposta);
+            resultados[indices.get(k)] = new TaskBatchItemDTO(indices.get(k), HttpStatus.OK.value(), null, resposta);
+        }
+        if (!aceitas.isEmpty()) {
+            rollupService.aplicarTodos(antes, depois);
+            versions.alterou(Tabela.TAREFAS);
+        }
+        return ResponseEntity.ok(Arrays.asList(resultados));
+    }
+
+    private static List<Long> ids(List<TaskDTO> itens, Function<TaskDTO, Long> campo) {
+        return itens.stream().map(campo).filter(id -> id != null && id > 0).distinct().toList();
+    }
+
+    private void validarFuncionamento(LocalDateTime dataServico) {
+        if (dataServico != null && !schedule.permitido(dataServico)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Horário fora do funcionamento (segunda fechado, domingo até 19:30).");
+        }
+    }
+
+    // A constraint única de data_servico é o backstop do índice: vira 409 em vez de 500.
+    // Outras violações (NOT NULL, exceção de recorrência repetida) não são conflito de horário e seguem adiante
+    private Task salvarComHorarioUnico(Task task, String origem, String mensagemConflito) {
+        try {
+            return repository.saveAndFlush(task);
+        } catch (DataIntegrityViolationException e) {
+            if (!horarioRepetido(e)) throw e;
+            throw conflito(origem, mensagemConflito);
+        }
+    }
+
+    // Nome da constraint pelo Hibernate; sem ele (driver não informou), pela mensagem do banco
+    private static boolean horarioRepetido(DataIntegrityViolationException e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            String texto = causa instanceof ConstraintViolationException violacao && violacao.getConstraintName() != null
+                    ? violacao.getConstraintName()
+                    : causa.getMessage();
+            if (texto != null && texto.toLowerCase(Locale.ROOT).contains(HORARIO_UNICO)) return true;
+        }
+        return false;
+    }
+
+    private static void validarObrigatorios(Task task) {
+        if (task.getTitulo() == null || task.getTitulo().isBlank() || task.getStatus() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Título e status são obrigatórios.");
+        }
+    }
+
+    // 409 de horário ocupado, contado em km.agendamento.conflitos
+    private ResponseStatusException conflito(String origem, String mensagem) {
+        metrics.conflitoDeHorario(origem);
+        return new ResponseStatusException(HttpStatus.CONFLICT, mensagem);
+    }
+
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<Void> deletar(@PathVariable Long id) {
-        if (repository.existsById(id)) {
-            repository.deleteById(id);
-            return ResponseEntity.noContent().build();
-        }
-        return ResponseEntity.notFound().build();
+        return repository.findById(id)
+                .map(task -> {
+                    Contribuicao antes = Contribuicao.de(task);
+                    TaskDTO removida = toDTO(task);
+                    slotIndex.moverNaTransacao(task.getDataServico(), null);
+                    repository.delete(task);
+                    rollupService.aplicar(antes, null);
+                    versions.alterou(Tabela.TAREFAS);
+                    changeFeed.publicar(TaskChangeFeed.DELETE, removida);
+                    return ResponseEntity.noContent().<Void>build();
+                })
+                .orElse(ResponseEntity.notFound().build());
     }
 }
\ No newline at end of file
@@ -8,7 +8,6 @@ import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -16,9 +15,14 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.kmmanagement.model.User;
 import com.kmmanagement.repository.UserRepository;
+import com.kmmanagement.security.PasswordHasher;
+import com.kmmanagement.security.PrincipalCache;
+import com.kmmanagement.service.TableVersions;
+import com.kmmanagement.service.TableVersions.Tabela;
 
 @RestController
 @RequestMapping("/users") // Sem /api, alinhado com o front
@@ -28,7 +32,13 @@ public class UserController {
     private UserRepository repository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TableVersions versions;
 
     // DTO simples para não expor a senha na listagem
     private Map<String, Object> toMap(User u) {
@@ -41,11 +51,15 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> listar() {
+    public ResponseEntity<List<Map<String, Object>>> listar(WebRequest request) {
+        String etag = versions.etag("users", Tabela.USERS);
+        ResponseEntity<List<Map<String, Object>>> naoModificado = TableVersions.naoModificado(request, etag);
+        if (naoModificado != null) return naoModificado;
+
         List<Map<String, Object>> list = repository.findAll().stream()
                 .map(this::toMap)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(list);
+        return ResponseEntity.ok().eTag(etag).cacheControl(TableVersions.REVALIDAR).body(list);
     }
 
     @PutMapping("/{id}")
@@ -60,15 +74,21 @@ public class UserController {
             return ResponseEntity.status(403).body("Não é permitido editar administradores.");
         }
 
+        String emailAntigo = user.getEmail();
+
         if (body.containsKey("name")) user.setName(body.get("name"));
         if (body.containsKey("email")) user.setEmail(body.get("email"));
         
         // Se mandou senha nova, criptografa
         if (body.containsKey("password") && !body.get("password").isBlank()) {
-            user.setPassword(passwordEncoder.encode(body.get("password")));
+            user.setPassword(passwordHasher.hash(body.get("password")));
         }
 
         repository.save(user);
+        versions.alterou(Tabela.USERS);
+        // Email é a chave do cache de principals: invalida o antigo e o novo
+        principalCache.invalidate(emailAntigo);
+        principalCache.invalidate(user.getEmail());
         return ResponseEntity.ok(toMap(user));
     }
 
@@ -85,6 +105,18 @@ public class UserController {
         }
 
         repository.delete(user);
+        versions.alterou(Tabela.USERS);
+        principalCache.invalidate(user.getEmail());
         return ResponseEntity.noContent().build();
     }
+
+    // Contadores do cache de principals do SecurityFilter
+    @GetMapping("/principal-cache")
+    public ResponseEntity<Map<String, Object>> principalCacheStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("hits", principalCache.getHits());
+        stats.put("misses", principalCache.getMisses());
+        stats.put("size", principalCache.size());
+        return ResponseEntity.ok(stats);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.kmmanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+// Item de /clientes?resumo=true: os campos do cliente mais o objeto "resumo"
+public record ClienteListagemDTO(@JsonUnwrapped ClienteDTO cliente, ClienteResumoDTO resumo) {}
@@ -0,0 +1,14 @@
+package com.kmmanagement.dto;
+
+import java.time.LocalDateTime;
+
+// Histórico de um cliente agregado no banco (uma linha por cliente; valores em centavos)
+public interface ClienteResumo {
+    Long getClienteId();
+    Long getVisitas();
+    LocalDateTime getPrimeiraVisita(); // null se o cliente ainda não tem tarefas
+    LocalDateTime getUltimaVisita();
+    Long getValorFaturado();
+    Long getValorPago();
+    Long getValorEmAberto();
+}
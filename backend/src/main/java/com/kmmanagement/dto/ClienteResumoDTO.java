@@ -0,0 +1,34 @@
+package com.kmmanagement.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.kmmanagement.model.Dinheiro;
+
+// Resumo do cliente para a API: valores em reais, com as mesmas regras de status do dashboard
+public record ClienteResumoDTO(
+    Long clienteId,
+    long visitas,
+    LocalDateTime primeiraVisita,
+    LocalDateTime ultimaVisita,
+    BigDecimal faturado,  // Soma do valor total de todas as tarefas
+    BigDecimal pago,      // Recebido das tarefas PAGO
+    BigDecimal emAberto   // A_PAGAR inteiro + o que falta das tarefas PAGO
+) {
+
+    public static ClienteResumoDTO de(ClienteResumo r) {
+        return new ClienteResumoDTO(
+                r.getClienteId(),
+                valor(r.getVisitas()),
+                r.getPrimeiraVisita(),
+                r.getUltimaVisita(),
+                Dinheiro.emBigDecimal(valor(r.getValorFaturado())),
+                Dinheiro.emBigDecimal(valor(r.getValorPago())),
+                Dinheiro.emBigDecimal(valor(r.getValorEmAberto()))
+        );
+    }
+
+    private static long valor(Long v) {
+        return v != null ? v : 0L;
+    }
+}
@@ -0,0 +1,11 @@
+package com.kmmanagement.dto;
+
+// Projeção da query agregada do dashboard (uma linha, somas feitas no banco; valores em centavos)
+public interface DashboardAggregate {
+    Long getTotalAgendamentos();
+    Long getClientesNovos();
+    Long getClientesRecorrentes();
+    Long getValorEsperado();
+    Long getValorRecebido();
+    Long getValorAPagar();
+}
@@ -0,0 +1,8 @@
+package com.kmmanagement.dto;
+
+import java.time.LocalDate;
+
+// Mesma agregação, agrupada também por dia (usada para reconstruir e conferir o rollup)
+public interface DashboardDiaGrupo extends DashboardGrupo {
+    LocalDate getDia();
+}
@@ -0,0 +1,14 @@
+package com.kmmanagement.dto;
+
+import com.kmmanagement.model.StatusTarefa;
+import com.kmmanagement.model.TipoCliente;
+
+// Uma linha da agregação de tarefas por status e tipo de cliente (somas em centavos)
+public interface DashboardGrupo {
+    StatusTarefa getStatus();
+    TipoCliente getTipoCliente();
+    Long getQuantidade();
+    Long getValorTotal();
+    Long getValorPago();
+    Long getValorFaltante(); // Soma de max(0, total - pago) de cada tarefa
+}
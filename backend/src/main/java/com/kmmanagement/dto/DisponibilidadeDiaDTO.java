@@ -0,0 +1,10 @@
+package com.kmmanagement.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record DisponibilidadeDiaDTO(
+    LocalDate dia,
+    List<String> livres,   // Horários (HH:mm) que ainda podem ser agendados
+    List<String> ocupados  // Horários da grade que já têm agendamento
+) {}
@@ -0,0 +1,18 @@
+package com.kmmanagement.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record QuoteDTO(
+    Long id,
+    Long clienteId,
+    String clienteNome,
+    String clienteTelefone,
+    LocalDateTime criadoEm,
+    String criadoPor,
+    List<QuoteItemDTO> servicos,
+    List<QuoteItemDTO> equipamentos,
+    Double totalServicos,
+    Double totalEquipamentos,
+    Double totalGeral
+) {}
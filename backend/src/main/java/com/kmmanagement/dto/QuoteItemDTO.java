@@ -0,0 +1,7 @@
+package com.kmmanagement.dto;
+
+public record QuoteItemDTO(
+    Long tarefaId,    // Só em serviços vindos de uma tarefa; null para texto livre/equipamento
+    String descricao, // Em serviços de tarefa, vazio usa o título da tarefa
+    Double valor
+) {}
@@ -0,0 +1,9 @@
+package com.kmmanagement.dto;
+
+import java.util.List;
+
+public record QuoteRequestDTO(
+    Long clienteId,
+    List<QuoteItemDTO> servicos,
+    List<QuoteItemDTO> equipamentos
+) {}
@@ -0,0 +1,23 @@
+package com.kmmanagement.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record RecorrenciaDTO(
+    Long id,
+    Long clienteId,
+    String clienteNome,
+    Integer diaSemana,        // 1 = segunda ... 7 = domingo
+    String hora,              // HH:mm
+    LocalDate inicio,
+    LocalDate fim,
+    List<LocalDate> excecoes, // Datas puladas ou já materializadas em tarefas
+    String titulo,
+    String descricao,
+    String status,
+    Integer prioridade,
+    Double valorPago,
+    Double valorTotal,
+    Integer quantidadePessoas,
+    String criadoPor
+) {}
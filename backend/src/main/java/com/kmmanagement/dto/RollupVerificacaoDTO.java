@@ -0,0 +1,9 @@
+package com.kmmanagement.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record RollupVerificacaoDTO(
+    int diasVerificados,
+    List<LocalDate> diasDivergentes // Dias em que o rollup não bate com tarefas
+) {}
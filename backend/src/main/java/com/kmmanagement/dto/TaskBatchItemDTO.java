@@ -0,0 +1,8 @@
+package com.kmmanagement.dto;
+
+public record TaskBatchItemDTO(
+    int indice,      // Posição do item no lote enviado
+    int status,      // Status HTTP do item (200, 400, 404, 409; 424 = não gravado porque outro item falhou)
+    String erro,
+    TaskDTO tarefa   // Tarefa gravada (null se o item não foi gravado)
+) {}
@@ -0,0 +1,28 @@
+package com.kmmanagement.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Cursor da paginação keyset de /tarefas: última posição (dataServico, id) devolvida.
+// dataServico null = já nas tarefas sem data, que vêm no fim ordenadas pelo id
+// id 0 = ocorrência virtual de recorrência (sem linha em tarefas)
+public record TaskCursor(LocalDateTime dataServico, Long id) {
+
+    public String encode() {
+        String raw = dataServico + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Lança IllegalArgumentException se o token for inválido
+    public static TaskCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            String data = raw.substring(0, sep);
+            return new TaskCursor("null".equals(data) ? null : LocalDateTime.parse(data), Long.valueOf(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.kmmanagement.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public class TaskDTO {
     private Long id;
     private String titulo;
@@ -15,6 +17,11 @@ public class TaskDTO {
     private Double valorTotal;
     // --- NOVO CAMPO ---
     private Integer quantidadePessoas;
+    // Ocorrência de recorrência: regra e data original (id null enquanto não vira tarefa)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long recorrenciaId;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String ocorrencia;
 
     public TaskDTO() {}
 
@@ -75,4 +82,10 @@ public class TaskDTO {
 
     public Integer getQuantidadePessoas() { return quantidadePessoas; }
     public void setQuantidadePessoas(Integer quantidadePessoas) { this.quantidadePessoas = quantidadePessoas; }
+
+    public Long getRecorrenciaId() { return recorrenciaId; }
+    public void setRecorrenciaId(Long recorrenciaId) { this.recorrenciaId = recorrenciaId; }
+
+    public String getOcorrencia() { return ocorrencia; }
+    public void setOcorrencia(String ocorrencia) { this.ocorrencia = ocorrencia; }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.kmmanagement.dto;
+
+import java.time.LocalDateTime;
+
+import com.kmmanagement.model.Dinheiro;
+import com.kmmanagement.model.StatusTarefa;
+import com.kmmanagement.model.TipoCliente;
+
+// Linha de leitura de tarefas: só as colunas usadas pelo TaskDTO (cliente: id, nome e endereço)
+public record TaskRow(
+    Long id,
+    String titulo,
+    String descricao,
+    StatusTarefa status,
+    TipoCliente tipoCliente,
+    Long clienteId,
+    String clienteNome,
+    String clienteEndereco,
+    LocalDateTime dataServico,
+    String criadoPor,
+    Dinheiro valorPago,
+    Dinheiro valorTotal,
+    Integer quantidadePessoas
+) {}
@@ -0,0 +1,60 @@
+package com.kmmanagement.model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Rollup diário do dashboard: uma linha por dia, mantida a cada escrita em tarefas
+@Entity
+@Table(name = "dashboard_diario")
+public class DashboardDiario {
+
+    @Id
+    private LocalDate dia;
+
+    @Column(name = "total_agendamentos", nullable = false)
+    private long totalAgendamentos;
+
+    @Column(name = "clientes_novos", nullable = false)
+    private long clientesNovos;
+
+    @Column(name = "clientes_recorrentes", nullable = false)
+    private long clientesRecorrentes;
+
+    // Valores em centavos: deltas inteiros, o rollup nunca acumula erro de arredondamento
+    @Column(name = "valor_esperado", nullable = false)
+    private long valorEsperado;
+
+    @Column(name = "valor_recebido", nullable = false)
+    private long valorRecebido;
+
+    @Column(name = "valor_a_pagar", nullable = false)
+    private long valorAPagar;
+
+    public DashboardDiario() {}
+
+    // Getters e Setters
+    public LocalDate getDia() { return dia; }
+    public void setDia(LocalDate dia) { this.dia = dia; }
+
+    public long getTotalAgendamentos() { return totalAgendamentos; }
+    public void setTotalAgendamentos(long totalAgendamentos) { this.totalAgendamentos = totalAgendamentos; }
+
+    public long getClientesNovos() { return clientesNovos; }
+    public void setClientesNovos(long clientesNovos) { this.clientesNovos = clientesNovos; }
+
+    public long getClientesRecorrentes() { return clientesRecorrentes; }
+    public void setClientesRecorrentes(long clientesRecorrentes) { this.clientesRecorrentes = clientesRecorrentes; }
+
+    public long getValorEsperado() { return valorEsperado; }
+    public void setValorEsperado(long valorEsperado) { this.valorEsperado = valorEsperado; }
+
+    public long getValorRecebido() { return valorRecebido; }
+    public void setValorRecebido(long valorRecebido) { this.valorRecebido = valorRecebido; }
+
+    public long getValorAPagar() { return valorAPagar; }
+    public void setValorAPagar(long valorAPagar) { this.valorAPagar = valorAPagar; }
+}
@@ -0,0 +1,39 @@
+package com.kmmanagement.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Valor monetário exato em centavos (coluna BIGINT, via DinheiroConverter).
+ * A API continua em reais (Double): a conversão arredonda para o centavo uma única vez, na entrada;
+ * daí em diante somas e diferenças são inteiras e batem até o centavo.
+ */
+public record Dinheiro(long centavos) {
+
+    // null continua null (valor não informado)
+    public static Dinheiro deReais(Double reais) {
+        return reais != null ? new Dinheiro(centavos(reais)) : null;
+    }
+
+    // BigDecimal.valueOf usa a representação decimal mais curta do double: 1.005 vira 101 centavos, não 100
+    public static long centavos(double reais) {
+        return BigDecimal.valueOf(reais).movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    // O que os acumuladores somam: valor não informado conta como zero
+    public static long centavos(Dinheiro valor) {
+        return valor != null ? valor.centavos : 0L;
+    }
+
+    public static Double emReais(Dinheiro valor) {
+        return valor != null ? valor.reais() : null;
+    }
+
+    public static BigDecimal emBigDecimal(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    public double reais() {
+        return centavos / 100.0;
+    }
+}
@@ -0,0 +1,22 @@
+package com.kmmanagement.model;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Todo atributo Dinheiro vira BIGINT em centavos; @Immutable: o Hibernate não copia o valor para o dirty checking
+@Immutable
+@Converter(autoApply = true)
+public class DinheiroConverter implements AttributeConverter<Dinheiro, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(Dinheiro valor) {
+        return valor != null ? valor.centavos() : null;
+    }
+
+    @Override
+    public Dinheiro convertToEntityAttribute(Long centavos) {
+        return centavos != null ? new Dinheiro(centavos) : null;
+    }
+}
@@ -0,0 +1,80 @@
+package com.kmmanagement.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OrderColumn;
+import jakarta.persistence.Table;
+
+// Orçamento: serviços (tarefas do cliente ou texto livre) e equipamentos, com totais calculados no servidor
+@Entity
+@Table(name = "orcamentos")
+public class Quote {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "cliente_id", nullable = false)
+    private Cliente cliente;
+
+    @Column(name = "criado_em", nullable = false)
+    private LocalDateTime criadoEm;
+
+    @Column(name = "criado_por")
+    private String criadoPor;
+
+    // Itens na ordem em que aparecem no PDF
+    @ElementCollection
+    @CollectionTable(name = "orcamento_itens", joinColumns = @JoinColumn(name = "orcamento_id"))
+    @OrderColumn(name = "posicao")
+    private List<QuoteItem> itens = new ArrayList<>();
+
+    @Column(name = "total_servicos", nullable = false)
+    private Dinheiro totalServicos;
+
+    @Column(name = "total_equipamentos", nullable = false)
+    private Dinheiro totalEquipamentos;
+
+    @Column(name = "total_geral", nullable = false)
+    private Dinheiro totalGeral;
+
+    public Quote() {}
+
+    // Getters e Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Cliente getCliente() { return cliente; }
+    public void setCliente(Cliente cliente) { this.cliente = cliente; }
+
+    public LocalDateTime getCriadoEm() { return criadoEm; }
+    public void setCriadoEm(LocalDateTime criadoEm) { this.criadoEm = criadoEm; }
+
+    public String getCriadoPor() { return criadoPor; }
+    public void setCriadoPor(String criadoPor) { this.criadoPor = criadoPor; }
+
+    public List<QuoteItem> getItens() { return itens; }
+    public void setItens(List<QuoteItem> itens) { this.itens = itens; }
+
+    public Dinheiro getTotalServicos() { return totalServicos; }
+    public void setTotalServicos(Dinheiro totalServicos) { this.totalServicos = totalServicos; }
+
+    public Dinheiro getTotalEquipamentos() { return totalEquipamentos; }
+    public void setTotalEquipamentos(Dinheiro totalEquipamentos) { this.totalEquipamentos = totalEquipamentos; }
+
+    public Dinheiro getTotalGeral() { return totalGeral; }
+    public void setTotalGeral(Dinheiro totalGeral) { this.totalGeral = totalGeral; }
+}
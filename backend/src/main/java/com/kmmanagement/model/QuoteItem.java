@@ -0,0 +1,51 @@
+package com.kmmanagement.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+
+// Linha de um orçamento (tabela orcamento_itens)
+@Embeddable
+public class QuoteItem {
+
+    public static final String SERVICO = "SERVICO";
+    public static final String EQUIPAMENTO = "EQUIPAMENTO";
+
+    @Column(nullable = false, length = 20)
+    private String tipo;
+
+    @Column(nullable = false, length = 1000)
+    private String descricao;
+
+    @Column(nullable = false)
+    private Dinheiro valor;
+
+    // Tarefa de origem (só em serviços; null para texto livre ou tarefa excluída)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "tarefa_id")
+    private Task tarefa;
+
+    public QuoteItem() {}
+
+    public QuoteItem(String tipo, String descricao, Dinheiro valor, Task tarefa) {
+        this.tipo = tipo;
+        this.descricao = descricao;
+        this.valor = valor;
+        this.tarefa = tarefa;
+    }
+
+    // Getters e Setters
+    public String getTipo() { return tipo; }
+    public void setTipo(String tipo) { this.tipo = tipo; }
+
+    public String getDescricao() { return descricao; }
+    public void setDescricao(String descricao) { this.descricao = descricao; }
+
+    public Dinheiro getValor() { return valor; }
+    public void setValor(Dinheiro valor) { this.valor = valor; }
+
+    public Task getTarefa() { return tarefa; }
+    public void setTarefa(Task tarefa) { this.tarefa = tarefa; }
+}
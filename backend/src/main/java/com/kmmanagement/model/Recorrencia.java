@@ -0,0 +1,123 @@
+package com.kmmanagement.model;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+// Agendamento semanal fixo de um cliente (dia da semana + hora, de início até fim), expandido sob demanda
+@Entity
+@Table(name = "recorrencias")
+public class Recorrencia {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "cliente_id", nullable = false)
+    private Cliente cliente;
+
+    // 1 = segunda ... 7 = domingo (DayOfWeek ISO)
+    @Column(name = "dia_semana", nullable = false)
+    private Integer diaSemana;
+
+    @Column(nullable = false)
+    private LocalTime hora;
+
+    @Column(nullable = false)
+    private LocalDate inicio;
+
+    @Column(nullable = false)
+    private LocalDate fim;
+
+    // Datas puladas ou que já viraram tarefa
+    @ElementCollection
+    @CollectionTable(name = "recorrencia_excecoes", joinColumns = @JoinColumn(name = "recorrencia_id"))
+    @Column(name = "dia")
+    private Set<LocalDate> excecoes = new HashSet<>();
+
+    // Valores copiados para cada ocorrência
+    @Column(nullable = false)
+    private String titulo;
+
+    private String descricao;
+
+    @Column(nullable = false)
+    private StatusTarefa status;
+
+    @Column(name = "prioridade")
+    private TipoCliente tipoCliente;
+
+    @Column(name = "valor_pago")
+    private Dinheiro valorPago;
+
+    @Column(name = "valor_total")
+    private Dinheiro valorTotal;
+
+    @Column(name = "quantidade_pessoas")
+    private Integer quantidadePessoas;
+
+    @Column(name = "criado_por")
+    private String criadoPor;
+
+    public Recorrencia() {}
+
+    // Getters e Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Cliente getCliente() { return cliente; }
+    public void setCliente(Cliente cliente) { this.cliente = cliente; }
+
+    public Integer getDiaSemana() { return diaSemana; }
+    public void setDiaSemana(Integer diaSemana) { this.diaSemana = diaSemana; }
+
+    public LocalTime getHora() { return hora; }
+    public void setHora(LocalTime hora) { this.hora = hora; }
+
+    public LocalDate getInicio() { return inicio; }
+    public void setInicio(LocalDate inicio) { this.inicio = inicio; }
+
+    public LocalDate getFim() { return fim; }
+    public void setFim(LocalDate fim) { this.fim = fim; }
+
+    public Set<LocalDate> getExcecoes() { return excecoes; }
+    public void setExcecoes(Set<LocalDate> excecoes) { this.excecoes = excecoes; }
+
+    public String getTitulo() { return titulo; }
+    public void setTitulo(String titulo) { this.titulo = titulo; }
+
+    public String getDescricao() { return descricao; }
+    public void setDescricao(String descricao) { this.descricao = descricao; }
+
+    public StatusTarefa getStatus() { return status; }
+    public void setStatus(StatusTarefa status) { this.status = status; }
+
+    public TipoCliente getTipoCliente() { return tipoCliente; }
+    public void setTipoCliente(TipoCliente tipoCliente) { this.tipoCliente = tipoCliente; }
+
+    public Dinheiro getValorPago() { return valorPago; }
+    public void setValorPago(Dinheiro valorPago) { this.valorPago = valorPago; }
+
+    public Dinheiro getValorTotal() { return valorTotal; }
+    public void setValorTotal(Dinheiro valorTotal) { this.valorTotal = valorTotal; }
+
+    public Integer getQuantidadePessoas() { return quantidadePessoas; }
+    public void setQuantidadePessoas(Integer quantidadePessoas) { this.quantidadePessoas = quantidadePessoas; }
+
+    public String getCriadoPor() { return criadoPor; }
+    public void setCriadoPor(String criadoPor) { this.criadoPor = criadoPor; }
+}
@@ -0,0 +1,41 @@
+package com.kmmanagement.model;
+
+/**
+ * Situação de pagamento de uma tarefa (ou recorrência). Gravada como código TINYINT
+ * (StatusTarefaConverter): o código é fixo, reordenar as constantes não muda o banco.
+ * FINALIZADO não entra em recebido nem em a pagar no dashboard.
+ */
+public enum StatusTarefa {
+    A_PAGAR(1),
+    PAGO(2),
+    FINALIZADO(3);
+
+    private final int codigo;
+
+    StatusTarefa(int codigo) {
+        this.codigo = codigo;
+    }
+
+    public int codigo() {
+        return codigo;
+    }
+
+    public static StatusTarefa deCodigo(int codigo) {
+        return switch (codigo) {
+            case 1 -> A_PAGAR;
+            case 2 -> PAGO;
+            case 3 -> FINALIZADO;
+            default -> throw new IllegalArgumentException("Código de status desconhecido: " + codigo);
+        };
+    }
+
+    // Entrada da API: sem diferenciar maiúsculas/minúsculas; null continua null, desconhecido é erro
+    public static StatusTarefa de(String valor) {
+        if (valor == null || valor.isBlank()) return null;
+        String nome = valor.trim();
+        for (StatusTarefa s : values()) {
+            if (s.name().equalsIgnoreCase(nome)) return s;
+        }
+        throw new IllegalArgumentException("Status desconhecido: " + valor);
+    }
+}
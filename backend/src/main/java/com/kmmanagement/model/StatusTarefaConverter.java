@@ -0,0 +1,22 @@
+package com.kmmanagement.model;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// StatusTarefa <-> código TINYINT (1 byte por linha, indexável e agrupável no banco)
+@Immutable
+@Converter(autoApply = true)
+public class StatusTarefaConverter implements AttributeConverter<StatusTarefa, Byte> {
+
+    @Override
+    public Byte convertToDatabaseColumn(StatusTarefa status) {
+        return status != null ? (byte) status.codigo() : null;
+    }
+
+    @Override
+    public StatusTarefa convertToEntityAttribute(Byte codigo) {
+        return codigo != null ? StatusTarefa.deCodigo(codigo) : null;
+    }
+}
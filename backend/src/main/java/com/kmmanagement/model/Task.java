@@ -4,19 +4,26 @@ import java.time.LocalDateTime;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.UniqueConstraint;
 
 @Entity
-@Table(name = "tarefas")
+// Um agendamento por horário: garantia final por trás do SlotOccupancyIndex
+@Table(name = "tarefas", uniqueConstraints = @UniqueConstraint(name = "uk_tarefas_data_servico", columnNames = "data_servico"))
 public class Task {
 
+    // Ids reservados em blocos de 50 na tabela id_geradores: ao contrário de IDENTITY, permite INSERT em lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "tarefas_id")
+    @TableGenerator(name = "tarefas_id", table = "id_geradores", pkColumnName = "sequencia",
+            valueColumnName = "proximo", pkColumnValue = "tarefas", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -24,12 +31,15 @@ public class Task {
 
     private String descricao;
 
+    // Código TINYINT (StatusTarefaConverter), indexado com data_servico
     @Column(nullable = false)
-    private String status;
+    private StatusTarefa status;
 
-    private Integer prioridade;
+    @Column(name = "prioridade")
+    private TipoCliente tipoCliente;
 
-    @ManyToOne
+    // LAZY: leituras usam projeções (TaskRow) que buscam só as colunas necessárias do cliente
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cliente_id")
     private Cliente cliente;
 
@@ -39,13 +49,13 @@ public class Task {
     @Column(name = "criado_por")
     private String criadoPor;
 
-    // Usado como valor unitário/por pessoa para o cálculo
+    // Usado como valor unitário/por pessoa para o cálculo (centavos, BIGINT)
     @Column(name = "valor_pago")
-    private Double valorPago;
+    private Dinheiro valorPago;
 
     // Calculado: qtd * valorPago
     @Column(name = "valor_total")
-    private Double valorTotal;
+    private Dinheiro valorTotal;
 
     // --- NOVO CAMPO ---
     @Column(name = "quantidade_pessoas")
@@ -63,11 +73,11 @@ public class Task {
     public String getDescricao() { return descricao; }
     public void setDescricao(String descricao) { this.descricao = descricao; }
 
-    public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
+    public StatusTarefa getStatus() { return status; }
+    public void setStatus(StatusTarefa status) { this.status = status; }
 
-    public Integer getPrioridade() { return prioridade; }
-    public void setPrioridade(Integer prioridade) { this.prioridade = prioridade; }
+    public TipoCliente getTipoCliente() { return tipoCliente; }
+    public void setTipoCliente(TipoCliente tipoCliente) { this.tipoCliente = tipoCliente; }
 
     public Cliente getCliente() { return cliente; }
     public void setCliente(Cliente cliente) { this.cliente = cliente; }
@@ -78,11 +88,11 @@ public class Task {
     public String getCriadoPor() { return criadoPor; }
     public void setCriadoPor(String criadoPor) { this.criadoPor = criadoPor; }
 
-    public Double getValorPago() { return valorPago; }
-    public void setValorPago(Double valorPago) { this.valorPago = valorPago; }
+    public Dinheiro getValorPago() { return valorPago; }
+    public void setValorPago(Dinheiro valorPago) { this.valorPago = valorPago; }
 
-    public Double getValorTotal() { return valorTotal; }
-    public void setValorTotal(Double valorTotal) { this.valorTotal = valorTotal; }
+    public Dinheiro getValorTotal() { return valorTotal; }
+    public void setValorTotal(Dinheiro valorTotal) { this.valorTotal = valorTotal; }
 
     public Integer getQuantidadePessoas() { return quantidadePessoas; }
     public void setQuantidadePessoas(Integer quantidadePessoas) { this.quantidadePessoas = quantidadePessoas; }
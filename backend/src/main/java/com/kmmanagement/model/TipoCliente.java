@@ -0,0 +1,34 @@
+package com.kmmanagement.model;
+
+/**
+ * Tipo de cliente do agendamento (campo "prioridade" da API: 1 = primeira vez, 2 = recorrente).
+ * Gravado como código TINYINT na coluna prioridade (TipoClienteConverter).
+ */
+public enum TipoCliente {
+    NOVO(1),
+    RECORRENTE(2);
+
+    private final int codigo;
+
+    TipoCliente(int codigo) {
+        this.codigo = codigo;
+    }
+
+    public int codigo() {
+        return codigo;
+    }
+
+    // null continua null (tipo não informado); outro código é erro
+    public static TipoCliente deCodigo(Integer codigo) {
+        if (codigo == null) return null;
+        return switch (codigo) {
+            case 1 -> NOVO;
+            case 2 -> RECORRENTE;
+            default -> throw new IllegalArgumentException("Prioridade desconhecida: " + codigo);
+        };
+    }
+
+    public static Integer codigo(TipoCliente tipo) {
+        return tipo != null ? tipo.codigo : null;
+    }
+}
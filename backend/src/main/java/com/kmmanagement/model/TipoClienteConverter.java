@@ -0,0 +1,22 @@
+package com.kmmanagement.model;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// TipoCliente <-> código TINYINT da coluna prioridade
+@Immutable
+@Converter(autoApply = true)
+public class TipoClienteConverter implements AttributeConverter<TipoCliente, Byte> {
+
+    @Override
+    public Byte convertToDatabaseColumn(TipoCliente tipo) {
+        return tipo != null ? (byte) tipo.codigo() : null;
+    }
+
+    @Override
+    public TipoCliente convertToEntityAttribute(Byte codigo) {
+        return codigo != null ? TipoCliente.deCodigo((int) codigo) : null;
+    }
+}
@@ -1,5 +1,7 @@
 package com.kmmanagement.model;
 
+import java.util.Locale;
+
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -35,4 +37,9 @@ public class User {
     
     public String getRole() { return role; }
     public void setRole(String role) { this.role = role; }
+
+    // Forma única do e-mail (cadastro, login e chave do RateLimitFilter); null continua null
+    public static String normalizarEmail(String email) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
+    }
 }
\ No newline at end of file
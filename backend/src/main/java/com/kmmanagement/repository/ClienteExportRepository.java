@@ -0,0 +1,11 @@
+package com.kmmanagement.repository;
+
+import java.util.stream.Stream;
+
+import com.kmmanagement.dto.ClienteDTO;
+
+// Exportação em streaming; implementada em ClienteExportRepositoryImpl para aplicar exportacao.fetch-size
+public interface ClienteExportRepository {
+
+    Stream<ClienteDTO> streamAll();
+}
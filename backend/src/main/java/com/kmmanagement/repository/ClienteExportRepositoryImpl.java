@@ -0,0 +1,31 @@
+package com.kmmanagement.repository;
+
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+
+import com.kmmanagement.dto.ClienteDTO;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+// Exportação de clientes: projeção (sem entidades no contexto), fetch size como em TaskExportRepositoryImpl
+class ClienteExportRepositoryImpl implements ClienteExportRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${exportacao.fetch-size}")
+    private int fetchSize;
+
+    @Override
+    public Stream<ClienteDTO> streamAll() {
+        return entityManager.createQuery(
+                        "SELECT new com.kmmanagement.dto.ClienteDTO(c.id, c.nome, c.telefone, c.endereco, c.email, c.notas) FROM Cliente c ORDER BY c.id",
+                        ClienteDTO.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
@@ -1,7 +1,59 @@
 package com.kmmanagement.repository;
 
-import com.kmmanagement.model.Cliente;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.kmmanagement.dto.ClienteDTO;
+import com.kmmanagement.dto.ClienteResumo;
+import com.kmmanagement.model.Cliente;
+import com.kmmanagement.model.StatusTarefa;
+
+public interface ClienteRepository extends JpaRepository<Cliente, Long>, ClienteExportRepository {
+
+    // Listagem paginada por keyset no id (null = primeira página)
+    @Query("""
+            SELECT new com.kmmanagement.dto.ClienteDTO(c.id, c.nome, c.telefone, c.endereco, c.email, c.notas)
+            FROM Cliente c
+            WHERE (:depoisDe IS NULL OR c.id > :depoisDe)
+            ORDER BY c.id
+            """)
+    List<ClienteDTO> findPage(@Param("depoisDe") Long depoisDe, Pageable pageable);
+
+    // Resumo de vários clientes em um único SELECT agrupado (índice idx_tarefas_cliente_data).
+    // LEFT JOIN: cliente sem tarefas vem zerado; id inexistente não vem. Centavos via CAST, como no dashboard.
+    // Visita é tarefa com data (COUNT ignora data_servico nula); os valores somam todas as tarefas
+    @Query("""
+            SELECT c.id AS clienteId,
+                   COUNT(t.dataServico) AS visitas,
+                   MIN(t.dataServico) AS primeiraVisita,
+                   MAX(t.dataServico) AS ultimaVisita,
+                   COALESCE(SUM(COALESCE(CAST(t.valorTotal AS Long), 0L)), 0L) AS valorFaturado,
+                   COALESCE(SUM(CASE
+                           WHEN t.status = :pago THEN COALESCE(CAST(t.valorPago AS Long), 0L)
+                           ELSE 0L
+                       END), 0L) AS valorPago,
+                   COALESCE(SUM(CASE
+                           WHEN t.status = :aPagar THEN COALESCE(CAST(t.valorTotal AS Long), 0L)
+                           WHEN t.status = :pago
+                                AND COALESCE(CAST(t.valorTotal AS Long), 0L) > COALESCE(CAST(t.valorPago AS Long), 0L)
+                               THEN COALESCE(CAST(t.valorTotal AS Long), 0L) - COALESCE(CAST(t.valorPago AS Long), 0L)
+                           ELSE 0L
+                       END), 0L) AS valorEmAberto
+            FROM Cliente c LEFT JOIN Task t ON t.cliente = c
+            WHERE c.id IN :ids
+            GROUP BY c.id
+            """)
+    List<ClienteResumo> resumos(@Param("ids") Collection<Long> ids,
+                                @Param("pago") StatusTarefa pago,
+                                @Param("aPagar") StatusTarefa aPagar);
 
-public interface ClienteRepository extends JpaRepository<Cliente, Long> {
+    // Mesmas regras de status do dashboard (DashboardRollupService.Contribuicao): FINALIZADO só fatura
+    default List<ClienteResumo> resumos(Collection<Long> ids) {
+        return ids.isEmpty() ? List.of() : resumos(ids, StatusTarefa.PAGO, StatusTarefa.A_PAGAR);
+    }
 }
@@ -0,0 +1,51 @@
+package com.kmmanagement.repository;
+
+import java.time.LocalDate;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.kmmanagement.dto.DashboardAggregate;
+import com.kmmanagement.model.DashboardDiario;
+
+@Repository
+public interface DashboardDiarioRepository extends JpaRepository<DashboardDiario, LocalDate> {
+
+    // Soma no máximo 31 linhas pequenas (dia/semana/mês)
+    @Query("""
+            SELECT SUM(d.totalAgendamentos) AS totalAgendamentos,
+                   SUM(d.clientesNovos) AS clientesNovos,
+                   SUM(d.clientesRecorrentes) AS clientesRecorrentes,
+                   SUM(d.valorEsperado) AS valorEsperado,
+                   SUM(d.valorRecebido) AS valorRecebido,
+                   SUM(d.valorAPagar) AS valorAPagar
+            FROM DashboardDiario d
+            WHERE d.dia BETWEEN :inicio AND :fim
+            """)
+    DashboardAggregate somarPeriodo(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
+    // Upsert atômico no banco: soma o delta na linha do dia (cria a linha se não existir); valores em centavos
+    @Modifying
+    @Query(value = """
+            INSERT INTO dashboard_diario
+                (dia, total_agendamentos, clientes_novos, clientes_recorrentes, valor_esperado, valor_recebido, valor_a_pagar)
+            VALUES (:dia, :total, :novos, :recorrentes, :esperado, :recebido, :aPagar)
+            ON DUPLICATE KEY UPDATE
+                total_agendamentos = total_agendamentos + :total,
+                clientes_novos = clientes_novos + :novos,
+                clientes_recorrentes = clientes_recorrentes + :recorrentes,
+                valor_esperado = valor_esperado + :esperado,
+                valor_recebido = valor_recebido + :recebido,
+                valor_a_pagar = valor_a_pagar + :aPagar
+            """, nativeQuery = true)
+    void somarDelta(@Param("dia") LocalDate dia,
+                    @Param("total") long total,
+                    @Param("novos") long novos,
+                    @Param("recorrentes") long recorrentes,
+                    @Param("esperado") long esperado,
+                    @Param("recebido") long recebido,
+                    @Param("aPagar") long aPagar);
+}
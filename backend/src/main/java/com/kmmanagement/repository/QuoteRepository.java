@@ -0,0 +1,19 @@
+package com.kmmanagement.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.kmmanagement.model.Quote;
+
+public interface QuoteRepository extends JpaRepository<Quote, Long> {
+
+    // Cliente e itens no mesmo SELECT (o DTO e o PDF precisam dos dois)
+    @EntityGraph(attributePaths = {"cliente", "itens"})
+    Optional<Quote> findDetalhadoById(Long id);
+
+    @EntityGraph(attributePaths = {"cliente", "itens"})
+    List<Quote> findByClienteIdOrderByCriadoEmDesc(Long clienteId);
+}
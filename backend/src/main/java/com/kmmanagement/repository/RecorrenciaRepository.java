@@ -0,0 +1,24 @@
+package com.kmmanagement.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.kmmanagement.model.Recorrencia;
+
+public interface RecorrenciaRepository extends JpaRepository<Recorrencia, Long> {
+
+    // Carga do índice em memória: regras e exceções em um único SELECT
+    @EntityGraph(attributePaths = "excecoes")
+    @Query("SELECT r FROM Recorrencia r")
+    List<Recorrencia> findAllComExcecoes();
+
+    @EntityGraph(attributePaths = "excecoes")
+    Optional<Recorrencia> findComExcecoesById(Long id);
+
+    @EntityGraph(attributePaths = {"cliente", "excecoes"})
+    List<Recorrencia> findByClienteIdOrderByInicio(Long clienteId);
+}
@@ -0,0 +1,12 @@
+package com.kmmanagement.repository;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import com.kmmanagement.dto.TaskRow;
+
+// Exportação em streaming; implementada em TaskExportRepositoryImpl para aplicar exportacao.fetch-size
+public interface TaskExportRepository {
+
+    Stream<TaskRow> streamRows(LocalDateTime from, LocalDateTime to);
+}
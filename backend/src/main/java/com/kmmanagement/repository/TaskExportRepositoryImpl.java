@@ -0,0 +1,45 @@
+package com.kmmanagement.repository;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+
+import com.kmmanagement.dto.TaskRow;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Consulta da exportação de tarefas. O fetch size vem de exportacao.fetch-size: no MySQL é
+ * Integer.MIN_VALUE, que liga o streaming linha a linha do Connector/J só neste comando (o resto
+ * da aplicação segue com o result set inteiro em memória, que é o melhor para consultas pequenas).
+ */
+class TaskExportRepositoryImpl implements TaskExportRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${exportacao.fetch-size}")
+    private int fetchSize;
+
+    @Override
+    public Stream<TaskRow> streamRows(LocalDateTime from, LocalDateTime to) {
+        return entityManager.createQuery("""
+                        SELECT new com.kmmanagement.dto.TaskRow(
+                                   t.id, t.titulo, t.descricao, t.status, t.tipoCliente,
+                                   c.id, c.nome, c.endereco,
+                                   t.dataServico, t.criadoPor, t.valorPago, t.valorTotal, t.quantidadePessoas)
+                        FROM Task t LEFT JOIN t.cliente c
+                        WHERE (:from IS NULL OR t.dataServico >= :from)
+                          AND (:to IS NULL OR t.dataServico <= :to)
+                        ORDER BY t.dataServico, t.id
+                        """, TaskRow.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
@@ -4,25 +4,104 @@ package com.kmmanagement.repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.kmmanagement.dto.DashboardDiaGrupo;
+import com.kmmanagement.dto.TaskRow;
+import com.kmmanagement.model.StatusTarefa;
 import com.kmmanagement.model.Task;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskExportRepository {
     
     List<Task> findByDataServicoBetween(LocalDateTime start, LocalDateTime end);
     
-    @Query("SELECT t FROM Task t WHERE t.dataServico BETWEEN :start AND :end AND t.cliente IS NOT NULL")
-    List<Task> findTasksForDashboard(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
-    
+    // Agrega o dashboard em um único SELECT (sem carregar entidades): uma linha por dia, status e
+    // tipo de cliente, agrupada pelas colunas TINYINT; quem chama distribui por enum (Contribuicao.de).
+    // Valores em centavos: o CAST lê a coluna BIGINT direto, sem passar pelo DinheiroConverter.
+    // Fonte da verdade para o rollup dashboard_diario
+    @Query("""
+            SELECT CAST(t.dataServico AS LocalDate) AS dia,
+                   t.status AS status,
+                   t.tipoCliente AS tipoCliente,
+                   COUNT(t) AS quantidade,
+                   SUM(COALESCE(CAST(t.valorTotal AS Long), 0L)) AS valorTotal,
+                   SUM(COALESCE(CAST(t.valorPago AS Long), 0L)) AS valorPago,
+                   SUM(CASE
+                           WHEN COALESCE(CAST(t.valorTotal AS Long), 0L) > COALESCE(CAST(t.valorPago AS Long), 0L)
+                               THEN COALESCE(CAST(t.valorTotal AS Long), 0L) - COALESCE(CAST(t.valorPago AS Long), 0L)
+                           ELSE 0L
+                       END) AS valorFaltante
+            FROM Task t
+            WHERE t.dataServico IS NOT NULL AND t.cliente IS NOT NULL
+            GROUP BY CAST(t.dataServico AS LocalDate), t.status, t.tipoCliente
+            """)
+    List<DashboardDiaGrupo> aggregateDashboardPorDia();
+
     List<Task> findByClienteId(Long clienteId);
 
-    // --- NOVOS MÉTODOS ---
-    boolean existsByDataServico(LocalDateTime dataServico);
-    boolean existsByDataServicoAndIdNot(LocalDateTime dataServico, Long id);
+    // Leitura de uma tarefa em um único SELECT, com apenas as colunas necessárias do cliente
+    @Query("""
+            SELECT new com.kmmanagement.dto.TaskRow(
+                       t.id, t.titulo, t.descricao, t.status, t.tipoCliente,
+                       c.id, c.nome, c.endereco,
+                       t.dataServico, t.criadoPor, t.valorPago, t.valorTotal, t.quantidadePessoas)
+            FROM Task t LEFT JOIN t.cliente c
+            WHERE t.id = :id
+            """)
+    Optional<TaskRow> findRowById(@Param("id") Long id);
+
+    // Listagem paginada por keyset em (dataServico, id): filtros opcionais (null = sem filtro)
+    @Query("""
+            SELECT new com.kmmanagement.dto.TaskRow(
+                       t.id, t.titulo, t.descricao, t.status, t.tipoCliente,
+                       c.id, c.nome, c.endereco,
+                       t.dataServico, t.criadoPor, t.valorPago, t.valorTotal, t.quantidadePessoas)
+            FROM Task t LEFT JOIN t.cliente c
+            WHERE t.dataServico IS NOT NULL
+              AND (:from IS NULL OR t.dataServico >= :from)
+              AND (:to IS NULL OR t.dataServico <= :to)
+              AND (:status IS NULL OR t.status = :status)
+              AND (:clienteId IS NULL OR c.id = :clienteId)
+              AND (:cursorData IS NULL
+                   OR t.dataServico > :cursorData
+                   OR (t.dataServico = :cursorData AND t.id > :cursorId))
+            ORDER BY t.dataServico, t.id
+            """)
+    List<TaskRow> findPage(@Param("from") LocalDateTime from,
+                           @Param("to") LocalDateTime to,
+                           @Param("status") StatusTarefa status,
+                           @Param("clienteId") Long clienteId,
+                           @Param("cursorData") LocalDateTime cursorData,
+                           @Param("cursorId") Long cursorId,
+                           Pageable pageable);
+
+    // Tarefas sem data (fora da ordem por dataServico): vêm no fim da listagem sem janela de datas,
+    // paginadas só pelo id
+    @Query("""
+            SELECT new com.kmmanagement.dto.TaskRow(
+                       t.id, t.titulo, t.descricao, t.status, t.tipoCliente,
+                       c.id, c.nome, c.endereco,
+                       t.dataServico, t.criadoPor, t.valorPago, t.valorTotal, t.quantidadePessoas)
+            FROM Task t LEFT JOIN t.cliente c
+            WHERE t.dataServico IS NULL
+              AND (:status IS NULL OR t.status = :status)
+              AND (:clienteId IS NULL OR c.id = :clienteId)
+              AND (:cursorId IS NULL OR t.id > :cursorId)
+            ORDER BY t.id
+            """)
+    List<TaskRow> findPageSemData(@Param("status") StatusTarefa status,
+                                  @Param("clienteId") Long clienteId,
+                                  @Param("cursorId") Long cursorId,
+                                  Pageable pageable);
+
+    // Carga do índice de ocupação de horários (SlotOccupancyIndex)
+    @Query("SELECT t.dataServico FROM Task t WHERE t.dataServico IS NOT NULL")
+    List<LocalDateTime> findAllDatasServico();
 }
\ No newline at end of file
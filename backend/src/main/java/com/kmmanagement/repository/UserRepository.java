@@ -3,9 +3,19 @@ package com.kmmanagement.repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.kmmanagement.model.User;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
-}
\ No newline at end of file
+
+    // Regrava o hash só se ele não mudou desde a leitura (troca de senha concorrente vence)
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :novo WHERE u.id = :id AND u.password = :antigo")
+    int atualizarHashSenha(@Param("id") Long id, @Param("antigo") String antigo, @Param("novo") String novo);
+}
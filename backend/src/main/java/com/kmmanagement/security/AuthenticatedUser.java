@@ -0,0 +1,23 @@
+package com.kmmanagement.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.kmmanagement.model.User;
+
+// Snapshot imutável do usuário autenticado (principal do SecurityContext)
+public record AuthenticatedUser(Long id, String name, String email, String role) {
+
+    public static AuthenticatedUser of(User user) {
+        // Se a role for null, assume USER por segurança
+        String role = user.getRole() != null ? user.getRole() : "USER";
+        return new AuthenticatedUser(user.getId(), user.getName(), user.getEmail(), role);
+    }
+
+    // Nome de quem fez a requisição atual, para os campos "criado por"; "Sistema" sem usuário autenticado
+    public static String nomeLogado() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof AuthenticatedUser user) return user.name();
+        return "Sistema";
+    }
+}
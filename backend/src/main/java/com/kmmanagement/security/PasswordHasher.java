@@ -0,0 +1,105 @@
+package com.kmmanagement.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Hash e verificação de senhas (BCrypt, caro de propósito) fora das threads da API.
+ * Um pool pequeno com fila limitada segura o pico de uma troca de turno: no máximo "threads"
+ * hashes ao mesmo tempo, o resto espera na fila e, com a fila cheia, a resposta é 503 na hora.
+ * Fila, ativos e concluídos saem em executor.* (name=senha); recusas em km.senha.rejeitadas.
+ */
+@Component
+public class PasswordHasher {
+
+    // Resultado de um login: a senha confere e, se o hash armazenado está desatualizado, o novo hash
+    public record Verificacao(boolean confere, String novoHash) {}
+
+    private final PasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutSegundos;
+    private final Counter rejeitadas;
+
+    public PasswordHasher(
+            PasswordEncoder encoder,
+            MeterRegistry registry,
+            @Value("${auth.senha.threads:2}") int threads,
+            @Value("${auth.senha.queue-size:32}") int tamanhoFila,
+            @Value("${auth.senha.timeout-seconds:10}") long timeoutSegundos) {
+        this.encoder = encoder;
+        this.timeoutSegundos = timeoutSegundos;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(tamanhoFila),
+                Thread.ofPlatform().name("senha-hash-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "senha", Tags.empty()).bindTo(registry);
+        this.rejeitadas = registry.counter("km.senha.rejeitadas");
+    }
+
+    // Confere a senha e já calcula o hash novo quando o armazenado usa algoritmo/custo antigos
+    public Verificacao verificar(String senha, String hashArmazenado) {
+        return executar(() -> {
+            if (senha == null || hashArmazenado == null || !encoder.matches(senha, hashArmazenado)) {
+                return new Verificacao(false, null);
+            }
+            return new Verificacao(true, encoder.upgradeEncoding(hashArmazenado) ? encoder.encode(senha) : null);
+        });
+    }
+
+    public String hash(String senha) {
+        return executar(() -> encoder.encode(senha));
+    }
+
+    public int getFila() {
+        return executor.getQueue().size();
+    }
+
+    private <T> T executar(Callable<T> tarefa) {
+        Future<T> futuro;
+        try {
+            futuro = executor.submit(tarefa);
+        } catch (RejectedExecutionException e) {
+            rejeitadas.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Muitos acessos ao mesmo tempo. Tente novamente em instantes.");
+        }
+
+        // Com virtual threads (perfil vthreads) esperar aqui não prende thread de plataforma
+        try {
+            return futuro.get(timeoutSegundos, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "A verificação da senha demorou demais. Tente novamente em instantes.");
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao calcular o hash da senha", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+}
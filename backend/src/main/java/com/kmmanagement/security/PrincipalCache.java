@@ -0,0 +1,88 @@
+package com.kmmanagement.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache dos principals autenticados, indexado pelo subject do token (email).
+ * Evita uma ida ao banco por requisição no SecurityFilter. É limitado em tamanho (LRU)
+ * e cada entrada expira após o TTL; UserController invalida ao editar/excluir usuários.
+ */
+@Component
+public class PrincipalCache {
+
+    private record Entry(AuthenticatedUser user, long expiresAt) {}
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // Incrementado a cada invalidação: um load que começou antes não grava dado velho
+    private final AtomicLong generation = new AtomicLong();
+
+    public PrincipalCache(
+            @Value("${security.principal-cache.max-size:1000}") int maxSize,
+            @Value("${security.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > PrincipalCache.this.maxSize;
+            }
+        };
+    }
+
+    // Retorna o principal em cache ou carrega com o loader (resultado null não é cacheado)
+    public AuthenticatedUser get(String subject, Function<String, AuthenticatedUser> loader) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(subject);
+            if (entry != null) {
+                if (entry.expiresAt() > now) {
+                    hits.increment();
+                    return entry.user();
+                }
+                entries.remove(subject);
+            }
+        }
+
+        misses.increment();
+        long gen = generation.get();
+        AuthenticatedUser user = loader.apply(subject);
+        if (user != null) {
+            synchronized (entries) {
+                if (generation.get() == gen) {
+                    entries.put(subject, new Entry(user, now + ttlMillis));
+                }
+            }
+        }
+        return user;
+    }
+
+    public void invalidate(String subject) {
+        if (subject == null) return;
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.remove(subject);
+        }
+    }
+
+    public long getHits() { return hits.sum(); }
+
+    public long getMisses() { return misses.sum(); }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
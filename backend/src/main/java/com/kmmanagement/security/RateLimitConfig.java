@@ -0,0 +1,16 @@
+package com.kmmanagement.security;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    // Padrão em memória; para um cache compartilhado, declare outro RateLimitStore com @Primary
+    @Bean
+    public RateLimitStore rateLimitStore(RateLimitProperties properties) {
+        return new StripedTokenBucketStore(properties.maxChaves(), properties.ocioso());
+    }
+}
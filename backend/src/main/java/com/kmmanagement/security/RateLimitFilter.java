@@ -0,0 +1,181 @@
+package com.kmmanagement.security;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kmmanagement.config.AppMetrics;
+import com.kmmanagement.model.User;
+import com.kmmanagement.security.RateLimitProperties.Balde;
+import com.kmmanagement.security.RateLimitProperties.Rota;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Limite de tentativas nas rotas públicas de autenticação (auth.limite.rotas), por IP e por e-mail.
+ * Roda antes da segurança e do controller: a tentativa recusada responde 429 sem findByEmail nem BCrypt.
+ * O e-mail vem do corpo JSON, lido aqui (até MAX_CORPO) e reentregue ao controller.
+ * IP é o getRemoteAddr: atrás de proxy, ligar server.forward-headers-strategy para ser o do cliente.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Login e cadastro cabem folgados; corpo maior nem chega ao controller
+    private static final int MAX_CORPO = 8 * 1024;
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private RateLimitStore store;
+
+    @Autowired
+    private AppMetrics metrics;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || rota(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Map.Entry<String, Rota> rota = rota(request);
+        String nome = rota.getKey();
+        Rota limites = rota.getValue();
+
+        if (limites.ip() != null && recusar(response, nome, "ip", request.getRemoteAddr(), limites.ip())) return;
+
+        if (limites.email() != null) {
+            byte[] corpo = request.getInputStream().readNBytes(MAX_CORPO + 1);
+            if (corpo.length > MAX_CORPO) {
+                response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value());
+                return;
+            }
+            String email = email(corpo);
+            if (email != null && recusar(response, nome, "email", email, limites.email())) return;
+            request = new CorpoLido(request, corpo);
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private Map.Entry<String, Rota> rota(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Map.Entry<String, Rota> rota : properties.rotas().entrySet()) {
+            if (path.equals(rota.getValue().path())) return rota;
+        }
+        return null;
+    }
+
+    private boolean recusar(HttpServletResponse response, String rota, String tipo, String valor, Balde balde)
+            throws IOException {
+        long esperaMs = store.consumir(rota + ":" + tipo + ":" + valor, balde.capacidade(), balde.porSegundo());
+        if (esperaMs == 0) return false;
+
+        metrics.limiteExcedido(rota, tipo);
+        long segundos = Math.max(1, (esperaMs + 999) / 1000);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(segundos));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write("Muitas tentativas. Tente novamente em " + segundos + " s.");
+        return true;
+    }
+
+    // E-mail do corpo, normalizado como no AuthController; JSON inválido ou sem e-mail segue adiante e o controller responde
+    private String email(byte[] corpo) {
+        try {
+            String email = User.normalizarEmail(objectMapper.readTree(corpo).path("email").asText(""));
+            return email.isEmpty() ? null : email;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Requisição com o corpo já lido, devolvido ao controller a partir da memória (visível para testes)
+    static final class CorpoLido extends HttpServletRequestWrapper {
+        private final byte[] corpo;
+
+        CorpoLido(HttpServletRequest request, byte[] corpo) {
+            super(request);
+            this.corpo = corpo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(corpo);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // Leitura não bloqueante: o corpo já está em memória, então está todo disponível de uma vez
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return corpo.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return corpo.length;
+        }
+    }
+}
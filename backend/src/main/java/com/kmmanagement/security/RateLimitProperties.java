@@ -0,0 +1,33 @@
+package com.kmmanagement.security;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Limites por rota (auth.limite.rotas.&lt;nome&gt;.*): cada rota tem um balde por IP e/ou por e-mail.
+ * Rota sem nenhuma configuração não é limitada.
+ */
+@ConfigurationProperties(prefix = "auth.limite")
+public record RateLimitProperties(
+        Map<String, Rota> rotas,
+        @DefaultValue("100000") int maxChaves,
+        @DefaultValue("10m") Duration ocioso) {
+
+    public RateLimitProperties {
+        rotas = rotas != null ? rotas : Map.of();
+    }
+
+    // path: caminho exato (POST); ip e email são opcionais
+    public record Rota(String path, Balde ip, Balde email) {}
+
+    // Rajada de até "capacidade" tentativas, repostas a "porMinuto"
+    public record Balde(int capacidade, double porMinuto) {
+
+        public double porSegundo() {
+            return porMinuto / 60.0;
+        }
+    }
+}
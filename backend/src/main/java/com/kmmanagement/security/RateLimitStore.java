@@ -0,0 +1,15 @@
+package com.kmmanagement.security;
+
+/**
+ * Onde ficam os baldes de fichas do RateLimitFilter. A implementação padrão é em memória
+ * (StripedTokenBucketStore); com mais de uma instância da API, um bean @Primary desta interface
+ * apoiado em cache compartilhado (ex.: Redis) substitui o padrão sem mexer no filtro.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Tenta tirar uma ficha do balde da chave (criado cheio na primeira vez).
+     * Devolve 0 se conseguiu ou quantos ms faltam até a próxima ficha.
+     */
+    long consumir(String chave, int capacidade, double fichasPorSegundo);
+}
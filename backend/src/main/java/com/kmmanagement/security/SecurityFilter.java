@@ -3,6 +3,8 @@ package com.kmmanagement.security;
 import java.io.IOException;
 import java.util.Collections;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -10,7 +12,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.kmmanagement.model.User;
+import com.kmmanagement.config.AppMetrics;
 import com.kmmanagement.repository.UserRepository;
 
 import jakarta.servlet.FilterChain;
@@ -20,10 +22,16 @@ import jakarta.servlet.http.HttpServletResponse;
 
 @Component
 public class SecurityFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(SecurityFilter.class);
+
     @Autowired
     TokenService tokenService;
     @Autowired
     UserRepository userRepository;
+    @Autowired
+    PrincipalCache principalCache;
+    @Autowired
+    AppMetrics metrics;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -34,28 +42,33 @@ public class SecurityFilter extends OncePerRequestFilter {
                 var login = tokenService.validateToken(token);
                 
                 if(login != null){
-                    // Busca o usuário pelo email
-                    User user = userRepository.findByEmail(login)
-                        .orElseThrow(() -> new RuntimeException("User Not Found"));
+                    // Busca o usuário pelo email (cache de principals, banco só no miss)
+                    AuthenticatedUser user = principalCache.get(login, this::loadPrincipal);
+                    if (user == null) throw new RuntimeException("User Not Found");
                     
-                    // Define a role (USER ou ADMIN) baseada no banco
-                    // Se for null, assume USER por segurança
-                    String role = user.getRole() != null ? user.getRole() : "USER";
-                    
-                    var authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role));
+                    // Role (USER ou ADMIN) vem do banco; null vira USER no snapshot
+                    var authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.role()));
                     var authentication = new UsernamePasswordAuthenticationToken(user, null, authorities);
                     
                     SecurityContextHolder.getContext().setAuthentication(authentication);
+                } else {
+                    // Assinatura inválida ou expirado
+                    metrics.tokenRejeitado();
                 }
             }
         } catch (Exception e) {
             // Se der erro no token, apenas não autentica (retorna 403 depois)
-            System.out.println("Erro no filtro de segurança: " + e.getMessage());
+            metrics.tokenRejeitado();
+            log.debug("Token rejeitado em {}: {}", request.getRequestURI(), e.getMessage());
         }
         
         filterChain.doFilter(request, response);
     }
 
+    private AuthenticatedUser loadPrincipal(String login) {
+        return userRepository.findByEmail(login).map(AuthenticatedUser::of).orElse(null);
+    }
+
     private String recoverToken(HttpServletRequest request){
         var authHeader = request.getHeader("Authorization");
         if(authHeader == null) return null;
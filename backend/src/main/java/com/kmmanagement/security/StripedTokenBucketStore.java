@@ -0,0 +1,102 @@
+package com.kmmanagement.security;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Baldes de fichas em memória, divididos em faixas com lock próprio: chaves diferentes raramente
+ * disputam o mesmo lock. Cada faixa é um LRU limitado (total ~maxChaves) e, a cada acesso, despeja
+ * as chaves paradas há mais de "ocioso" (um balde parado tanto tempo já estaria cheio de novo).
+ */
+public class StripedTokenBucketStore implements RateLimitStore {
+
+    private static final int FAIXAS = 64;
+
+    private static final class Balde {
+        double fichas;
+        long ultimoNanos;
+
+        Balde(int capacidade, long agora) {
+            this.fichas = capacidade;
+            this.ultimoNanos = agora;
+        }
+    }
+
+    private static final class Faixa extends LinkedHashMap<String, Balde> {
+        private final int max;
+
+        Faixa(int max) {
+            super(16, 0.75f, true);
+            this.max = max;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Balde> eldest) {
+            return size() > max;
+        }
+    }
+
+    private final Faixa[] faixas = new Faixa[FAIXAS];
+    private final long ociosoNanos;
+    private final LongSupplier relogio;
+
+    public StripedTokenBucketStore(int maxChaves, Duration ocioso) {
+        this(maxChaves, ocioso, System::nanoTime);
+    }
+
+    // Relógio injetável para testes
+    StripedTokenBucketStore(int maxChaves, Duration ocioso, LongSupplier relogio) {
+        int porFaixa = Math.max(1, maxChaves / FAIXAS);
+        for (int i = 0; i < FAIXAS; i++) {
+            faixas[i] = new Faixa(porFaixa);
+        }
+        this.ociosoNanos = ocioso.toNanos();
+        this.relogio = relogio;
+    }
+
+    @Override
+    public long consumir(String chave, int capacidade, double fichasPorSegundo) {
+        Faixa faixa = faixas[(chave.hashCode() & 0x7fffffff) % FAIXAS];
+        long agora = relogio.getAsLong();
+        synchronized (faixa) {
+            despejarOciosos(faixa, agora);
+            Balde balde = faixa.get(chave);
+            if (balde == null) {
+                balde = new Balde(capacidade, agora);
+                faixa.put(chave, balde);
+            } else {
+                double repostas = (agora - balde.ultimoNanos) / 1e9 * fichasPorSegundo;
+                balde.fichas = Math.min(capacidade, balde.fichas + repostas);
+                balde.ultimoNanos = agora;
+            }
+
+            if (balde.fichas >= 1) {
+                balde.fichas -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - balde.fichas) / fichasPorSegundo * 1000);
+        }
+    }
+
+    public int tamanho() {
+        int total = 0;
+        for (Faixa faixa : faixas) {
+            synchronized (faixa) {
+                total += faixa.size();
+            }
+        }
+        return total;
+    }
+
+    // Ordem de acesso: os mais antigos estão no começo, então para no primeiro que ainda não é ocioso
+    private void despejarOciosos(Faixa faixa, long agora) {
+        Iterator<Balde> baldes = faixa.values().iterator();
+        while (baldes.hasNext()) {
+            if (agora - baldes.next().ultimoNanos <= ociosoNanos) break;
+            baldes.remove();
+        }
+    }
+}
@@ -1,28 +1,58 @@
 package com.kmmanagement.security;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.kmmanagement.model.User;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Service
 public class TokenService {
-    @Value("${api.security.token.secret}")
-    private String secret;
+    private static final String ISSUER = "login-auth-api";
+
+    // Criados uma vez só: o secret não muda em runtime
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+
+    // LRU de tokens já verificados (hash do token -> subject + expiração)
+    private record VerifiedToken(String subject, long expiresAt) {}
+
+    private final int cacheSize;
+    private final Map<String, VerifiedToken> verified;
+
+    public TokenService(@Value("${api.security.token.secret}") String secret,
+                        @Value("${api.security.token.cache-size:10000}") int cacheSize) {
+        this.algorithm = Algorithm.HMAC256(secret);
+        this.verifier = JWT.require(algorithm)
+                .withIssuer(ISSUER)
+                .build();
+        this.cacheSize = cacheSize;
+        this.verified = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > TokenService.this.cacheSize;
+            }
+        };
+    }
 
     public String generateToken(User user) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-
             String token = JWT.create()
-                    .withIssuer("login-auth-api")
+                    .withIssuer(ISSUER)
                     .withSubject(user.getEmail())
                     .withExpiresAt(this.generateExpiratedDate())
                     .sign(algorithm);
@@ -33,20 +63,54 @@ public class TokenService {
     }
 
     public String validateToken(String token) {
+        if (cacheSize <= 0) return verify(token);
+
+        // Token repetido dentro da validade: pula HMAC e parse do JSON
+        String key = hash(token);
+        long now = System.currentTimeMillis();
+        synchronized (verified) {
+            VerifiedToken cached = verified.get(key);
+            if (cached != null) {
+                if (cached.expiresAt() > now) return cached.subject();
+                verified.remove(key);
+            }
+        }
+
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            return JWT.require(algorithm)
-                    .withIssuer("login-auth-api")
-                    .build()
-                    .verify(token)
-                    .getSubject();
+            DecodedJWT jwt = verifier.verify(token);
+            Instant expiresAt = jwt.getExpiresAtAsInstant();
+            // Sem expiração não entra no cache (não teria como ser despejado pela validade)
+            if (expiresAt != null) {
+                synchronized (verified) {
+                    verified.put(key, new VerifiedToken(jwt.getSubject(), expiresAt.toEpochMilli()));
+                }
+            }
+            return jwt.getSubject();
         } catch (JWTVerificationException exception) {
             return null;
         }
     }
 
+    private String verify(String token) {
+        try {
+            return verifier.verify(token).getSubject();
+        } catch (JWTVerificationException exception) {
+            return null;
+        }
+    }
+
+    // Guarda só o hash: o token em si não fica em memória
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private Instant generateExpiratedDate() {
         return LocalDateTime.now().plusHours(2).toInstant(ZoneOffset.of("-03:00"));
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,82 @@
+package com.kmmanagement.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Grade de horários da agenda (mesma do HORARIOS_PERMITIDOS do Agenda.jsx):
+ * das 15:00 às 21:30, de 30 em 30 minutos. Cada horário tem um índice fixo,
+ * usado como bit nos mapas de ocupação por dia.
+ * Regras de funcionamento: fechado às segundas e domingo só até 19:30.
+ */
+@Component
+public class AgendaSchedule {
+
+    public static final LocalTime PRIMEIRO_HORARIO = LocalTime.of(15, 0);
+    public static final LocalTime ULTIMO_HORARIO = LocalTime.of(21, 30);
+    public static final int INTERVALO_MINUTOS = 30;
+    public static final LocalTime ULTIMO_HORARIO_DOMINGO = LocalTime.of(19, 30);
+
+    private final List<LocalTime> horarios;
+    private final long todosHorarios;
+    private final long horariosDomingo;
+
+    public AgendaSchedule() {
+        List<LocalTime> lista = new ArrayList<>();
+        for (LocalTime h = PRIMEIRO_HORARIO; !h.isAfter(ULTIMO_HORARIO); h = h.plusMinutes(INTERVALO_MINUTOS)) {
+            lista.add(h);
+        }
+        this.horarios = Collections.unmodifiableList(lista);
+
+        long todos = 0L;
+        long domingo = 0L;
+        for (int i = 0; i < lista.size(); i++) {
+            todos |= 1L << i;
+            if (!lista.get(i).isAfter(ULTIMO_HORARIO_DOMINGO)) domingo |= 1L << i;
+        }
+        this.todosHorarios = todos;
+        this.horariosDomingo = domingo;
+    }
+
+    // Bitset dos horários da grade em que se pode agendar no dia
+    public long horariosPermitidos(LocalDate dia) {
+        return switch (dia.getDayOfWeek()) {
+            case MONDAY -> 0L;
+            case SUNDAY -> horariosDomingo;
+            default -> todosHorarios;
+        };
+    }
+
+    public boolean permitido(LocalDateTime dataHora) {
+        int indice = indice(dataHora.toLocalTime());
+        return indice >= 0 && (horariosPermitidos(dataHora.toLocalDate()) & (1L << indice)) != 0;
+    }
+
+    public List<LocalTime> getHorarios() {
+        return horarios;
+    }
+
+    public int totalHorarios() {
+        return horarios.size();
+    }
+
+    public LocalTime horario(int indice) {
+        return horarios.get(indice);
+    }
+
+    // Índice do horário na grade, ou -1 se estiver fora dela
+    public int indice(LocalTime hora) {
+        if (hora.getSecond() != 0 || hora.getNano() != 0) return -1;
+        int minutos = (hora.getHour() * 60 + hora.getMinute())
+                - (PRIMEIRO_HORARIO.getHour() * 60 + PRIMEIRO_HORARIO.getMinute());
+        if (minutos < 0 || minutos % INTERVALO_MINUTOS != 0) return -1;
+        int indice = minutos / INTERVALO_MINUTOS;
+        return indice < horarios.size() ? indice : -1;
+    }
+}
@@ -0,0 +1,341 @@
+package com.kmmanagement.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.kmmanagement.dto.ClienteDTO;
+import com.kmmanagement.repository.ClienteRepository;
+
+/**
+ * Índice invertido de trigramas sobre nome, telefone (só dígitos), email e endereço dos clientes,
+ * usado por /clientes/search. O texto é normalizado sem acentos e em minúsculas ("João" acha "joao"),
+ * e separadores entre dígitos são descartados ("(85) 98717" acha "85987175445").
+ * A busca soma, por cliente, quantos trigramas da consulta ele contém (tolerando ~1 erro a cada 4)
+ * e devolve só os k melhores. ClienteController mantém o índice a cada escrita.
+ */
+@Service
+public class ClienteSearchIndex implements SmartInitializingSingleton {
+
+    public static final int MAX_RESULTADOS = 50;
+    private static final int MAX_CONSULTA = 64;
+    private static final int ALFABETO = 37; // espaço, a-z, 0-9
+    private static final int BONUS_TODOS_TERMOS = 50;
+    private static final int BONUS_INICIO_DO_NOME = 20;
+
+    private record Doc(ClienteDTO cliente, String nome, String texto) {}
+
+    private record Candidato(Doc doc, int slot, int pontos) {}
+
+    // Empate de pontos: cadastro mais antigo primeiro (slots seguem a ordem de inserção, o que
+    // permite descartar em O(1) os empates que chegam com o heap cheio)
+    private static final Comparator<Candidato> MELHOR_PRIMEIRO = Comparator
+            .comparingInt(Candidato::pontos).reversed()
+            .thenComparingInt(Candidato::slot);
+
+    // Slots (em ordem crescente) dos clientes que contêm um trigrama
+    private static final class Postings {
+        int[] slots = new int[4];
+        int size;
+
+        void add(int slot) {
+            if (size == slots.length) slots = Arrays.copyOf(slots, size * 2);
+            slots[size++] = slot;
+        }
+    }
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Slot -> cliente; null quando removido (as postings antigas são ignoradas até a compactação)
+    private final List<Doc> slots = new ArrayList<>();
+    private final Map<Long, Integer> slotPorId = new HashMap<>();
+    // Indexado pelo código do trigrama (37^3 posições)
+    private final Postings[] postings = new Postings[ALFABETO * ALFABETO * ALFABETO];
+    private int removidos;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reconstruir();
+    }
+
+    public void reconstruir() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        List<ClienteDTO> clientes = tx.execute(status -> {
+            try (Stream<ClienteDTO> stream = clienteRepository.streamAll()) {
+                return stream.toList();
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            limpar();
+            clientes.forEach(this::adicionar);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Inclui ou substitui o cliente no índice
+    public void indexar(ClienteDTO cliente) {
+        lock.writeLock().lock();
+        try {
+            retirar(cliente.getId());
+            adicionar(cliente);
+            compactarSeNecessario();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remover(Long id) {
+        lock.writeLock().lock();
+        try {
+            retirar(id);
+            compactarSeNecessario();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ClienteDTO> buscar(String consulta, int limite) {
+        String normalizada = normalizar(consulta);
+        if (normalizada.length() > MAX_CONSULTA) normalizada = normalizada.substring(0, MAX_CONSULTA).trim();
+        if (normalizada.isEmpty()) return List.of();
+
+        String[] termos = normalizada.split(" ");
+        int[] gramas = gramasDaConsulta(termos);
+        int minimo = gramas.length - gramas.length / 4;
+        int k = Math.max(1, Math.min(limite, MAX_RESULTADOS));
+
+        lock.readLock().lock();
+        try {
+            // Listas da mais curta para a mais longa; trigrama sem lista já conta como erro
+            Postings[] listas = new Postings[gramas.length];
+            int totalListas = 0;
+            for (int grama : gramas) {
+                if (postings[grama] != null) listas[totalListas++] = postings[grama];
+            }
+            int folga = totalListas - minimo;
+            if (folga < 0) return List.of();
+            Arrays.sort(listas, 0, totalListas, Comparator.comparingInt(p -> p.size));
+
+            // Quantos trigramas da consulta cada slot contém; "tocados" evita varrer todos os slots.
+            // Quem chega ao mínimo aparece em alguma das (folga + 1) listas mais curtas: só elas geram
+            // candidatos, as demais apenas completam a contagem (por busca binária se houver poucos)
+            short[] contagem = new short[slots.size()];
+            int[] tocados = new int[64];
+            int totalTocados = 0;
+            for (int l = 0; l <= folga; l++) {
+                Postings p = listas[l];
+                for (int i = 0; i < p.size; i++) {
+                    int slot = p.slots[i];
+                    if (contagem[slot]++ == 0) {
+                        if (totalTocados == tocados.length) tocados = Arrays.copyOf(tocados, totalTocados * 2);
+                        tocados[totalTocados++] = slot;
+                    }
+                }
+            }
+            for (int l = folga + 1; l < totalListas; l++) {
+                Postings p = listas[l];
+                if ((long) totalTocados * 16 < p.size) {
+                    for (int i = 0; i < totalTocados; i++) {
+                        if (Arrays.binarySearch(p.slots, 0, p.size, tocados[i]) >= 0) contagem[tocados[i]]++;
+                    }
+                } else {
+                    for (int i = 0; i < p.size; i++) {
+                        int slot = p.slots[i];
+                        if (contagem[slot] > 0) contagem[slot]++;
+                    }
+                }
+            }
+
+            // Heap com o pior dos k melhores no topo
+            PriorityQueue<Candidato> melhores = new PriorityQueue<>(k + 1, MELHOR_PRIMEIRO.reversed());
+            for (int i = 0; i < totalTocados; i++) {
+                int slot = tocados[i];
+                Doc doc = slots.get(slot);
+                if (doc == null || contagem[slot] < minimo) continue;
+                Candidato pior = melhores.size() == k ? melhores.peek() : null;
+                // Nem com o bônus de todos os termos passaria do pior dos k: pula o contains
+                boolean inicioDoNome = doc.nome().startsWith(termos[0]);
+                int teto = contagem[slot] * 10 + BONUS_TODOS_TERMOS + (inicioDoNome ? BONUS_INICIO_DO_NOME : 0);
+                if (pior != null && (teto < pior.pontos() || (teto == pior.pontos() && slot > pior.slot()))) continue;
+                int pontos = pontuar(doc, termos, contagem[slot], inicioDoNome);
+                if (pior != null && (pontos < pior.pontos() || (pontos == pior.pontos() && slot > pior.slot()))) continue;
+                melhores.add(new Candidato(doc, slot, pontos));
+                if (melhores.size() > k) melhores.poll();
+            }
+
+            List<Candidato> ordenados = new ArrayList<>(melhores);
+            ordenados.sort(MELHOR_PRIMEIRO);
+            return ordenados.stream().map(c -> c.doc().cliente()).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotPorId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Trigramas em comum pesam mais; depois, todos os termos presentes e nome começando pelo primeiro termo
+    private static int pontuar(Doc doc, String[] termos, int emComum, boolean inicioDoNome) {
+        int pontos = emComum * 10;
+        boolean todos = true;
+        for (String termo : termos) {
+            if (!doc.texto().contains(termo)) {
+                todos = false;
+                break;
+            }
+        }
+        if (todos) pontos += BONUS_TODOS_TERMOS;
+        if (inicioDoNome) pontos += BONUS_INICIO_DO_NOME;
+        return pontos;
+    }
+
+    // --- manutenção (sempre com o write lock) ---
+
+    private void adicionar(ClienteDTO cliente) {
+        String nome = normalizar(cliente.getNome());
+        String telefone = soDigitos(cliente.getTelefone());
+        String email = normalizar(cliente.getEmail());
+        String endereco = normalizar(cliente.getEndereco());
+        String texto = String.join(" ", nome, telefone, email, endereco);
+
+        int slot = slots.size();
+        slots.add(new Doc(cliente, nome, texto));
+        slotPorId.put(cliente.getId(), slot);
+        for (int grama : gramasDoTexto(texto)) {
+            Postings p = postings[grama];
+            if (p == null) postings[grama] = p = new Postings();
+            p.add(slot);
+        }
+    }
+
+    private void retirar(Long id) {
+        Integer slot = slotPorId.remove(id);
+        if (slot != null) {
+            slots.set(slot, null);
+            removidos++;
+        }
+    }
+
+    // Muitos slots mortos: reindexa só os vivos
+    private void compactarSeNecessario() {
+        if (removidos < 1000 || removidos < slots.size() / 4) return;
+        List<ClienteDTO> vivos = new ArrayList<>(slotPorId.size());
+        for (Doc doc : slots) {
+            if (doc != null) vivos.add(doc.cliente());
+        }
+        limpar();
+        vivos.forEach(this::adicionar);
+    }
+
+    private void limpar() {
+        slots.clear();
+        slotPorId.clear();
+        Arrays.fill(postings, null);
+        removidos = 0;
+    }
+
+    // --- texto e trigramas ---
+
+    // Minúsculas, sem acento, só [a-z0-9] separados por um espaço; sem separador entre dígitos
+    static String normalizar(String valor) {
+        if (valor == null || valor.isEmpty()) return "";
+        String decomposto = Normalizer.normalize(valor, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposto.length());
+        for (int i = 0; i < decomposto.length(); i++) {
+            char c = Character.toLowerCase(decomposto.charAt(i));
+            int n = sb.length();
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                if (c <= '9' && n >= 2 && sb.charAt(n - 1) == ' ' && Character.isDigit(sb.charAt(n - 2))) {
+                    sb.setLength(n - 1);
+                }
+                sb.append(c);
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK && n > 0 && sb.charAt(n - 1) != ' ') {
+                sb.append(' ');
+            }
+        }
+        int fim = sb.length();
+        if (fim > 0 && sb.charAt(fim - 1) == ' ') sb.setLength(fim - 1);
+        return sb.toString();
+    }
+
+    private static String soDigitos(String valor) {
+        if (valor == null) return "";
+        StringBuilder sb = new StringBuilder(valor.length());
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c >= '0' && c <= '9') sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    // Cada palavra vira "  palavra " antes de gerar os trigramas: o início da palavra também é indexado
+    private static int[] gramasDoTexto(String texto) {
+        int[] gramas = new int[texto.length() * 3 + 8];
+        int n = 0;
+        for (String palavra : texto.split(" ")) {
+            if (palavra.isEmpty()) continue;
+            n = trigramas("  " + palavra + " ", gramas, n);
+        }
+        return unicos(gramas, n);
+    }
+
+    // Termos com 3+ letras casam em qualquer posição; termos curtos, só no início de palavra
+    private static int[] gramasDaConsulta(String[] termos) {
+        int[] gramas = new int[MAX_CONSULTA * 3 + 8];
+        int n = 0;
+        for (String termo : termos) {
+            n = trigramas(termo.length() >= 3 ? termo : "  " + termo, gramas, n);
+        }
+        return unicos(gramas, n);
+    }
+
+    private static int trigramas(String s, int[] destino, int n) {
+        for (int i = 0; i + 3 <= s.length(); i++) {
+            destino[n++] = (codigo(s.charAt(i)) * ALFABETO + codigo(s.charAt(i + 1))) * ALFABETO + codigo(s.charAt(i + 2));
+        }
+        return n;
+    }
+
+    private static int codigo(char c) {
+        if (c == ' ') return 0;
+        if (c <= '9') return 27 + (c - '0');
+        return 1 + (c - 'a');
+    }
+
+    private static int[] unicos(int[] gramas, int n) {
+        Arrays.sort(gramas, 0, n);
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            if (k == 0 || gramas[k - 1] != gramas[i]) gramas[k++] = gramas[i];
+        }
+        return Arrays.copyOf(gramas, k);
+    }
+}
@@ -0,0 +1,227 @@
+package com.kmmanagement.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.kmmanagement.dto.DashboardAggregate;
+import com.kmmanagement.dto.DashboardDiaGrupo;
+import com.kmmanagement.dto.DashboardGrupo;
+import com.kmmanagement.dto.RollupVerificacaoDTO;
+import com.kmmanagement.model.DashboardDiario;
+import com.kmmanagement.model.Dinheiro;
+import com.kmmanagement.model.StatusTarefa;
+import com.kmmanagement.model.Task;
+import com.kmmanagement.model.TipoCliente;
+import com.kmmanagement.repository.DashboardDiarioRepository;
+import com.kmmanagement.repository.TaskRepository;
+
+/**
+ * Mantém o rollup diário do dashboard (tabela dashboard_diario).
+ * Cada escrita em tarefas aplica o delta entre o estado antigo e o novo da tarefa,
+ * assim o dashboard só soma as linhas dos dias do período.
+ */
+@Service
+public class DashboardRollupService {
+
+    @Autowired
+    private DashboardDiarioRepository rollupRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    /**
+     * Quanto uma tarefa soma no dia dela. Segue as mesmas regras do dashboard:
+     * só conta tarefas com cliente e com data. Valores em centavos.
+     */
+    public record Contribuicao(LocalDate dia, long total, long novos, long recorrentes,
+                               long esperado, long recebido, long aPagar) {
+
+        public static Contribuicao de(Task t) {
+            if (t == null || t.getCliente() == null || t.getDataServico() == null) return null;
+
+            long total = Dinheiro.centavos(t.getValorTotal());
+            long pago = Dinheiro.centavos(t.getValorPago());
+            return de(t.getDataServico().toLocalDate(), 1, t.getStatus(), t.getTipoCliente(),
+                    total, pago, Math.max(0, total - pago));
+        }
+
+        // Uma linha agrupada do banco (várias tarefas com o mesmo status e tipo de cliente)
+        public static Contribuicao de(LocalDate dia, DashboardGrupo g) {
+            return de(dia, valor(g.getQuantidade()), g.getStatus(), g.getTipoCliente(),
+                    valor(g.getValorTotal()), valor(g.getValorPago()), valor(g.getValorFaltante()));
+        }
+
+        private static Contribuicao de(LocalDate dia, long quantidade, StatusTarefa status, TipoCliente tipo,
+                                       long valorTotal, long valorPago, long faltante) {
+            long recebido = 0;
+            long aPagar = 0;
+            if (status != null) {
+                switch (status) {
+                    case PAGO -> {
+                        recebido = valorPago;
+                        aPagar = faltante;
+                    }
+                    case A_PAGAR -> aPagar = valorTotal;
+                    case FINALIZADO -> { }
+                }
+            }
+            return new Contribuicao(
+                    dia,
+                    quantidade,
+                    tipo == TipoCliente.NOVO ? quantidade : 0,
+                    tipo == TipoCliente.RECORRENTE ? quantidade : 0,
+                    valorTotal,
+                    recebido,
+                    aPagar
+            );
+        }
+
+        public Contribuicao mais(Contribuicao c) {
+            return new Contribuicao(dia, total + c.total, novos + c.novos, recorrentes + c.recorrentes,
+                    esperado + c.esperado, recebido + c.recebido, aPagar + c.aPagar);
+        }
+    }
+
+    // Remove a contribuição antiga e soma a nova (qualquer uma pode ser null)
+    @Transactional
+    public void aplicar(Contribuicao antes, Contribuicao depois) {
+        if (antes != null && antes.equals(depois)) return;
+
+        if (antes != null) {
+            rollupRepository.somarDelta(antes.dia(), -antes.total(), -antes.novos(), -antes.recorrentes(),
+                    -antes.esperado(), -antes.recebido(), -antes.aPagar());
+        }
+        if (depois != null) {
+            rollupRepository.somarDelta(depois.dia(), depois.total(), depois.novos(), depois.recorrentes(),
+                    depois.esperado(), depois.recebido(), depois.aPagar());
+        }
+    }
+
+    // Versão em lote de aplicar: junta os deltas por dia e faz um único upsert por dia afetado
+    @Transactional
+    public void aplicarTodos(List<Contribuicao> antes, List<Contribuicao> depois) {
+        Map<LocalDate, Delta> deltas = new TreeMap<>();
+        for (Contribuicao c : antes) {
+            if (c != null) deltas.computeIfAbsent(c.dia(), d -> new Delta()).somar(c, -1);
+        }
+        for (Contribuicao c : depois) {
+            if (c != null) deltas.computeIfAbsent(c.dia(), d -> new Delta()).somar(c, 1);
+        }
+        deltas.forEach((dia, d) -> {
+            if (d.zerado()) return;
+            rollupRepository.somarDelta(dia, d.total, d.novos, d.recorrentes, d.esperado, d.recebido, d.aPagar);
+        });
+    }
+
+    private static final class Delta {
+        long total, novos, recorrentes, esperado, recebido, aPagar;
+
+        void somar(Contribuicao c, int sinal) {
+            total += sinal * c.total();
+            novos += sinal * c.novos();
+            recorrentes += sinal * c.recorrentes();
+            esperado += sinal * c.esperado();
+            recebido += sinal * c.recebido();
+            aPagar += sinal * c.aPagar();
+        }
+
+        boolean zerado() {
+            return total == 0 && novos == 0 && recorrentes == 0 && esperado == 0 && recebido == 0 && aPagar == 0;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public DashboardAggregate somarPeriodo(LocalDate inicio, LocalDate fim) {
+        return rollupRepository.somarPeriodo(inicio, fim);
+    }
+
+    // Recalcula todo o rollup a partir de tarefas
+    @Transactional
+    public int reconstruir() {
+        rollupRepository.deleteAllInBatch();
+
+        List<DashboardDiario> linhas = new ArrayList<>();
+        somarTarefasPorDia().forEach((dia, delta) -> {
+            DashboardDiario d = new DashboardDiario();
+            d.setDia(dia);
+            d.setTotalAgendamentos(delta.total);
+            d.setClientesNovos(delta.novos);
+            d.setClientesRecorrentes(delta.recorrentes);
+            d.setValorEsperado(delta.esperado);
+            d.setValorRecebido(delta.recebido);
+            d.setValorAPagar(delta.aPagar);
+            linhas.add(d);
+        });
+        rollupRepository.saveAll(linhas);
+        return linhas.size();
+    }
+
+    // Compara o rollup com a agregação direta sobre tarefas, dia a dia
+    @Transactional(readOnly = true)
+    public RollupVerificacaoDTO verificar() {
+        Map<LocalDate, DashboardDiario> armazenado = new HashMap<>();
+        for (DashboardDiario d : rollupRepository.findAll()) {
+            armazenado.put(d.getDia(), d);
+        }
+
+        Set<LocalDate> dias = new HashSet<>(armazenado.keySet());
+        List<LocalDate> divergentes = new ArrayList<>();
+        somarTarefasPorDia().forEach((dia, delta) -> {
+            dias.add(dia);
+            if (!confere(delta, armazenado.remove(dia))) {
+                divergentes.add(dia);
+            }
+        });
+        // Sobrou no rollup um dia sem tarefas: só é válido se estiver zerado
+        for (DashboardDiario d : armazenado.values()) {
+            if (!confere(new Delta(), d)) divergentes.add(d.getDia());
+        }
+
+        divergentes.sort(null);
+        return new RollupVerificacaoDTO(dias.size(), divergentes);
+    }
+
+    // Na primeira subida (tabela vazia) popula o rollup com o histórico existente
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconstruirSeVazio() {
+        if (rollupRepository.count() == 0 && taskRepository.count() > 0) {
+            reconstruir();
+        }
+    }
+
+    // O banco devolve uma linha por dia, status e tipo de cliente; aqui vira uma soma por dia
+    private Map<LocalDate, Delta> somarTarefasPorDia() {
+        Map<LocalDate, Delta> dias = new TreeMap<>();
+        for (DashboardDiaGrupo g : taskRepository.aggregateDashboardPorDia()) {
+            dias.computeIfAbsent(g.getDia(), d -> new Delta()).somar(Contribuicao.de(g.getDia(), g), 1);
+        }
+        return dias;
+    }
+
+    private static boolean confere(Delta esperado, DashboardDiario d) {
+        if (d == null) return esperado.zerado();
+        return d.getTotalAgendamentos() == esperado.total
+                && d.getClientesNovos() == esperado.novos
+                && d.getClientesRecorrentes() == esperado.recorrentes
+                && d.getValorEsperado() == esperado.esperado
+                && d.getValorRecebido() == esperado.recebido
+                && d.getValorAPagar() == esperado.aPagar;
+    }
+
+    private static long valor(Long v) {
+        return v != null ? v : 0L;
+    }
+}
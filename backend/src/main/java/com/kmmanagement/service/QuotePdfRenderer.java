@@ -0,0 +1,181 @@
+package com.kmmanagement.service;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import com.kmmanagement.dto.QuoteDTO;
+import com.kmmanagement.dto.QuoteItemDTO;
+import com.lowagie.text.Document;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.Image;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.Rectangle;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+
+/**
+ * Monta o PDF do orçamento com o mesmo layout que o frontend gerava com jsPDF:
+ * cabeçalho da empresa, serviços, equipamentos, totais, pagamento e assinatura.
+ * Sem estado mutável compartilhado: pode rodar em várias threads ao mesmo tempo.
+ */
+@Component
+public class QuotePdfRenderer {
+
+    private static final DateTimeFormatter DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private static final Font NORMAL = new Font(Font.HELVETICA, 12, Font.NORMAL);
+    private static final Font NEGRITO = new Font(Font.HELVETICA, 12, Font.BOLD);
+    private static final Font SECAO = new Font(Font.HELVETICA, 13, Font.BOLD);
+    private static final Font TITULO = new Font(Font.HELVETICA, 14, Font.NORMAL);
+    private static final Font RODAPE = new Font(Font.HELVETICA, 11, Font.NORMAL);
+    private static final Font RODAPE_NEGRITO = new Font(Font.HELVETICA, 11, Font.BOLD);
+
+    private static final List<String> EMPRESA = List.of(
+            "CNPJ: 21.935.339/0001-50",
+            "Rua São Jerônimo, 465",
+            "Novo Maranguape II, Maranguape-CE",
+            "CEP 61944-620",
+            "cserefrigeracaowy@gmail.com – (85) 98717-5445");
+
+    private final byte[] logo;
+
+    public QuotePdfRenderer() {
+        try (InputStream in = new ClassPathResource("pdf/logo-cse.png").getInputStream()) {
+            this.logo = in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Logo do orçamento não encontrado", e);
+        }
+    }
+
+    public byte[] renderizar(QuoteDTO q) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        Document doc = new Document(PageSize.A4, 40, 40, 40, 40);
+        try {
+            PdfWriter.getInstance(doc, out);
+            doc.open();
+
+            doc.add(cabecalho());
+            doc.add(faixaTitulo("Orçamento " + q.id() + "-" + q.criadoEm().getYear()));
+
+            doc.add(new Paragraph("Cliente: " + texto(q.clienteNome()), NORMAL));
+            Paragraph telefone = new Paragraph("Telefone: " + texto(q.clienteTelefone()), NORMAL);
+            telefone.setSpacingAfter(10);
+            doc.add(telefone);
+
+            doc.add(secao("Serviços", q.servicos(), "Total Serviços:", q.totalServicos()));
+            if (!q.equipamentos().isEmpty()) {
+                doc.add(secao("Equipamentos", q.equipamentos(), "Total Equipamentos:", q.totalEquipamentos()));
+            }
+
+            PdfPTable geral = tabelaValores();
+            linhaValor(geral, "Total Geral:", q.totalGeral(), NEGRITO);
+            geral.setSpacingAfter(15);
+            doc.add(geral);
+
+            doc.add(new Paragraph("Pagamento", NEGRITO));
+            Paragraph meios = new Paragraph(
+                    "Meios de pagamento: Boleto, transferência bancária, dinheiro, cheque, cartão ou pix.", RODAPE);
+            meios.setSpacingAfter(15);
+            doc.add(meios);
+            Paragraph local = new Paragraph("Maranguape, " + q.criadoEm().format(DATA), RODAPE);
+            local.setSpacingAfter(25);
+            doc.add(local);
+            doc.add(new Paragraph("_____________________________________", RODAPE));
+            doc.add(new Paragraph("CSE & REFRIGERAÇÃO", RODAPE_NEGRITO));
+            doc.add(new Paragraph("Weyne Arruda", RODAPE_NEGRITO));
+
+            doc.close();
+        } catch (Exception e) {
+            throw new IllegalStateException("Falha ao gerar o PDF do orçamento " + q.id(), e);
+        }
+        return out.toByteArray();
+    }
+
+    private PdfPTable cabecalho() throws Exception {
+        PdfPTable tabela = new PdfPTable(new float[] {1, 3});
+        tabela.setWidthPercentage(100);
+        tabela.setSpacingAfter(15);
+
+        Image imagem = Image.getInstance(logo);
+        imagem.scaleToFit(120, 120);
+        PdfPCell celulaLogo = new PdfPCell(imagem, false);
+        celulaLogo.setBorder(Rectangle.NO_BORDER);
+        tabela.addCell(celulaLogo);
+
+        PdfPCell dados = new PdfPCell();
+        dados.setBorder(Rectangle.NO_BORDER);
+        dados.addElement(new Paragraph("CSE & REFRIGERAÇÃO", NEGRITO));
+        for (String linha : EMPRESA) {
+            dados.addElement(new Paragraph(linha, NORMAL));
+        }
+        tabela.addCell(dados);
+        return tabela;
+    }
+
+    private static PdfPTable faixaTitulo(String titulo) {
+        PdfPTable tabela = new PdfPTable(1);
+        tabela.setWidthPercentage(100);
+        tabela.setSpacingAfter(12);
+        PdfPCell celula = new PdfPCell(new Phrase(titulo, TITULO));
+        celula.setBorder(Rectangle.NO_BORDER);
+        celula.setBackgroundColor(new Color(230, 230, 230));
+        celula.setPadding(6);
+        tabela.addCell(celula);
+        return tabela;
+    }
+
+    private static PdfPTable secao(String titulo, List<QuoteItemDTO> itens, String rotuloTotal, Double total) {
+        PdfPTable tabela = tabelaValores();
+        PdfPCell cabecalho = new PdfPCell(new Phrase(titulo, SECAO));
+        cabecalho.setColspan(2);
+        cabecalho.setBorder(Rectangle.NO_BORDER);
+        cabecalho.setPaddingBottom(6);
+        tabela.addCell(cabecalho);
+
+        for (QuoteItemDTO item : itens) {
+            linhaValor(tabela, "- " + texto(item.descricao()), item.valor(), NORMAL);
+        }
+        linhaValor(tabela, rotuloTotal, total, NEGRITO);
+        tabela.setSpacingAfter(12);
+        return tabela;
+    }
+
+    private static PdfPTable tabelaValores() {
+        PdfPTable tabela = new PdfPTable(new float[] {4, 1});
+        tabela.setWidthPercentage(100);
+        return tabela;
+    }
+
+    private static void linhaValor(PdfPTable tabela, String descricao, Double valor, Font fonte) {
+        PdfPCell esquerda = new PdfPCell(new Phrase(descricao, fonte));
+        esquerda.setBorder(Rectangle.NO_BORDER);
+        esquerda.setPaddingLeft(10);
+        tabela.addCell(esquerda);
+
+        PdfPCell direita = new PdfPCell(new Phrase(moeda(valor), fonte));
+        direita.setBorder(Rectangle.NO_BORDER);
+        direita.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        tabela.addCell(direita);
+    }
+
+    private static String moeda(Double valor) {
+        return String.format(Locale.ROOT, "R$ %.2f", valor != null ? valor : 0.0);
+    }
+
+    private static String texto(String valor) {
+        return valor != null ? valor : "";
+    }
+}
@@ -0,0 +1,151 @@
+package com.kmmanagement.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kmmanagement.dto.QuoteDTO;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Entrega o PDF de um orçamento. A chave é o hash do conteúdo (DTO + versão do layout):
+ * baixar de novo um orçamento que não mudou sai do cache (ou vira 304 pelo ETag).
+ * A renderização roda em um pool pequeno com fila limitada; se a fila enche, responde 503
+ * na hora em vez de segurar as threads da API. Pedidos simultâneos do mesmo PDF
+ * esperam a mesma renderização.
+ */
+@Service
+public class QuotePdfService {
+
+    // Mudou o layout do PDF? Incremente: invalida cache e ETags antigos
+    private static final String VERSAO_LAYOUT = "1";
+
+    private final QuotePdfRenderer renderer;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutSegundos;
+    private final long maxBytesCache;
+
+    // LRU limitado pelo total de bytes
+    private final LinkedHashMap<String, byte[]> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytesEmCache;
+
+    private final Map<String, CompletableFuture<byte[]>> emAndamento = new ConcurrentHashMap<>();
+
+    public QuotePdfService(
+            QuotePdfRenderer renderer,
+            ObjectMapper objectMapper,
+            @Value("${orcamento.pdf.threads:2}") int threads,
+            @Value("${orcamento.pdf.queue-size:16}") int tamanhoFila,
+            @Value("${orcamento.pdf.timeout-seconds:30}") long timeoutSegundos,
+            @Value("${orcamento.pdf.cache-max-mb:64}") long cacheMaxMb) {
+        this.renderer = renderer;
+        this.objectMapper = objectMapper;
+        this.timeoutSegundos = timeoutSegundos;
+        this.maxBytesCache = cacheMaxMb * 1024 * 1024;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(tamanhoFila),
+                Thread.ofPlatform().name("orcamento-pdf-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Hash do conteúdo que vai para o PDF; usado como chave do cache e como ETag
+    public String hash(QuoteDTO quote) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(VERSAO_LAYOUT.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(quote));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public byte[] obter(QuoteDTO quote, String hash) {
+        byte[] pronto = doCache(hash);
+        if (pronto != null) return pronto;
+
+        CompletableFuture<byte[]> nova = new CompletableFuture<>();
+        CompletableFuture<byte[]> atual = emAndamento.putIfAbsent(hash, nova);
+        if (atual == null) {
+            atual = nova;
+            try {
+                executor.execute(() -> renderizar(quote, hash, nova));
+            } catch (RejectedExecutionException e) {
+                emAndamento.remove(hash, nova);
+                nova.completeExceptionally(e);
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Muitos PDFs sendo gerados. Tente novamente em instantes.");
+            }
+        }
+
+        try {
+            return atual.get(timeoutSegundos, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "A geração do PDF demorou demais. Tente novamente em instantes.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao gerar o PDF do orçamento " + quote.id(), e.getCause());
+        }
+    }
+
+    private void renderizar(QuoteDTO quote, String hash, CompletableFuture<byte[]> resultado) {
+        try {
+            byte[] pdf = renderer.renderizar(quote);
+            guardar(hash, pdf);
+            resultado.complete(pdf);
+        } catch (Throwable e) {
+            resultado.completeExceptionally(e);
+        } finally {
+            emAndamento.remove(hash, resultado);
+        }
+    }
+
+    private byte[] doCache(String hash) {
+        synchronized (cache) {
+            return cache.get(hash);
+        }
+    }
+
+    private void guardar(String hash, byte[] pdf) {
+        if (pdf.length > maxBytesCache) return;
+        synchronized (cache) {
+            byte[] anterior = cache.put(hash, pdf);
+            if (anterior != null) bytesEmCache -= anterior.length;
+            bytesEmCache += pdf.length;
+            Iterator<byte[]> maisAntigos = cache.values().iterator();
+            while (bytesEmCache > maxBytesCache && maisAntigos.hasNext()) {
+                bytesEmCache -= maisAntigos.next().length;
+                maisAntigos.remove();
+            }
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+}
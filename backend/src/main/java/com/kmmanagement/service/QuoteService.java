@@ -0,0 +1,171 @@
+package com.kmmanagement.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.kmmanagement.dto.QuoteDTO;
+import com.kmmanagement.dto.QuoteItemDTO;
+import com.kmmanagement.dto.QuoteRequestDTO;
+import com.kmmanagement.model.Cliente;
+import com.kmmanagement.model.Dinheiro;
+import com.kmmanagement.model.Quote;
+import com.kmmanagement.model.QuoteItem;
+import com.kmmanagement.model.Task;
+import com.kmmanagement.repository.ClienteRepository;
+import com.kmmanagement.repository.QuoteRepository;
+import com.kmmanagement.repository.TaskRepository;
+
+/**
+ * Orçamentos: valida os itens, copia a descrição das tarefas e calcula os totais no servidor
+ * (o frontend só mostra uma prévia). As tarefas citadas são buscadas em um único SELECT.
+ */
+@Service
+public class QuoteService {
+
+    @Autowired
+    private QuoteRepository quoteRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Transactional
+    public QuoteDTO criar(QuoteRequestDTO dados, String usuario) {
+        Quote quote = new Quote();
+        quote.setCriadoEm(LocalDateTime.now());
+        quote.setCriadoPor(usuario);
+        preencher(quote, dados);
+        return toDTO(quoteRepository.save(quote));
+    }
+
+    @Transactional
+    public Optional<QuoteDTO> atualizar(Long id, QuoteRequestDTO dados) {
+        return quoteRepository.findDetalhadoById(id).map(quote -> {
+            preencher(quote, dados);
+            return toDTO(quoteRepository.saveAndFlush(quote));
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<QuoteDTO> buscar(Long id) {
+        return quoteRepository.findDetalhadoById(id).map(this::toDTO);
+    }
+
+    @Transactional(readOnly = true)
+    public List<QuoteDTO> listarPorCliente(Long clienteId) {
+        return quoteRepository.findByClienteIdOrderByCriadoEmDesc(clienteId).stream()
+                .map(this::toDTO)
+                .toList();
+    }
+
+    @Transactional
+    public boolean excluir(Long id) {
+        if (!quoteRepository.existsById(id)) return false;
+        quoteRepository.deleteById(id);
+        return true;
+    }
+
+    private void preencher(Quote quote, QuoteRequestDTO dados) {
+        if (dados.clienteId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Selecione um cliente.");
+        }
+        Cliente cliente = clienteRepository.findById(dados.clienteId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cliente não encontrado."));
+
+        List<QuoteItemDTO> servicos = dados.servicos() != null ? dados.servicos() : List.of();
+        List<QuoteItemDTO> equipamentos = dados.equipamentos() != null ? dados.equipamentos() : List.of();
+        if (servicos.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Selecione pelo menos um serviço.");
+        }
+
+        Set<Long> tarefaIds = servicos.stream()
+                .map(QuoteItemDTO::tarefaId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Task> tarefas = taskRepository.findAllById(tarefaIds).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        List<QuoteItem> itens = new ArrayList<>(servicos.size() + equipamentos.size());
+        // Totais em centavos, somados em long: exatos e sem alocação por item
+        long totalServicos = 0;
+        for (QuoteItemDTO s : servicos) {
+            long valor = valorValido(s.valor(), "Informe o valor de todos os serviços selecionados.");
+            String descricao = s.descricao() != null ? s.descricao().trim() : "";
+            Task tarefa = null;
+            if (s.tarefaId() != null) {
+                tarefa = tarefas.get(s.tarefaId());
+                if (tarefa == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Tarefa " + s.tarefaId() + " não encontrada.");
+                }
+                if (tarefa.getCliente() == null || !cliente.getId().equals(tarefa.getCliente().getId())) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            "A tarefa " + s.tarefaId() + " não pertence ao cliente selecionado.");
+                }
+                if (descricao.isEmpty()) descricao = tarefa.getTitulo();
+            } else if (descricao.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Descreva o serviço avulso.");
+            }
+            itens.add(new QuoteItem(QuoteItem.SERVICO, descricao, new Dinheiro(valor), tarefa));
+            totalServicos += valor;
+        }
+
+        long totalEquipamentos = 0;
+        for (QuoteItemDTO e : equipamentos) {
+            String nome = e.descricao() != null ? e.descricao().trim() : "";
+            long valor = valorValido(e.valor(),
+                    "Informe um valor válido para o equipamento: " + (nome.isEmpty() ? "sem nome" : nome));
+            itens.add(new QuoteItem(QuoteItem.EQUIPAMENTO, nome, new Dinheiro(valor), null));
+            totalEquipamentos += valor;
+        }
+
+        quote.setCliente(cliente);
+        quote.getItens().clear();
+        quote.getItens().addAll(itens);
+        quote.setTotalServicos(new Dinheiro(totalServicos));
+        quote.setTotalEquipamentos(new Dinheiro(totalEquipamentos));
+        quote.setTotalGeral(new Dinheiro(totalServicos + totalEquipamentos));
+    }
+
+    // Valores chegam em reais e são arredondados para centavos antes de somar
+    private static long valorValido(Double valor, String mensagem) {
+        if (valor == null || valor.isNaN() || valor.isInfinite() || valor < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, mensagem);
+        }
+        return Dinheiro.centavos(valor);
+    }
+
+    private QuoteDTO toDTO(Quote q) {
+        Cliente c = q.getCliente();
+        List<QuoteItemDTO> servicos = new ArrayList<>();
+        List<QuoteItemDTO> equipamentos = new ArrayList<>();
+        for (QuoteItem item : q.getItens()) {
+            // getId() do proxy LAZY não dispara SELECT na tarefa
+            Long tarefaId = item.getTarefa() != null ? item.getTarefa().getId() : null;
+            QuoteItemDTO dto = new QuoteItemDTO(tarefaId, item.getDescricao(), Dinheiro.emReais(item.getValor()));
+            if (QuoteItem.EQUIPAMENTO.equals(item.getTipo())) equipamentos.add(dto);
+            else servicos.add(dto);
+        }
+        return new QuoteDTO(
+                q.getId(), c.getId(), c.getNome(), c.getTelefone(),
+                q.getCriadoEm(), q.getCriadoPor(),
+                servicos, equipamentos,
+                Dinheiro.emReais(q.getTotalServicos()), Dinheiro.emReais(q.getTotalEquipamentos()),
+                Dinheiro.emReais(q.getTotalGeral())
+        );
+    }
+}
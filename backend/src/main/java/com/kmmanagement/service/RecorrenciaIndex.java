@@ -0,0 +1,236 @@
+package com.kmmanagement.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.kmmanagement.model.Cliente;
+import com.kmmanagement.model.Dinheiro;
+import com.kmmanagement.model.Recorrencia;
+import com.kmmanagement.model.StatusTarefa;
+import com.kmmanagement.model.Task;
+import com.kmmanagement.model.TipoCliente;
+import com.kmmanagement.repository.RecorrenciaRepository;
+
+/**
+ * Regras de recorrência em memória (são poucas e pequenas). As ocorrências nunca são
+ * materializadas aqui: listagem, dashboard e checagem de conflito expandem só a janela pedida.
+ * O estado é imutável e trocado inteiro a cada alteração (escritas são raras; leituras não
+ * precisam de lock).
+ */
+@Service
+public class RecorrenciaIndex implements SmartInitializingSingleton {
+
+    /** Snapshot imutável de uma regra. */
+    public record Regra(Long id, Long clienteId, DayOfWeek diaSemana, LocalTime hora, LocalDate inicio, LocalDate fim,
+                        Set<LocalDate> excecoes, String titulo, String descricao, StatusTarefa status, TipoCliente tipoCliente,
+                        Dinheiro valorPago, Dinheiro valorTotal, Integer quantidadePessoas, String criadoPor) {
+
+        public static Regra de(Recorrencia r) {
+            return new Regra(r.getId(), r.getCliente().getId(), DayOfWeek.of(r.getDiaSemana()), r.getHora(),
+                    r.getInicio(), r.getFim(), Set.copyOf(r.getExcecoes()), r.getTitulo(), r.getDescricao(),
+                    r.getStatus(), r.getTipoCliente(), r.getValorPago(), r.getValorTotal(),
+                    r.getQuantidadePessoas(), r.getCriadoPor());
+        }
+
+        public boolean ocorreEm(LocalDate dia) {
+            return dia.getDayOfWeek() == diaSemana && !dia.isBefore(inicio) && !dia.isAfter(fim)
+                    && !excecoes.contains(dia);
+        }
+
+        // Datas das ocorrências entre de e ate (inclusive), sem as exceções
+        public List<LocalDate> datas(LocalDate de, LocalDate ate) {
+            List<LocalDate> datas = new ArrayList<>();
+            LocalDate ultimo = ate.isBefore(fim) ? ate : fim;
+            LocalDate dia = (de.isAfter(inicio) ? de : inicio).with(TemporalAdjusters.nextOrSame(diaSemana));
+            for (; !dia.isAfter(ultimo); dia = dia.plusWeeks(1)) {
+                if (!excecoes.contains(dia)) datas.add(dia);
+            }
+            return datas;
+        }
+
+        Regra comExcecao(LocalDate dia) {
+            Set<LocalDate> novas = new HashSet<>(excecoes);
+            novas.add(dia);
+            return new Regra(id, clienteId, diaSemana, hora, inicio, fim, Set.copyOf(novas), titulo, descricao,
+                    status, tipoCliente, valorPago, valorTotal, quantidadePessoas, criadoPor);
+        }
+
+        // Tarefa transiente equivalente à ocorrência (para reaproveitar DTO e regras do dashboard)
+        public Task comoTarefa(LocalDate dia) {
+            Cliente cliente = new Cliente();
+            cliente.setId(clienteId);
+            Task t = new Task();
+            t.setTitulo(titulo);
+            t.setDescricao(descricao);
+            t.setStatus(status);
+            t.setTipoCliente(tipoCliente);
+            t.setCliente(cliente);
+            t.setDataServico(LocalDateTime.of(dia, hora));
+            t.setCriadoPor(criadoPor);
+            t.setValorPago(valorPago);
+            t.setValorTotal(valorTotal);
+            t.setQuantidadePessoas(quantidadePessoas);
+            return t;
+        }
+    }
+
+    public record Ocorrencia(Regra regra, LocalDate dia) {
+        public LocalDateTime dataServico() {
+            return LocalDateTime.of(dia, regra.hora());
+        }
+    }
+
+    private record Estado(Map<Long, Regra> porId, Map<DayOfWeek, List<Regra>> porDia) {
+        static final Estado VAZIO = new Estado(Map.of(), Map.of());
+    }
+
+    @Autowired
+    private RecorrenciaRepository repository;
+
+    private volatile Estado estado = Estado.VAZIO;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reconstruir();
+    }
+
+    public synchronized void reconstruir() {
+        Map<Long, Regra> regras = new HashMap<>();
+        for (Recorrencia r : repository.findAllComExcecoes()) {
+            regras.put(r.getId(), Regra.de(r));
+        }
+        publicar(regras);
+    }
+
+    public Regra regra(Long id) {
+        return estado.porId().get(id);
+    }
+
+    // Alguma regra ocupa exatamente este horário?
+    public boolean ocupa(LocalDateTime data) {
+        LocalDate dia = data.toLocalDate();
+        for (Regra r : estado.porDia().getOrDefault(dia.getDayOfWeek(), List.of())) {
+            if (r.hora().equals(data.toLocalTime()) && r.ocorreEm(dia)) return true;
+        }
+        return false;
+    }
+
+    // Horários ocupados por regras no dia
+    public List<LocalTime> horariosNoDia(LocalDate dia) {
+        List<LocalTime> horarios = new ArrayList<>();
+        for (Regra r : estado.porDia().getOrDefault(dia.getDayOfWeek(), List.of())) {
+            if (r.ocorreEm(dia)) horarios.add(r.hora());
+        }
+        return horarios;
+    }
+
+    // Ocorrências dentro da janela, em ordem de data/hora
+    public List<Ocorrencia> ocorrencias(LocalDateTime from, LocalDateTime to) {
+        List<Ocorrencia> lista = new ArrayList<>();
+        for (Regra r : estado.porId().values()) {
+            for (LocalDate dia : r.datas(from.toLocalDate(), to.toLocalDate())) {
+                LocalDateTime quando = LocalDateTime.of(dia, r.hora());
+                if (!quando.isBefore(from) && !quando.isAfter(to)) lista.add(new Ocorrencia(r, dia));
+            }
+        }
+        lista.sort(Comparator.comparing(Ocorrencia::dataServico));
+        return lista;
+    }
+
+    /** Coloca a regra já (quem chama garante que não há conflito); desfeito em rollback. */
+    public void colocarNaTransacao(Regra regra) {
+        alterar(regra.id(), regra);
+        aoFinal(false, () -> alterar(regra.id(), null));
+    }
+
+    /** Remove a regra no commit: os horários só ficam livres quando a exclusão é definitiva. */
+    public void removerNaTransacao(Long id) {
+        aoFinal(true, () -> alterar(id, null));
+    }
+
+    /** Remove no commit todas as regras do cliente (a FK apaga em cascata no banco). */
+    public void removerDoClienteNaTransacao(Long clienteId) {
+        aoFinal(true, () -> {
+            for (Regra r : estado.porId().values()) {
+                if (r.clienteId().equals(clienteId)) alterar(r.id(), null);
+            }
+        });
+    }
+
+    /** Pula uma data no commit (ocorrência cancelada). */
+    public void pularNaTransacao(Long id, LocalDate dia) {
+        aoFinal(true, () -> adicionarExcecao(id, dia));
+    }
+
+    /**
+     * Tira a data da regra já, para a própria transação poder reservar o horário para a tarefa
+     * que substitui a ocorrência; em rollback a ocorrência volta.
+     */
+    public void materializarNaTransacao(Long id, LocalDate dia) {
+        adicionarExcecao(id, dia);
+        aoFinal(false, () -> removerExcecao(id, dia));
+    }
+
+    private synchronized void adicionarExcecao(Long id, LocalDate dia) {
+        Regra r = estado.porId().get(id);
+        if (r != null) alterar(id, r.comExcecao(dia));
+    }
+
+    private synchronized void removerExcecao(Long id, LocalDate dia) {
+        Regra r = estado.porId().get(id);
+        if (r == null || !r.excecoes().contains(dia)) return;
+        Set<LocalDate> excecoes = new HashSet<>(r.excecoes());
+        excecoes.remove(dia);
+        alterar(id, new Regra(r.id(), r.clienteId(), r.diaSemana(), r.hora(), r.inicio(), r.fim(), Set.copyOf(excecoes),
+                r.titulo(), r.descricao(), r.status(), r.tipoCliente(), r.valorPago(), r.valorTotal(),
+                r.quantidadePessoas(), r.criadoPor()));
+    }
+
+    // commit=true: roda só no commit; commit=false: roda só no rollback (desfaz). Sem transação, commit roda já.
+    private void aoFinal(boolean commit, Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if ((status == STATUS_COMMITTED) == commit) acao.run();
+                }
+            });
+        } else if (commit) {
+            acao.run();
+        }
+    }
+
+    // regra == null remove
+    private synchronized void alterar(Long id, Regra regra) {
+        Map<Long, Regra> regras = new HashMap<>(estado.porId());
+        if (regra == null) regras.remove(id);
+        else regras.put(id, regra);
+        publicar(regras);
+    }
+
+    private void publicar(Map<Long, Regra> regras) {
+        Map<DayOfWeek, List<Regra>> porDia = new EnumMap<>(DayOfWeek.class);
+        for (Regra r : regras.values()) {
+            porDia.computeIfAbsent(r.diaSemana(), d -> new ArrayList<>()).add(r);
+        }
+        porDia.replaceAll((d, lista) -> List.copyOf(lista));
+        estado = new Estado(Map.copyOf(regras), porDia);
+    }
+}
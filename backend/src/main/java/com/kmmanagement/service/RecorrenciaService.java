@@ -0,0 +1,216 @@
+package com.kmmanagement.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.kmmanagement.config.AppMetrics;
+import com.kmmanagement.dto.RecorrenciaDTO;
+import com.kmmanagement.dto.TaskDTO;
+import com.kmmanagement.model.Cliente;
+import com.kmmanagement.model.Dinheiro;
+import com.kmmanagement.model.Recorrencia;
+import com.kmmanagement.model.StatusTarefa;
+import com.kmmanagement.model.TipoCliente;
+import com.kmmanagement.repository.ClienteRepository;
+import com.kmmanagement.repository.RecorrenciaRepository;
+import com.kmmanagement.service.RecorrenciaIndex.Regra;
+import com.kmmanagement.service.TableVersions.Tabela;
+
+/**
+ * Regras de recorrência: criação (com checagem de conflito de todas as ocorrências),
+ * exclusão, datas puladas e materialização de uma ocorrência em tarefa.
+ * Ocorrências contam como tarefas para listagem e dashboard, então toda alteração aqui
+ * troca a versão de TAREFAS (ETags) e avisa o stream da agenda.
+ */
+@Service
+public class RecorrenciaService {
+
+    private static final DateTimeFormatter HORA = DateTimeFormatter.ofPattern("HH:mm");
+    private static final int MAX_SEMANAS = 104;
+
+    @Autowired
+    private RecorrenciaRepository repository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private RecorrenciaIndex index;
+
+    @Autowired
+    private SlotOccupancyIndex slotIndex;
+
+    @Autowired
+    private AgendaSchedule schedule;
+
+    @Autowired
+    private TableVersions versions;
+
+    @Autowired
+    private TaskChangeFeed changeFeed;
+
+    @Autowired
+    private AppMetrics metrics;
+
+    @Transactional(readOnly = true)
+    public List<RecorrenciaDTO> listarPorCliente(Long clienteId) {
+        return repository.findByClienteIdOrderByInicio(clienteId).stream().map(this::toDTO).toList();
+    }
+
+    @Transactional
+    public RecorrenciaDTO criar(RecorrenciaDTO dto, String usuario) {
+        if (dto.clienteId() == null || dto.diaSemana() == null || dto.hora() == null
+                || dto.inicio() == null || dto.fim() == null || dto.titulo() == null || dto.titulo().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Informe cliente, dia da semana, hora, início, fim e título.");
+        }
+        if (dto.diaSemana() < 1 || dto.diaSemana() > 7) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Dia da semana inválido (1 = segunda ... 7 = domingo).");
+        }
+        LocalTime hora;
+        try {
+            hora = LocalTime.parse(dto.hora(), HORA);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Hora inválida (use HH:mm).");
+        }
+        if (dto.fim().isBefore(dto.inicio()) || dto.inicio().plusWeeks(MAX_SEMANAS).isBefore(dto.fim())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Período inválido (no máximo " + MAX_SEMANAS + " semanas).");
+        }
+        StatusTarefa status;
+        TipoCliente tipoCliente;
+        try {
+            status = StatusTarefa.de(dto.status());
+            tipoCliente = TipoCliente.deCodigo(dto.prioridade());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        DayOfWeek diaSemana = DayOfWeek.of(dto.diaSemana());
+        LocalDate primeira = dto.inicio().with(TemporalAdjusters.nextOrSame(diaSemana));
+        if (primeira.isAfter(dto.fim())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "O período não tem nenhuma ocorrência.");
+        }
+        // A grade depende só do dia da semana e da hora: basta checar uma ocorrência
+        if (!schedule.permitido(LocalDateTime.of(primeira, hora))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Horário fora do funcionamento (segunda fechado, domingo até 19:30).");
+        }
+        Cliente cliente = clienteRepository.findById(dto.clienteId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cliente não encontrado."));
+
+        Recorrencia r = new Recorrencia();
+        r.setCliente(cliente);
+        r.setDiaSemana(dto.diaSemana());
+        r.setHora(hora);
+        r.setInicio(dto.inicio());
+        r.setFim(dto.fim());
+        if (dto.excecoes() != null) r.getExcecoes().addAll(dto.excecoes());
+        r.setTitulo(dto.titulo());
+        r.setDescricao(dto.descricao());
+        r.setStatus(status != null ? status : StatusTarefa.A_PAGAR);
+        r.setTipoCliente(tipoCliente != null ? tipoCliente : TipoCliente.RECORRENTE);
+        r.setValorPago(Dinheiro.deReais(dto.valorPago()));
+        r.setValorTotal(Dinheiro.deReais(dto.valorTotal()));
+        r.setQuantidadePessoas(dto.quantidadePessoas());
+        r.setCriadoPor(usuario);
+        Recorrencia salva = repository.saveAndFlush(r);
+
+        LocalDateTime conflito = slotIndex.registrarRecorrenciaNaTransacao(Regra.de(salva));
+        if (conflito != null) {
+            metrics.conflitoDeHorario("recorrencia");
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Já existe um agendamento em " + conflito.format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")) + ".");
+        }
+        alterou();
+        return toDTO(salva);
+    }
+
+    @Transactional
+    public boolean excluir(Long id) {
+        if (!repository.existsById(id)) return false;
+        repository.deleteById(id);
+        index.removerNaTransacao(id);
+        alterou();
+        return true;
+    }
+
+    // Cancela uma ocorrência sem mexer nas demais
+    @Transactional
+    public void pular(Long id, LocalDate dia) {
+        Recorrencia r = ocorrencia(id, dia);
+        r.getExcecoes().add(dia);
+        index.pularNaTransacao(id, dia);
+        versions.alterou(Tabela.TAREFAS);
+        // Evento de delete sem id: a agenda identifica a ocorrência pela regra + data
+        TaskDTO pulada = new TaskDTO();
+        pulada.setRecorrenciaId(id);
+        pulada.setOcorrencia(dia.toString());
+        changeFeed.publicar(TaskChangeFeed.DELETE, pulada);
+    }
+
+    /**
+     * Chamado na criação da tarefa que substitui a ocorrência (editada ou paga): a data vira
+     * exceção da regra antes da reserva do horário, na mesma transação.
+     */
+    @Transactional
+    public void materializar(Long id, LocalDate dia) {
+        Recorrencia r = ocorrencia(id, dia);
+        r.getExcecoes().add(dia);
+        index.materializarNaTransacao(id, dia);
+    }
+
+    public void clienteRemovido(Long clienteId) {
+        index.removerDoClienteNaTransacao(clienteId);
+        alterou();
+    }
+
+    private Recorrencia ocorrencia(Long id, LocalDate dia) {
+        Recorrencia r = repository.findComExcecoesById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Recorrência não encontrada."));
+        Regra regra = index.regra(id);
+        if (regra == null || !regra.ocorreEm(dia)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Não há ocorrência da recorrência nesta data.");
+        }
+        return r;
+    }
+
+    // Ocorrências entram nas listagens e no dashboard: troca os ETags e manda a agenda recarregar
+    private void alterou() {
+        versions.alterou(Tabela.TAREFAS);
+        changeFeed.publicarRecarga();
+    }
+
+    private RecorrenciaDTO toDTO(Recorrencia r) {
+        Cliente c = r.getCliente();
+        return new RecorrenciaDTO(
+                r.getId(),
+                c.getId(),
+                c.getNome(),
+                r.getDiaSemana(),
+                r.getHora().format(HORA),
+                r.getInicio(),
+                r.getFim(),
+                r.getExcecoes().stream().sorted().toList(),
+                r.getTitulo(),
+                r.getDescricao(),
+                r.getStatus().name(),
+                TipoCliente.codigo(r.getTipoCliente()),
+                Dinheiro.emReais(r.getValorPago()),
+                Dinheiro.emReais(r.getValorTotal()),
+                r.getQuantidadePessoas(),
+                r.getCriadoPor()
+        );
+    }
+}
@@ -0,0 +1,238 @@
+package com.kmmanagement.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.kmmanagement.dto.DisponibilidadeDiaDTO;
+import com.kmmanagement.repository.TaskRepository;
+
+/**
+ * Índice em memória dos horários ocupados, usado na checagem de conflito de agendamento.
+ * Cada dia guarda um bitset sobre a grade do AgendaSchedule (horários fora da grade ficam
+ * em um set à parte). Leituras e escritas de um dia acontecem sob um lock listrado por dia,
+ * então a checagem e a reserva são atômicas: duas requisições simultâneas nunca reservam
+ * o mesmo horário. A constraint única em tarefas.data_servico continua como garantia final.
+ * Ocorrências de recorrências (RecorrenciaIndex) também ocupam horário: são consultadas na
+ * hora da checagem, sem virar bits aqui.
+ */
+@Service
+public class SlotOccupancyIndex implements SmartInitializingSingleton {
+
+    private static final int STRIPES = 64;
+    private static final DateTimeFormatter HORA = DateTimeFormatter.ofPattern("HH:mm");
+
+    // Só é lido/alterado com o lock do dia
+    private static final class DiaOcupacao {
+        long bits;
+        Set<LocalTime> foraDaGrade;
+    }
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private AgendaSchedule schedule;
+
+    @Autowired
+    private RecorrenciaIndex recorrencias;
+
+    private final Map<LocalDate, DiaOcupacao> dias = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public SlotOccupancyIndex() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    // Carrega o índice a partir de tarefas antes do servidor começar a aceitar requisições
+    @Override
+    public void afterSingletonsInstantiated() {
+        reconstruir();
+    }
+
+    public void reconstruir() {
+        dias.clear();
+        for (LocalDateTime data : taskRepository.findAllDatasServico()) {
+            ReentrantLock lock = lockDo(data.toLocalDate());
+            lock.lock();
+            try {
+                marcar(data);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public boolean ocupado(LocalDateTime data) {
+        ReentrantLock lock = lockDo(data.toLocalDate());
+        lock.lock();
+        try {
+            return estaOcupado(data) || recorrencias.ocupa(data);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Bitset dos horários da grade ocupados no dia (bit i = schedule.horario(i))
+    public long ocupacaoDoDia(LocalDate dia) {
+        ReentrantLock lock = lockDo(dia);
+        lock.lock();
+        try {
+            DiaOcupacao d = dias.get(dia);
+            long bits = d != null ? d.bits : 0L;
+            for (LocalTime hora : recorrencias.horariosNoDia(dia)) {
+                int indice = schedule.indice(hora);
+                if (indice >= 0) bits |= 1L << indice;
+            }
+            return bits;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Horários livres e ocupados de cada dia do intervalo (regras de funcionamento do AgendaSchedule)
+    public List<DisponibilidadeDiaDTO> disponibilidade(LocalDate from, LocalDate to) {
+        List<DisponibilidadeDiaDTO> resultado = new ArrayList<>();
+        for (LocalDate dia = from; !dia.isAfter(to); dia = dia.plusDays(1)) {
+            long ocupados = ocupacaoDoDia(dia);
+            long livres = schedule.horariosPermitidos(dia) & ~ocupados;
+            resultado.add(new DisponibilidadeDiaDTO(dia, horarios(livres), horarios(ocupados)));
+        }
+        return resultado;
+    }
+
+    private List<String> horarios(long bits) {
+        List<String> lista = new ArrayList<>(Long.bitCount(bits));
+        for (int i = 0; i < schedule.totalHorarios(); i++) {
+            if ((bits & (1L << i)) != 0) lista.add(schedule.horario(i).format(HORA));
+        }
+        return lista;
+    }
+
+    /**
+     * Move a ocupação de {@code antigo} para {@code novo} dentro da transação corrente
+     * (qualquer um pode ser null). O novo horário é reservado na hora, de forma atômica;
+     * o antigo só é liberado no commit e, em rollback, a reserva nova é desfeita.
+     *
+     * @return false se {@code novo} já estiver ocupado (nada é alterado)
+     */
+    public boolean moverNaTransacao(LocalDateTime antigo, LocalDateTime novo) {
+        if (novo != null && novo.equals(antigo)) return true;
+
+        if (novo != null && !reservar(novo)) return false;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        if (antigo != null) liberar(antigo);
+                    } else if (novo != null) {
+                        liberar(novo);
+                    }
+                }
+            });
+        } else if (antigo != null) {
+            liberar(antigo);
+        }
+        return true;
+    }
+
+    private boolean reservar(LocalDateTime data) {
+        ReentrantLock lock = lockDo(data.toLocalDate());
+        lock.lock();
+        try {
+            if (estaOcupado(data) || recorrencias.ocupa(data)) return false;
+            marcar(data);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Registra uma regra de recorrência se nenhuma ocorrência dela colide com tarefas ou outras
+     * regras. Segura todos os locks (em ordem) durante a checagem: uma reserva avulsa simultânea
+     * vê a regra inteira ou nenhuma parte dela. Em rollback a regra sai do índice.
+     *
+     * @return a primeira ocorrência em conflito, ou null se a regra foi registrada
+     */
+    public LocalDateTime registrarRecorrenciaNaTransacao(RecorrenciaIndex.Regra regra) {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+        try {
+            for (LocalDate dia : regra.datas(regra.inicio(), regra.fim())) {
+                LocalDateTime data = LocalDateTime.of(dia, regra.hora());
+                if (estaOcupado(data) || recorrencias.ocupa(data)) return data;
+            }
+            recorrencias.colocarNaTransacao(regra);
+            return null;
+        } finally {
+            for (int i = locks.length - 1; i >= 0; i--) {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    private void liberar(LocalDateTime data) {
+        LocalDate dia = data.toLocalDate();
+        ReentrantLock lock = lockDo(dia);
+        lock.lock();
+        try {
+            DiaOcupacao d = dias.get(dia);
+            if (d == null) return;
+            int indice = schedule.indice(data.toLocalTime());
+            if (indice >= 0) {
+                d.bits &= ~(1L << indice);
+            } else if (d.foraDaGrade != null) {
+                d.foraDaGrade.remove(data.toLocalTime());
+            }
+            if (d.bits == 0 && (d.foraDaGrade == null || d.foraDaGrade.isEmpty())) {
+                dias.remove(dia);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Chamados sempre com o lock do dia
+    private boolean estaOcupado(LocalDateTime data) {
+        DiaOcupacao d = dias.get(data.toLocalDate());
+        if (d == null) return false;
+        int indice = schedule.indice(data.toLocalTime());
+        if (indice >= 0) return (d.bits & (1L << indice)) != 0;
+        return d.foraDaGrade != null && d.foraDaGrade.contains(data.toLocalTime());
+    }
+
+    private void marcar(LocalDateTime data) {
+        DiaOcupacao d = dias.computeIfAbsent(data.toLocalDate(), k -> new DiaOcupacao());
+        int indice = schedule.indice(data.toLocalTime());
+        if (indice >= 0) {
+            d.bits |= 1L << indice;
+        } else {
+            if (d.foraDaGrade == null) d.foraDaGrade = new HashSet<>();
+            d.foraDaGrade.add(data.toLocalTime());
+        }
+    }
+
+    private ReentrantLock lockDo(LocalDate dia) {
+        return locks[Math.floorMod(dia.hashCode(), STRIPES)];
+    }
+}
@@ -0,0 +1,122 @@
+package com.kmmanagement.service;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Escreve um Stream de linhas direto na resposta HTTP, como NDJSON (um objeto JSON por linha)
+ * ou CSV, comprimindo com gzip quando o cliente aceita. Nada é acumulado em memória:
+ * cada linha lida do banco é serializada e descartada.
+ */
+@Component
+public class StreamingExporter {
+
+    public enum Formato { NDJSON, CSV }
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public static Formato formato(String valor) {
+        return "csv".equalsIgnoreCase(valor) ? Formato.CSV : Formato.NDJSON;
+    }
+
+    public <T> void exportar(Stream<T> linhas, Class<T> tipo, Formato formato, String nomeArquivo,
+                             List<String> cabecalho, Function<T, List<Object>> colunas,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean gzip = aceitaGzip(request);
+        String extensao = formato == Formato.CSV ? "csv" : "ndjson";
+
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentType(formato == Formato.CSV ? "text/csv" : "application/x-ndjson");
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + nomeArquivo + "." + extensao + "\"");
+        if (gzip) response.setHeader("Content-Encoding", "gzip");
+
+        OutputStream out = gzip ? new GZIPOutputStream(response.getOutputStream(), 8192) : response.getOutputStream();
+        try (out) {
+            if (formato == Formato.CSV) {
+                escreverCsv(linhas.iterator(), cabecalho, colunas, out);
+            } else {
+                escreverNdjson(linhas.iterator(), tipo, out);
+            }
+        }
+    }
+
+    private <T> void escreverNdjson(Iterator<T> linhas, Class<T> tipo, OutputStream out) throws IOException {
+        try (SequenceWriter writer = objectMapper.writerFor(tipo)
+                .withRootValueSeparator("\n")
+                .writeValues(new NaoFecha(out))) {
+            while (linhas.hasNext()) {
+                writer.write(linhas.next());
+            }
+        }
+        out.write('\n');
+    }
+
+    private <T> void escreverCsv(Iterator<T> linhas, List<String> cabecalho, Function<T, List<Object>> colunas,
+                                 OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new NaoFecha(out), StandardCharsets.UTF_8));
+        linhaCsv(writer, List.copyOf(cabecalho));
+        while (linhas.hasNext()) {
+            linhaCsv(writer, colunas.apply(linhas.next()));
+        }
+        writer.flush();
+    }
+
+    private static void linhaCsv(Writer writer, List<?> valores) throws IOException {
+        for (int i = 0; i < valores.size(); i++) {
+            if (i > 0) writer.write(',');
+            Object valor = valores.get(i);
+            if (valor != null) writer.write(csv(valor.toString()));
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180: aspas quando há vírgula, aspas ou quebra de linha
+    private static String csv(String valor) {
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+
+    private static boolean aceitaGzip(HttpServletRequest request) {
+        String accept = request.getHeader("Accept-Encoding");
+        return accept != null && accept.toLowerCase().contains("gzip");
+    }
+
+    // Os writers fecham o stream de baixo ao terminar; quem fecha (e finaliza o gzip) é o exportar
+    private static final class NaoFecha extends FilterOutputStream {
+        NaoFecha(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
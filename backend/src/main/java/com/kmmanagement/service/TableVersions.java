@@ -0,0 +1,63 @@
+package com.kmmanagement.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Contador de versão por tabela, usado para montar ETags fortes das listagens sem ler o banco.
+ * Toda escrita em tarefas, clientes ou users incrementa o contador da tabela depois do commit;
+ * quem monta um ETag deve ler a versão ANTES de consultar o banco (assim um ETag nunca fica
+ * associado a dados mais velhos que ele).
+ */
+@Component
+public class TableVersions {
+
+    public enum Tabela { TAREFAS, CLIENTES, USERS }
+
+    // Navegador guarda, mas revalida sempre (o no-store padrão do Spring Security impediria o 304)
+    public static final CacheControl REVALIDAR = CacheControl.noCache().cachePrivate();
+
+    // Prefixo por processo: após um restart os contadores recomeçam e ETags antigos não podem casar
+    private final String epoca = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLongArray versoes = new AtomicLongArray(Tabela.values().length);
+
+    public long versao(Tabela tabela) {
+        return versoes.get(tabela.ordinal());
+    }
+
+    // Incrementa quando a transação atual terminar (ou já, se não houver transação)
+    public void alterou(Tabela tabela) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    versoes.incrementAndGet(tabela.ordinal());
+                }
+            });
+        } else {
+            versoes.incrementAndGet(tabela.ordinal());
+        }
+    }
+
+    // ETag forte: recurso + versões das tabelas de que a resposta depende
+    public String etag(String recurso, Tabela... tabelas) {
+        StringBuilder sb = new StringBuilder("\"").append(recurso).append('-').append(epoca);
+        for (Tabela tabela : tabelas) {
+            sb.append('-').append(versao(tabela));
+        }
+        return sb.append('"').toString();
+    }
+
+    // 304 pronto se o If-None-Match bate com o ETag; null se a resposta precisa ser montada
+    public static <T> ResponseEntity<T> naoModificado(WebRequest request, String etag) {
+        if (!request.checkNotModified(etag)) return null;
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDAR).build();
+    }
+}
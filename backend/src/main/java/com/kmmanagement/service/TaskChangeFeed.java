@@ -0,0 +1,274 @@
+package com.kmmanagement.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kmmanagement.dto.TaskDTO;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Feed de alterações da agenda para o /tarefas/stream (SSE). Cada escrita em tarefas vira um
+ * evento compacto (upsert ou delete com o TaskDTO), publicado só depois do commit.
+ * Os últimos eventos ficam num buffer circular curto: quem reconecta com Last-Event-ID recebe
+ * apenas o que perdeu; se ficou para trás demais (ou o servidor reiniciou), recebe "reset" e
+ * recarrega o período. Cada assinante tem sua própria fila limitada, então um cliente lento
+ * nunca segura quem publica: se a fila dele enche, a conexão é encerrada e ele volta pelo
+ * Last-Event-ID.
+ */
+@Service
+public class TaskChangeFeed {
+
+    public static final String UPSERT = "upsert";
+    public static final String DELETE = "delete";
+    public static final String RESET = "reset";
+    public static final String READY = "ready";
+
+    private record Evento(String id, String tipo, String json) {}
+
+    // Marcador de heartbeat: vira um comentário SSE (mantém proxies abertos e detecta conexões mortas)
+    private static final Evento PING = new Evento(null, null, null);
+
+    private final ObjectMapper objectMapper;
+    private final long timeoutMs;
+    private final int capacidadeFila;
+    private final int maxAssinantes;
+
+    // Prefixo por processo: Last-Event-ID de antes de um restart não casa e vira reset
+    private final String epoca = Long.toString(System.currentTimeMillis(), 36);
+
+    // Buffer circular e sequência protegidos pelo lock; assinar e publicar passam por ele,
+    // então o replay de quem conecta nunca perde nem duplica um evento publicado ao mesmo tempo
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Evento[] recentes;
+    private long ultimoSeq;
+
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+    // O envio bloqueia no socket do cliente; uma virtual thread por drenagem não prende o pool de ninguém
+    private final ExecutorService envio = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("tarefas-sse-", 0).factory());
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("tarefas-sse-heartbeat").daemon(true).factory());
+
+    public TaskChangeFeed(
+            ObjectMapper objectMapper,
+            @Value("${tarefas.stream.buffer:512}") int tamanhoBuffer,
+            @Value("${tarefas.stream.subscriber-queue:256}") int capacidadeFila,
+            @Value("${tarefas.stream.max-subscribers:200}") int maxAssinantes,
+            @Value("${tarefas.stream.timeout-minutes:30}") long timeoutMinutos,
+            @Value("${tarefas.stream.heartbeat-seconds:20}") long heartbeatSegundos) {
+        this.objectMapper = objectMapper;
+        this.recentes = new Evento[tamanhoBuffer];
+        this.capacidadeFila = capacidadeFila;
+        this.maxAssinantes = maxAssinantes;
+        this.timeoutMs = TimeUnit.MINUTES.toMillis(timeoutMinutos);
+        heartbeat.scheduleAtFixedRate(this::ping, heartbeatSegundos, heartbeatSegundos, TimeUnit.SECONDS);
+    }
+
+    // Publica quando a transação atual fizer commit (ou já, se não houver transação); rollback não gera evento
+    public void publicar(String tipo, TaskDTO tarefa) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(tarefa);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        aposCommit(tipo, json);
+    }
+
+    // Mudança que não cabe em um evento de tarefa (ex.: regra de recorrência): a agenda recarrega o período
+    public void publicarRecarga() {
+        aposCommit(RESET, "{}");
+    }
+
+    private void aposCommit(String tipo, String json) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    distribuir(tipo, json);
+                }
+            });
+        } else {
+            distribuir(tipo, json);
+        }
+    }
+
+    private void distribuir(String tipo, String json) {
+        lock.lock();
+        try {
+            long seq = ++ultimoSeq;
+            Evento evento = new Evento(id(seq), tipo, json);
+            recentes[(int) (seq % recentes.length)] = evento;
+            for (Assinante a : assinantes) {
+                a.oferecer(evento);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public SseEmitter assinar(String lastEventId) {
+        if (assinantes.size() >= maxAssinantes) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Limite de conexões da agenda atingido.");
+        }
+        Assinante assinante = new Assinante(novoEmitter());
+        lock.lock();
+        try {
+            List<Evento> perdidos = lastEventId == null || lastEventId.isBlank() ? null : perdidosDesde(lastEventId);
+            if (lastEventId == null || lastEventId.isBlank()) {
+                // Conexão nova: só informa a posição atual, para a primeira reconexão já ter Last-Event-ID
+                assinante.fila.offer(new Evento(id(ultimoSeq), READY, "{}"));
+            } else if (perdidos == null || perdidos.size() >= capacidadeFila) {
+                assinante.fila.offer(new Evento(id(ultimoSeq), RESET, "{}"));
+            } else {
+                perdidos.forEach(assinante.fila::offer);
+            }
+            assinantes.add(assinante);
+        } finally {
+            lock.unlock();
+        }
+        assinante.agendar();
+        return assinante.emitter;
+    }
+
+    // Os testes trocam o emitter por um que grava (ou segura) os envios
+    SseEmitter novoEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    public int assinantes() {
+        return assinantes.size();
+    }
+
+    // Eventos depois do id informado; null se o id não é deste processo ou já saiu do buffer
+    private List<Evento> perdidosDesde(String lastEventId) {
+        int traco = lastEventId.lastIndexOf('-');
+        if (traco < 0 || !lastEventId.substring(0, traco).equals(epoca)) return null;
+        long seq;
+        try {
+            seq = Long.parseLong(lastEventId.substring(traco + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (seq < 0 || seq > ultimoSeq || ultimoSeq - seq > recentes.length) return null;
+
+        List<Evento> perdidos = new ArrayList<>((int) (ultimoSeq - seq));
+        for (long s = seq + 1; s <= ultimoSeq; s++) {
+            perdidos.add(recentes[(int) (s % recentes.length)]);
+        }
+        return perdidos;
+    }
+
+    private String id(long seq) {
+        return epoca + "-" + seq;
+    }
+
+    private void ping() {
+        for (Assinante a : assinantes) {
+            // Fila cheia já tem o que enviar; heartbeat não derruba ninguém
+            if (a.fila.offer(PING)) a.agendar();
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        heartbeat.shutdownNow();
+        for (Assinante a : assinantes) {
+            a.encerrar();
+        }
+        envio.shutdownNow();
+    }
+
+    /** Uma conexão SSE: fila limitada drenada por no máximo uma tarefa de envio por vez. */
+    private final class Assinante {
+        final SseEmitter emitter;
+        final ArrayBlockingQueue<Evento> fila = new ArrayBlockingQueue<>(capacidadeFila);
+        final AtomicBoolean agendado = new AtomicBoolean();
+        volatile boolean encerrado;
+
+        Assinante(SseEmitter emitter) {
+            this.emitter = emitter;
+            emitter.onCompletion(this::remover);
+            emitter.onTimeout(this::encerrar);
+            emitter.onError(e -> remover());
+        }
+
+        void oferecer(Evento evento) {
+            if (encerrado) return;
+            if (!fila.offer(evento)) {
+                // Ficou para trás: desconecta; a reconexão pede o que falta (ou recebe reset)
+                encerrar();
+                return;
+            }
+            agendar();
+        }
+
+        void agendar() {
+            if (!encerrado && agendado.compareAndSet(false, true)) {
+                try {
+                    envio.execute(this::drenar);
+                } catch (RuntimeException e) {
+                    agendado.set(false);
+                }
+            }
+        }
+
+        private void drenar() {
+            try {
+                for (Evento e; !encerrado && (e = fila.poll()) != null; ) {
+                    enviar(e);
+                }
+            } catch (IOException | RuntimeException e) {
+                encerrar();
+            } finally {
+                agendado.set(false);
+            }
+            // Algo pode ter chegado entre o último poll e a liberação do agendamento
+            if (!fila.isEmpty()) agendar();
+        }
+
+        private void enviar(Evento e) throws IOException {
+            if (e == PING) {
+                emitter.send(SseEmitter.event().comment("ping"));
+            } else {
+                emitter.send(SseEmitter.event().id(e.id()).name(e.tipo()).data(e.json()));
+            }
+        }
+
+        void encerrar() {
+            if (encerrado) return;
+            remover();
+            try {
+                emitter.complete();
+            } catch (RuntimeException ignored) {
+                // Conexão já fechada pelo cliente
+            }
+        }
+
+        private void remover() {
+            encerrado = true;
+            assinantes.remove(this);
+            fila.clear();
+        }
+    }
+}
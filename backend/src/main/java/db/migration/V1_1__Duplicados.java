@@ -0,0 +1,104 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Confere, antes dos índices únicos da V2, se o banco já tem horários ou e-mails repetidos (a corrida
+ * que esses índices fecham já aconteceu em produção). Havendo, a migração falha com a lista dos ids e
+ * nada é alterado. Apagar linhas vivas é decisão do operador: com spring.flyway.placeholders.duplicados=mover
+ * as linhas de maior id são copiadas para tarefas_conflitantes / users_duplicados e só então removidas.
+ */
+public class V1_1__Duplicados extends BaseJavaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(V1_1__Duplicados.class);
+
+    static final String PLACEHOLDER = "duplicados";
+    static final String MOVER = "mover";
+
+    // Grupos listados no relatório; o resto vira "... e mais N"
+    private static final int MAX_GRUPOS = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection conexao = context.getConnection();
+        Map<String, List<Long>> horarios = repetidos(conexao, "tarefas", "data_servico");
+        Map<String, List<Long>> emails = repetidos(conexao, "users", "email");
+        if (horarios.isEmpty() && emails.isEmpty()) return;
+
+        String decisao = context.getConfiguration().getPlaceholders().get(PLACEHOLDER);
+        if (!MOVER.equals(decisao)) {
+            throw new FlywayException(relatorio(horarios, emails));
+        }
+
+        try (Statement st = conexao.createStatement()) {
+            // Fica a linha de menor id; as demais vão para as tabelas de revisão (cópias integrais)
+            st.execute("""
+                    CREATE TABLE tarefas_conflitantes AS
+                    SELECT t.* FROM tarefas t
+                    WHERE t.data_servico IS NOT NULL
+                      AND EXISTS (SELECT 1 FROM tarefas o WHERE o.data_servico = t.data_servico AND o.id < t.id)""");
+            int tarefas = st.executeUpdate("DELETE FROM tarefas WHERE id IN (SELECT id FROM tarefas_conflitantes)");
+
+            // No MySQL a comparação de e-mail segue a collation da coluna, a mesma do índice único
+            st.execute("""
+                    CREATE TABLE users_duplicados AS
+                    SELECT u.* FROM users u
+                    WHERE u.email IS NOT NULL
+                      AND EXISTS (SELECT 1 FROM users o WHERE o.email = u.email AND o.id < u.id)""");
+            int users = st.executeUpdate("DELETE FROM users WHERE id IN (SELECT id FROM users_duplicados)");
+
+            log.warn("{} tarefas movidas para tarefas_conflitantes e {} usuários para users_duplicados", tarefas, users);
+        }
+    }
+
+    // Valor repetido -> ids em ordem crescente (o primeiro é o que fica)
+    private static Map<String, List<Long>> repetidos(Connection conexao, String tabela, String coluna) throws SQLException {
+        Map<String, List<Long>> grupos = new LinkedHashMap<>();
+        String sql = "SELECT " + coluna + ", id FROM " + tabela + " WHERE " + coluna + " IN ("
+                + "SELECT " + coluna + " FROM " + tabela + " WHERE " + coluna + " IS NOT NULL"
+                + " GROUP BY " + coluna + " HAVING COUNT(*) > 1) ORDER BY " + coluna + ", id";
+        try (Statement st = conexao.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) {
+                grupos.computeIfAbsent(rs.getString(1), k -> new ArrayList<>()).add(rs.getLong(2));
+            }
+        }
+        return grupos;
+    }
+
+    private static String relatorio(Map<String, List<Long>> horarios, Map<String, List<Long>> emails) {
+        StringBuilder texto = new StringBuilder("O banco tem registros que os índices únicos da V2 recusariam; nada foi alterado.");
+        secao(texto, "Horários com mais de um agendamento (tarefas.id)", horarios);
+        secao(texto, "E-mails com mais de um cadastro (users.id)", emails);
+        texto.append("\nRemarque/mescle esses registros à mão, ou suba com spring.flyway.placeholders.")
+                .append(PLACEHOLDER).append('=').append(MOVER)
+                .append(" para mover os de maior id para tarefas_conflitantes / users_duplicados.")
+                .append(" No MySQL, rode flyway repair antes da nova tentativa.");
+        return texto.toString();
+    }
+
+    private static void secao(StringBuilder texto, String titulo, Map<String, List<Long>> grupos) {
+        if (grupos.isEmpty()) return;
+        texto.append('\n').append(titulo).append(':');
+        int listados = 0;
+        for (Map.Entry<String, List<Long>> g : grupos.entrySet()) {
+            if (listados++ == MAX_GRUPOS) {
+                texto.append("\n  ... e mais ").append(grupos.size() - MAX_GRUPOS);
+                break;
+            }
+            texto.append("\n  ").append(g.getKey()).append(": ").append(g.getValue());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+-- Esquema que o Hibernate criava com ddl-auto=update.
+-- IF NOT EXISTS: bancos já existentes passam por aqui sem alteração.
+
+CREATE TABLE IF NOT EXISTS clientes (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    nome VARCHAR(255) NOT NULL,
+    telefone VARCHAR(255) NOT NULL,
+    endereco VARCHAR(255) NOT NULL,
+    email VARCHAR(255),
+    notas VARCHAR(1000),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255),
+    email VARCHAR(255),
+    password VARCHAR(255),
+    role VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS tarefas (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    titulo VARCHAR(255) NOT NULL,
+    descricao VARCHAR(255),
+    status VARCHAR(255) NOT NULL,
+    prioridade INTEGER,
+    cliente_id BIGINT,
+    data_servico DATETIME(6),
+    criado_por VARCHAR(255),
+    valor_pago DOUBLE,
+    valor_total DOUBLE,
+    quantidade_pessoas INTEGER,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_tarefas_cliente FOREIGN KEY (cliente_id) REFERENCES clientes (id)
+);
+
+CREATE TABLE IF NOT EXISTS dashboard_diario (
+    dia DATE NOT NULL,
+    total_agendamentos BIGINT NOT NULL,
+    clientes_novos BIGINT NOT NULL,
+    clientes_recorrentes BIGINT NOT NULL,
+    valor_esperado DOUBLE NOT NULL,
+    valor_recebido DOUBLE NOT NULL,
+    valor_a_pagar DOUBLE NOT NULL,
+    PRIMARY KEY (dia)
+);
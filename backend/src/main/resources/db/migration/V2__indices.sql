@@ -0,0 +1,15 @@
+-- Índices casados com as consultas reais do TaskRepository / UserRepository.
+
+-- Horários e e-mails repetidos já foram conferidos (e, por decisão do operador, movidos) na V1_1__Duplicados
+
+-- Um agendamento por horário (backstop do SlotOccupancyIndex); também serve às buscas por data
+CREATE UNIQUE INDEX uk_tarefas_data_servico ON tarefas (data_servico);
+
+-- Dashboard e listagem por período: intervalo em data_servico filtrando cliente_id
+CREATE INDEX idx_tarefas_data_cliente ON tarefas (data_servico, cliente_id);
+
+-- Histórico de um cliente (findByClienteId, filtro clienteId da listagem), ordenado por data
+CREATE INDEX idx_tarefas_cliente_data ON tarefas (cliente_id, data_servico);
+
+-- Login e SecurityFilter (findByEmail)
+CREATE UNIQUE INDEX uk_users_email ON users (email);
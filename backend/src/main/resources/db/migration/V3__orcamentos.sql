@@ -0,0 +1,29 @@
+-- Orçamentos gerados no servidor: cabeçalho com totais e itens (serviços e equipamentos).
+-- Itens de serviço podem apontar para a tarefa de origem; a descrição é copiada para o orçamento
+-- continuar legível se a tarefa for excluída.
+
+CREATE TABLE orcamentos (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    cliente_id BIGINT NOT NULL,
+    criado_em DATETIME(6) NOT NULL,
+    criado_por VARCHAR(255),
+    total_servicos DOUBLE NOT NULL,
+    total_equipamentos DOUBLE NOT NULL,
+    total_geral DOUBLE NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_orcamentos_cliente FOREIGN KEY (cliente_id) REFERENCES clientes (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_orcamentos_cliente_criado ON orcamentos (cliente_id, criado_em);
+
+CREATE TABLE orcamento_itens (
+    orcamento_id BIGINT NOT NULL,
+    posicao INTEGER NOT NULL,
+    tipo VARCHAR(20) NOT NULL,
+    descricao VARCHAR(1000) NOT NULL,
+    valor DOUBLE NOT NULL,
+    tarefa_id BIGINT,
+    PRIMARY KEY (orcamento_id, posicao),
+    CONSTRAINT fk_orcamento_itens_orcamento FOREIGN KEY (orcamento_id) REFERENCES orcamentos (id) ON DELETE CASCADE,
+    CONSTRAINT fk_orcamento_itens_tarefa FOREIGN KEY (tarefa_id) REFERENCES tarefas (id) ON DELETE SET NULL
+);
@@ -0,0 +1,13 @@
+-- Ids de tarefas passam a vir de um gerador em tabela, reservados em blocos de 50 (otimizador
+-- pooled do Hibernate), em vez do AUTO_INCREMENT: com IDENTITY o Hibernate precisa de um INSERT
+-- por vez para descobrir o id e não consegue agrupar os INSERTs em lote.
+CREATE TABLE id_geradores (
+    sequencia VARCHAR(64) NOT NULL,
+    proximo BIGINT NOT NULL,
+    PRIMARY KEY (sequencia)
+);
+
+-- Começa acima do maior id existente com folga de um bloco: o otimizador pooled entrega ids
+-- até (bloco - 1) abaixo do valor lido da tabela
+INSERT INTO id_geradores (sequencia, proximo)
+SELECT 'tarefas', COALESCE(MAX(id), 0) + 100 FROM tarefas;
@@ -0,0 +1,31 @@
+-- Regras de recorrência (cliente fixo no mesmo horário toda semana). As ocorrências não viram
+-- linhas em tarefas: são expandidas sob demanda na janela consultada. Uma ocorrência só vira
+-- tarefa quando é editada ou paga; a data dela entra em recorrencia_excecoes.
+CREATE TABLE recorrencias (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    cliente_id BIGINT NOT NULL,
+    dia_semana INTEGER NOT NULL,
+    hora TIME NOT NULL,
+    inicio DATE NOT NULL,
+    fim DATE NOT NULL,
+    titulo VARCHAR(255) NOT NULL,
+    descricao VARCHAR(255),
+    status VARCHAR(255) NOT NULL,
+    prioridade INTEGER,
+    valor_pago DOUBLE,
+    valor_total DOUBLE,
+    quantidade_pessoas INTEGER,
+    criado_por VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_recorrencias_cliente FOREIGN KEY (cliente_id) REFERENCES clientes (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_recorrencias_cliente ON recorrencias (cliente_id);
+
+-- Datas puladas ou já materializadas em tarefas
+CREATE TABLE recorrencia_excecoes (
+    recorrencia_id BIGINT NOT NULL,
+    dia DATE NOT NULL,
+    PRIMARY KEY (recorrencia_id, dia),
+    CONSTRAINT fk_recorrencia_excecoes FOREIGN KEY (recorrencia_id) REFERENCES recorrencias (id) ON DELETE CASCADE
+);
@@ -0,0 +1,29 @@
+-- Valores monetários passam de DOUBLE (reais) para BIGINT (centavos): somas exatas no banco e
+-- no Java (DinheiroConverter). Cada coluna é convertida no lugar: primeiro o valor vira o número
+-- de centavos arredondado, depois o tipo muda (o valor já é inteiro, não há perda).
+-- MODIFY repete NOT NULL onde existia, senão o MySQL tira a restrição.
+
+UPDATE tarefas SET valor_pago = ROUND(valor_pago * 100), valor_total = ROUND(valor_total * 100);
+ALTER TABLE tarefas MODIFY COLUMN valor_pago BIGINT;
+ALTER TABLE tarefas MODIFY COLUMN valor_total BIGINT;
+
+UPDATE recorrencias SET valor_pago = ROUND(valor_pago * 100), valor_total = ROUND(valor_total * 100);
+ALTER TABLE recorrencias MODIFY COLUMN valor_pago BIGINT;
+ALTER TABLE recorrencias MODIFY COLUMN valor_total BIGINT;
+
+UPDATE orcamentos SET total_servicos = ROUND(total_servicos * 100),
+                      total_equipamentos = ROUND(total_equipamentos * 100),
+                      total_geral = ROUND(total_geral * 100);
+ALTER TABLE orcamentos MODIFY COLUMN total_servicos BIGINT NOT NULL;
+ALTER TABLE orcamentos MODIFY COLUMN total_equipamentos BIGINT NOT NULL;
+ALTER TABLE orcamentos MODIFY COLUMN total_geral BIGINT NOT NULL;
+
+UPDATE orcamento_itens SET valor = ROUND(valor * 100);
+ALTER TABLE orcamento_itens MODIFY COLUMN valor BIGINT NOT NULL;
+
+-- O rollup guardava somas acumuladas em double (com erro de arredondamento): zera e deixa o
+-- DashboardRollupService reconstruir a partir de tarefas na subida (tabela vazia)
+DELETE FROM dashboard_diario;
+ALTER TABLE dashboard_diario MODIFY COLUMN valor_esperado BIGINT NOT NULL;
+ALTER TABLE dashboard_diario MODIFY COLUMN valor_recebido BIGINT NOT NULL;
+ALTER TABLE dashboard_diario MODIFY COLUMN valor_a_pagar BIGINT NOT NULL;
@@ -0,0 +1,33 @@
+-- Status e tipo de cliente viram enums (StatusTarefa, TipoCliente) gravados como código TINYINT.
+-- Status: normaliza os valores antigos em texto livre ("pago", "A pagar", " PAGO ") para o código;
+-- o que não é reconhecido vira FINALIZADO (3), que já não entrava em nenhum total do dashboard.
+-- 1 = A_PAGAR, 2 = PAGO, 3 = FINALIZADO
+
+UPDATE tarefas SET status = CASE UPPER(TRIM(status))
+        WHEN 'A_PAGAR' THEN '1'
+        WHEN 'A PAGAR' THEN '1'
+        WHEN 'PAGO' THEN '2'
+        ELSE '3'
+    END;
+ALTER TABLE tarefas MODIFY COLUMN status TINYINT NOT NULL;
+
+UPDATE recorrencias SET status = CASE UPPER(TRIM(status))
+        WHEN 'A_PAGAR' THEN '1'
+        WHEN 'A PAGAR' THEN '1'
+        WHEN 'PAGO' THEN '2'
+        ELSE '3'
+    END;
+ALTER TABLE recorrencias MODIFY COLUMN status TINYINT NOT NULL;
+
+-- Prioridade (tipo de cliente): 1 = NOVO, 2 = RECORRENTE; qualquer outro número vira "não informado"
+UPDATE tarefas SET prioridade = NULL WHERE prioridade NOT IN (1, 2);
+ALTER TABLE tarefas MODIFY COLUMN prioridade TINYINT;
+
+UPDATE recorrencias SET prioridade = NULL WHERE prioridade NOT IN (1, 2);
+ALTER TABLE recorrencias MODIFY COLUMN prioridade TINYINT;
+
+-- Listagem filtrada por status dentro de um período
+CREATE INDEX idx_tarefas_status_data ON tarefas (status, data_servico);
+
+-- Status fora do padrão podem ter sido somados de outro jeito pelo rollup: reconstrói na subida
+DELETE FROM dashboard_diario;
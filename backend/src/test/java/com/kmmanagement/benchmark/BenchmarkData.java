@@ -0,0 +1,83 @@
+package com.kmmanagement.benchmark;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.kmmanagement.dto.TaskDTO;
+import com.kmmanagement.model.Cliente;
+import com.kmmanagement.model.Dinheiro;
+import com.kmmanagement.model.StatusTarefa;
+import com.kmmanagement.model.Task;
+import com.kmmanagement.model.TipoCliente;
+
+/**
+ * Massa sintética para os benchmarks: clientes com notas longas e tarefas espalhadas
+ * pela grade da agenda, com a mistura de status/prioridade/valores vista em produção.
+ * Semente fixa para os resultados serem comparáveis entre execuções.
+ */
+public final class BenchmarkData {
+
+    private static final DateTimeFormatter FORMATO_FRONT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+    private static final String[] NOMES = {"Ana", "Bruno", "Carla", "Diego", "Élida", "Fábio", "Gisele", "Heitor", "Íris", "João"};
+    private static final String[] SOBRENOMES = {"Silva", "Souza", "Conceição", "Araújo", "Gonçalves", "Lima", "Pereira", "Ribeiro"};
+
+    private BenchmarkData() {}
+
+    public static List<Cliente> clientes(int quantidade) {
+        Random random = new Random(7);
+        List<Cliente> clientes = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            Cliente c = new Cliente();
+            c.setId((long) i + 1);
+            c.setNome(NOMES[random.nextInt(NOMES.length)] + " " + SOBRENOMES[random.nextInt(SOBRENOMES.length)]);
+            c.setTelefone(String.format("(11) 9%04d-%04d", random.nextInt(10_000), random.nextInt(10_000)));
+            c.setEndereco("Rua " + (i % 300) + ", " + random.nextInt(2000) + " - São Paulo");
+            c.setEmail(random.nextBoolean() ? "cliente" + i + "@mail.com" : null);
+            c.setNotas("Observações do cliente ".repeat(30));
+            clientes.add(c);
+        }
+        return clientes;
+    }
+
+    public static List<Task> tarefas(int quantidade, List<Cliente> clientes) {
+        Random random = new Random(11);
+        LocalDateTime inicio = LocalDateTime.of(2025, 1, 1, 15, 0);
+        List<Task> tarefas = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            Task t = new Task();
+            t.setId((long) i + 1);
+            t.setTitulo("Bateria");
+            t.setDescricao(random.nextInt(3) == 0 ? null : "Aniversário, levar capacetes extras");
+            t.setStatus(random.nextInt(3) == 0 ? StatusTarefa.A_PAGAR : StatusTarefa.PAGO);
+            t.setTipoCliente(TipoCliente.deCodigo(1 + random.nextInt(2)));
+            t.setCliente(random.nextInt(20) == 0 ? null : clientes.get(random.nextInt(clientes.size())));
+            // 14 horários por dia, de 30 em 30 minutos
+            t.setDataServico(inicio.plusDays(i / 14).plusMinutes(30L * (i % 14)));
+            t.setCriadoPor("Recepção");
+            int qtd = 1 + random.nextInt(12);
+            double unitario = 60 + random.nextInt(80) + (random.nextBoolean() ? 0.5 : 0.0);
+            t.setQuantidadePessoas(qtd);
+            t.setValorPago(random.nextInt(10) == 0 ? null : Dinheiro.deReais(unitario));
+            t.setValorTotal(Dinheiro.deReais(unitario * qtd));
+            tarefas.add(t);
+        }
+        return tarefas;
+    }
+
+    // DTOs como o front envia: data no formato do input datetime-local ("T" no meio)
+    public static List<TaskDTO> dtosDeEntrada(List<Task> tarefas) {
+        List<TaskDTO> dtos = new ArrayList<>(tarefas.size());
+        for (Task t : tarefas) {
+            Cliente c = t.getCliente();
+            dtos.add(new TaskDTO(null, t.getTitulo(), t.getDescricao(), t.getStatus().name(),
+                    TipoCliente.codigo(t.getTipoCliente()),
+                    c != null ? c.getId() : null, null, null,
+                    t.getDataServico().format(FORMATO_FRONT), null,
+                    Dinheiro.emReais(t.getValorPago()), Dinheiro.emReais(t.getValorTotal()), t.getQuantidadePessoas()));
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,63 @@
+package com.kmmanagement.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kmmanagement.dto.ClienteDTO;
+import com.kmmanagement.service.ClienteSearchIndex;
+
+/**
+ * Busca de clientes com 100 mil cadastros: "indice" é o /clientes/search (trigramas + top-k);
+ * "filtro" é o que as telas faziam no navegador a cada tecla (toLowerCase().includes em todos).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClienteSearchBenchmark {
+
+    @Param({"joao", "conceicao", "gonçalves ribeiro", "(11) 9123", "rua 12"})
+    public String consulta;
+
+    private ClienteSearchIndex indice;
+    private List<ClienteDTO> clientes;
+
+    @Setup
+    public void setup() {
+        clientes = BenchmarkData.clientes(100_000).stream()
+                .map(c -> new ClienteDTO(c.getId(), c.getNome(), c.getTelefone(), c.getEndereco(), c.getEmail(), null))
+                .toList();
+        indice = new ClienteSearchIndex();
+        clientes.forEach(indice::indexar);
+    }
+
+    @Benchmark
+    public List<ClienteDTO> indice() {
+        return indice.buscar(consulta, 10);
+    }
+
+    @Benchmark
+    public List<ClienteDTO> filtro() {
+        String termo = consulta.toLowerCase();
+        return clientes.stream()
+                .filter(c -> c.getNome().toLowerCase().contains(termo)
+                        || c.getTelefone().toLowerCase().contains(termo)
+                        || (c.getEmail() != null && c.getEmail().toLowerCase().contains(termo))
+                        || c.getEndereco().toLowerCase().contains(termo))
+                .toList();
+    }
+}
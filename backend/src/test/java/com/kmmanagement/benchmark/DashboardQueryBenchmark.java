@@ -0,0 +1,112 @@
+package com.kmmanagement.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.kmmanagement.KmManagementApplication;
+import com.kmmanagement.dto.DashboardAggregate;
+import com.kmmanagement.dto.DashboardDiaGrupo;
+import com.kmmanagement.model.Cliente;
+import com.kmmanagement.model.Task;
+import com.kmmanagement.repository.ClienteRepository;
+import com.kmmanagement.repository.TaskRepository;
+import com.kmmanagement.service.DashboardRollupService;
+import com.kmmanagement.service.DashboardRollupService.Contribuicao;
+
+/**
+ * Dashboard de um período contra o banco (H2 em modo MySQL, aplicação inteira no ar):
+ * "entidades" é o caminho antigo (carrega as tarefas do período e reduz em memória);
+ * "agrupadoPorDia" é a agregação no banco que alimenta o rollup (reconstruir/verificar);
+ * "rollup" é o caminho atual do GET /tarefas/dashboard (soma das linhas de dashboard_diario).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashboardQueryBenchmark {
+
+    @Param({"1000", "15000"})
+    public int tarefas;
+
+    private ConfigurableApplicationContext app;
+    private TaskRepository taskRepository;
+    private DashboardRollupService rollupService;
+    private LocalDateTime inicio;
+    private LocalDateTime fim;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        app = new SpringApplicationBuilder(KmManagementApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:dashboard_" + tarefas + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN")
+                .run();
+        taskRepository = app.getBean(TaskRepository.class);
+        rollupService = app.getBean(DashboardRollupService.class);
+
+        // Ids saem do banco: a massa sintética vem com ids fixos para os benchmarks em memória
+        List<Cliente> clientes = BenchmarkData.clientes(300);
+        clientes.forEach(c -> c.setId(null));
+        clientes = app.getBean(ClienteRepository.class).saveAll(clientes);
+        List<Task> massa = BenchmarkData.tarefas(tarefas, clientes);
+        massa.forEach(t -> t.setId(null));
+        taskRepository.saveAll(massa);
+        rollupService.reconstruir();
+
+        inicio = massa.get(0).getDataServico().toLocalDate().atStartOfDay();
+        fim = LocalDateTime.of(massa.get(massa.size() - 1).getDataServico().toLocalDate(), LocalTime.MAX);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public Contribuicao entidades() {
+        Contribuicao soma = new Contribuicao(null, 0, 0, 0, 0, 0, 0);
+        for (Task t : taskRepository.findByDataServicoBetween(inicio, fim)) {
+            Contribuicao c = Contribuicao.de(t);
+            if (c != null) soma = soma.mais(c);
+        }
+        return soma;
+    }
+
+    @Benchmark
+    public Contribuicao agrupadoPorDia() {
+        Contribuicao soma = new Contribuicao(null, 0, 0, 0, 0, 0, 0);
+        LocalDate de = inicio.toLocalDate();
+        LocalDate ate = fim.toLocalDate();
+        for (DashboardDiaGrupo g : taskRepository.aggregateDashboardPorDia()) {
+            if (!g.getDia().isBefore(de) && !g.getDia().isAfter(ate)) soma = soma.mais(Contribuicao.de(g.getDia(), g));
+        }
+        return soma;
+    }
+
+    @Benchmark
+    public DashboardAggregate rollup() {
+        return rollupService.somarPeriodo(inicio.toLocalDate(), fim.toLocalDate());
+    }
+}
@@ -0,0 +1,125 @@
+package com.kmmanagement.benchmark;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kmmanagement.dto.DashboardStatsDTO;
+import com.kmmanagement.model.Cliente;
+import com.kmmanagement.model.Dinheiro;
+import com.kmmanagement.model.Task;
+import com.kmmanagement.model.TipoCliente;
+import com.kmmanagement.service.DashboardRollupService.Contribuicao;
+
+/**
+ * Reduções do dashboard sobre tarefas já em memória:
+ * "streams" é o cálculo antigo do TaskController (cinco passadas com BigDecimal sobre Double);
+ * "contribuicoesDouble" é o rollup antes dos centavos (primitivos double, arredondados na saída);
+ * "contribuicoes" é o caminho atual (Contribuicao.de em centavos, switch sobre o enum de status, acumuladores long).
+ * Rodar com o profile benchmark (que liga -prof gc) e comparar gc.alloc.rate.norm (bytes/op).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DashboardReductionBenchmark {
+
+    // Forma antiga da entidade: valores em Double (já boxados, como vinham do Hibernate)
+    private record TarefaAntiga(Cliente cliente, String status, Integer prioridade, Double valorPago, Double valorTotal) {}
+
+    @Param({"500", "5000"})
+    public int tarefas;
+
+    private List<Task> periodo;
+    private List<TarefaAntiga> periodoAntigo;
+
+    @Setup
+    public void setup() {
+        periodo = BenchmarkData.tarefas(tarefas, BenchmarkData.clientes(300));
+        periodoAntigo = periodo.stream()
+                .map(t -> new TarefaAntiga(t.getCliente(), t.getStatus().name(),
+                        TipoCliente.codigo(t.getTipoCliente()),
+                        Dinheiro.emReais(t.getValorPago()), Dinheiro.emReais(t.getValorTotal())))
+                .toList();
+    }
+
+    @Benchmark
+    public DashboardStatsDTO streams() {
+        List<TarefaAntiga> comCliente = periodoAntigo.stream().filter(t -> t.cliente() != null).toList();
+
+        BigDecimal esperado = comCliente.stream()
+                .map(t -> t.valorTotal() != null ? BigDecimal.valueOf(t.valorTotal()) : BigDecimal.ZERO)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal recebido = comCliente.stream()
+                .map(t -> "PAGO".equalsIgnoreCase(t.status()) && t.valorPago() != null
+                        ? BigDecimal.valueOf(t.valorPago()) : BigDecimal.ZERO)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal aPagar = comCliente.stream()
+                .map(t -> {
+                    double total = t.valorTotal() != null ? t.valorTotal() : 0.0;
+                    double pago = t.valorPago() != null ? t.valorPago() : 0.0;
+                    if ("PAGO".equalsIgnoreCase(t.status())) return BigDecimal.valueOf(Math.max(0, total - pago));
+                    if ("A_PAGAR".equalsIgnoreCase(t.status())) return BigDecimal.valueOf(total);
+                    return BigDecimal.ZERO;
+                })
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        long novos = comCliente.stream().filter(t -> t.prioridade() != null && t.prioridade() == 1).count();
+        long recorrentes = comCliente.stream().filter(t -> t.prioridade() != null && t.prioridade() == 2).count();
+
+        return new DashboardStatsDTO(comCliente.size(), novos, recorrentes, esperado, recebido, aPagar);
+    }
+
+    @Benchmark
+    public DashboardStatsDTO contribuicoesDouble() {
+        long total = 0, novos = 0, recorrentes = 0;
+        double esperado = 0, recebido = 0, aPagar = 0;
+        for (TarefaAntiga t : periodoAntigo) {
+            if (t.cliente() == null) continue;
+            double valorTotal = t.valorTotal() != null ? t.valorTotal() : 0.0;
+            double pago = t.valorPago() != null ? t.valorPago() : 0.0;
+            total++;
+            if (t.prioridade() != null && t.prioridade() == 1) novos++;
+            if (t.prioridade() != null && t.prioridade() == 2) recorrentes++;
+            esperado += valorTotal;
+            if ("PAGO".equalsIgnoreCase(t.status())) {
+                recebido += pago;
+                aPagar += Math.max(0, valorTotal - pago);
+            } else if ("A_PAGAR".equalsIgnoreCase(t.status())) {
+                aPagar += valorTotal;
+            }
+        }
+        return new DashboardStatsDTO(total, novos, recorrentes,
+                BigDecimal.valueOf(esperado), BigDecimal.valueOf(recebido), BigDecimal.valueOf(aPagar));
+    }
+
+    @Benchmark
+    public DashboardStatsDTO contribuicoes() {
+        long total = 0, novos = 0, recorrentes = 0, esperado = 0, recebido = 0, aPagar = 0;
+        for (Task t : periodo) {
+            Contribuicao c = Contribuicao.de(t);
+            if (c == null) continue;
+            total += c.total();
+            novos += c.novos();
+            recorrentes += c.recorrentes();
+            esperado += c.esperado();
+            recebido += c.recebido();
+            aPagar += c.aPagar();
+        }
+        return new DashboardStatsDTO(total, novos, recorrentes,
+                Dinheiro.emBigDecimal(esperado), Dinheiro.emBigDecimal(recebido), Dinheiro.emBigDecimal(aPagar));
+    }
+}
@@ -0,0 +1,69 @@
+package com.kmmanagement.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.kmmanagement.dto.TaskDTO;
+import com.kmmanagement.model.Cliente;
+import com.kmmanagement.model.Dinheiro;
+import com.kmmanagement.model.Task;
+import com.kmmanagement.model.TipoCliente;
+
+/**
+ * Serialização Jackson do List&lt;TaskDTO&gt; devolvido por GET /tarefas,
+ * com um ObjectMapper montado como o do Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskJsonBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    public int tarefas;
+
+    private ObjectWriter writer;
+    private List<TaskDTO> dtos;
+
+    @Setup
+    public void setup() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, TaskDTO.class));
+
+        List<Task> entidades = BenchmarkData.tarefas(tarefas, BenchmarkData.clientes(300));
+        dtos = entidades.stream()
+                .map(t -> {
+                    Cliente c = t.getCliente();
+                    return new TaskDTO(t.getId(), t.getTitulo(), t.getDescricao(), t.getStatus().name(),
+                            TipoCliente.codigo(t.getTipoCliente()),
+                            c != null ? c.getId() : null, c != null ? c.getNome() : null,
+                            c != null ? c.getEndereco() : null, t.getDataServico().toString(),
+                            t.getCriadoPor(), Dinheiro.emReais(t.getValorPago()), Dinheiro.emReais(t.getValorTotal()),
+                            t.getQuantidadePessoas());
+                })
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serializarLista() throws JsonProcessingException {
+        return writer.writeValueAsBytes(dtos);
+    }
+}
@@ -0,0 +1,90 @@
+package com.kmmanagement.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * Sobe o servidor de verdade (porta da API e porta de gerência), gera tráfego e faz o scrape
+ * de /actuator/prometheus como o Prometheus faria: histograma por endpoint, pool do Hikari,
+ * comandos SQL por requisição e os contadores de conflito e de login.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+// Testes desligam a exportação de métricas por padrão: sem isto o endpoint prometheus nem existe
+@AutoConfigureObservability(tracing = false)
+class MetricsScrapeTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void scrapeExpoeMetricasDaApi() {
+        String email = "metricas-" + UUID.randomUUID() + "@kart.com";
+        ResponseEntity<String> registro = rest.postForEntity("/auth/register",
+                json("{\"name\":\"Métricas\",\"email\":\"" + email + "\",\"password\":\"senha\",\"token\":\"KART2025\"}", null),
+                String.class);
+        assertEquals(HttpStatus.OK, registro.getStatusCode());
+        String bearer = "Bearer " + JsonPath.read(registro.getBody(), "$.token");
+
+        ResponseEntity<String> login = rest.postForEntity("/auth/login",
+                json("{\"email\":\"" + email + "\",\"password\":\"errada\"}", null), String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, login.getStatusCode());
+
+        assertEquals(HttpStatus.OK, rest.exchange("/clientes", HttpMethod.GET, json(null, bearer), String.class)
+                .getStatusCode());
+
+        // Mesmo horário duas vezes: a segunda é um conflito
+        LocalDate dia = LocalDate.of(2046, 2, 1).with(TemporalAdjusters.nextOrSame(DayOfWeek.TUESDAY));
+        String tarefa = "{\"titulo\":\"Métricas\",\"status\":\"A_PAGAR\",\"dataServico\":\"" + dia + " 15:00\"}";
+        assertEquals(HttpStatus.OK, rest.postForEntity("/tarefas", json(tarefa, bearer), String.class).getStatusCode());
+        assertEquals(HttpStatus.CONFLICT, rest.postForEntity("/tarefas", json(tarefa, bearer), String.class).getStatusCode());
+
+        String scrape = rest.getForObject("http://localhost:" + managementPort + "/actuator/prometheus", String.class);
+
+        assertTrue(valor(scrape, "http_server_requests_seconds_bucket", "uri=\"/clientes\"") >= 1, scrape);
+        assertTrue(valor(scrape, "http_server_requests_seconds_count", "uri=\"/auth/login\"") >= 1, scrape);
+        assertTrue(valor(scrape, "hikaricp_connections_max", "pool=") > 0, scrape);
+        assertTrue(valor(scrape, "km_http_sql_statements_count", "uri=\"/tarefas\"") >= 2, scrape);
+        assertTrue(valor(scrape, "km_http_sql_statements_sum", "uri=\"/tarefas\"") >= 1, scrape);
+        assertTrue(valor(scrape, "km_login_falhas_total", "motivo=\"senha\"") >= 1, scrape);
+        assertTrue(valor(scrape, "km_agendamento_conflitos_total", "origem=\"criar\"") >= 1, scrape);
+    }
+
+    private static HttpEntity<String> json(String corpo, String bearer) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (bearer != null) headers.set(HttpHeaders.AUTHORIZATION, bearer);
+        return new HttpEntity<>(corpo, headers);
+    }
+
+    // Maior valor entre as séries da métrica que têm o rótulo (ex.: a série de cada bucket); -1 se não há nenhuma
+    private static double valor(String scrape, String metrica, String rotulo) {
+        return scrape.lines()
+                .filter(l -> l.startsWith(metrica + "{") && l.contains(rotulo))
+                .mapToDouble(l -> Double.parseDouble(l.substring(l.lastIndexOf(' ') + 1)))
+                .max()
+                .orElse(-1);
+    }
+}
@@ -0,0 +1,88 @@
+package com.kmmanagement.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * Orçamento de SQL: um laço de SELECTs (o formato de um N+1) estoura o limite e a violação traz o
+ * SQL repetido; com sql.lento.millis=0 todo comando é "lento" e o buffer do admin fica limitado.
+ */
+@SpringBootTest(properties = {"sql.lento.millis=0", "sql.lento.buffer=5"})
+@AutoConfigureMockMvc
+class SqlMonitorTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private SqlMonitor monitor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void nMaisUmEstouraOOrcamentoComOSqlRepetido() {
+        monitor.iniciar("GET /teste/poucos");
+        for (long id = 0; id < 3; id++) {
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM clientes WHERE id = ?", Long.class, id);
+        }
+        assertNull(monitor.encerrar("GET", "/teste/poucos"));
+
+        monitor.iniciar("GET /teste/n-mais-um");
+        for (long id = 0; id < 50; id++) {
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM clientes WHERE id = ?", Long.class, id);
+        }
+        String violacao = monitor.encerrar("GET", "/teste/n-mais-um");
+
+        assertNotNull(violacao);
+        assertTrue(violacao.contains("50 comandos"), violacao);
+        assertTrue(violacao.contains("50x") && violacao.contains("SELECT COUNT(*) FROM clientes WHERE id = ?"), violacao);
+    }
+
+    @Test
+    void lentosFicamNoBufferDoAdmin() throws Exception {
+        String admin = registrar("KART_MASTER_KEY");
+        String usuario = registrar("KART2025");
+        mvc.perform(get("/clientes").header(HttpHeaders.AUTHORIZATION, usuario)).andExpect(status().isOk());
+
+        String corpo = mvc.perform(get("/diagnostico/sql-lentos").header(HttpHeaders.AUTHORIZATION, admin))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(((Number) JsonPath.read(corpo, "$.total")).longValue() > 5, corpo);
+        List<Object> recentes = JsonPath.read(corpo, "$.recentes");
+        assertEquals(5, recentes.size());
+        assertNotNull(JsonPath.read(corpo, "$.recentes[0].sql"));
+
+        mvc.perform(get("/diagnostico/sql-lentos").header(HttpHeaders.AUTHORIZATION, usuario))
+                .andExpect(status().isForbidden());
+    }
+
+    private String registrar(String token) throws Exception {
+        String email = "sql-" + UUID.randomUUID() + "@kart.com";
+        String resposta = mvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Sql\",\"email\":\"" + email + "\",\"password\":\"senha\",\"token\":\"" + token + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return "Bearer " + JsonPath.read(resposta, "$.token");
+    }
+}
@@ -0,0 +1,157 @@
+package com.kmmanagement.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Resumo do cliente: totais com as regras de status do dashboard, tarefa sem data fora das visitas
+ * (mas nos valores), cliente sem tarefas zerado, e a página de /clientes?resumo=true montada em
+ * duas consultas, qualquer que seja o tamanho.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class ClienteResumoTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String bearer;
+    private long comTarefas;
+    private long semTarefas;
+    private LocalDate dia;
+
+    @BeforeEach
+    void preparar() throws Exception {
+        String email = "resumo-" + UUID.randomUUID() + "@kart.com";
+        String resposta = mvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Resumo\",\"email\":\"" + email + "\",\"password\":\"senha\",\"token\":\"KART2025\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        bearer = "Bearer " + JsonPath.read(resposta, "$.token");
+
+        comTarefas = criarCliente("Com tarefas");
+        semTarefas = criarCliente("Sem tarefas");
+
+        // Dia diferente por execução: data_servico é única no banco de testes compartilhado
+        dia = LocalDate.of(2047, 1, 1).plusWeeks(comTarefas % 500).with(TemporalAdjusters.nextOrSame(DayOfWeek.TUESDAY));
+        String lote = "["
+                + tarefa("PAGO", comTarefas, "15:00", 10, 30) + ","
+                + tarefa("A_PAGAR", comTarefas, "16:00", 5, 15) + ","
+                + tarefa("FINALIZADO", comTarefas, "17:00", 20, 20) + ","
+                + tarefa("A_PAGAR", null, "18:00", 0, 99)
+                + "]";
+        mvc.perform(post("/tarefas/batch")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(lote))
+                .andExpect(status().isOk());
+
+        // Ainda sem data: não é visita, mas o valor já é devido
+        mvc.perform(post("/tarefas")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"Sem data\",\"status\":\"A_PAGAR\",\"clienteId\":" + comTarefas
+                                + ",\"valorPago\":0.0,\"valorTotal\":12.0,\"quantidadePessoas\":1}"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void resumoSegueAsRegrasDoDashboard() throws Exception {
+        String resumo = getJson("/clientes/" + comTarefas + "/resumo");
+        assertEquals(3, ((Number) JsonPath.read(resumo, "$.visitas")).intValue());
+        assertEquals(dia + "T15:00:00", JsonPath.read(resumo, "$.primeiraVisita"));
+        assertEquals(dia + "T17:00:00", JsonPath.read(resumo, "$.ultimaVisita"));
+        assertReais("77.00", JsonPath.read(resumo, "$.faturado"));
+        assertReais("10.00", JsonPath.read(resumo, "$.pago"));
+        assertReais("47.00", JsonPath.read(resumo, "$.emAberto"));
+
+        String vazio = getJson("/clientes/" + semTarefas + "/resumo");
+        assertEquals(0, ((Number) JsonPath.read(vazio, "$.visitas")).intValue());
+        assertNull(JsonPath.read(vazio, "$.primeiraVisita"));
+        assertReais("0.00", JsonPath.read(vazio, "$.emAberto"));
+
+        mvc.perform(get("/clientes/" + Long.MAX_VALUE + "/resumo").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void paginaComResumoEmDuasConsultas() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        String url = "/clientes?resumo=true&limit=2&cursor=" + (comTarefas - 1);
+        String pagina = mvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        // Página e resumos; nada por cliente
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        assertEquals(comTarefas, ((Number) JsonPath.read(pagina, "$[0].id")).longValue());
+        assertEquals("Com tarefas", JsonPath.read(pagina, "$[0].nome"));
+        assertEquals(3, ((Number) JsonPath.read(pagina, "$[0].resumo.visitas")).intValue());
+        assertEquals(semTarefas, ((Number) JsonPath.read(pagina, "$[1].id")).longValue());
+        assertEquals(0, ((Number) JsonPath.read(pagina, "$[1].resumo.visitas")).intValue());
+
+        // Página de um: o cursor aponta para o último devolvido
+        String proxima = mvc.perform(get("/clientes?limit=1&cursor=" + (comTarefas - 1)).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(TaskController.NEXT_CURSOR_HEADER);
+        assertEquals(Long.toString(comTarefas), proxima);
+        mvc.perform(get("/clientes?cursor=abc").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isBadRequest());
+    }
+
+    private long criarCliente(String nome) throws Exception {
+        String cliente = mvc.perform(post("/clientes")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\":\"" + nome + "\",\"telefone\":\"85955554444\",\"endereco\":\"Rua 5\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return ((Number) JsonPath.read(cliente, "$.id")).longValue();
+    }
+
+    private String tarefa(String status, Long clienteId, String hora, double pago, double total) {
+        return "{\"titulo\":\"Resumo " + status + "\",\"status\":\"" + status + "\",\"prioridade\":1,\"clienteId\":" + clienteId
+                + ",\"dataServico\":\"" + dia + " " + hora + "\",\"valorPago\":" + pago + ",\"valorTotal\":" + total
+                + ",\"quantidadePessoas\":1}";
+    }
+
+    private String getJson(String url) throws Exception {
+        return mvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private static void assertReais(String esperado, Object valor) {
+        assertEquals(0, new BigDecimal(esperado).compareTo(new BigDecimal(valor.toString())), "valor: " + valor);
+    }
+}
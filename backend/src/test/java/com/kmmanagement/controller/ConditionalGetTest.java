@@ -0,0 +1,97 @@
+package com.kmmanagement.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * ETags das listagens: If-None-Match com a versão atual responde 304 sem nenhum SQL,
+ * e uma escrita na tabela troca o ETag.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class ConditionalGetTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String bearer;
+
+    @BeforeEach
+    void registrar() throws Exception {
+        String email = "etag-" + UUID.randomUUID() + "@kart.com";
+        String resposta = mvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"ETag\",\"email\":\"" + email + "\",\"password\":\"senha\",\"token\":\"KART2025\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        bearer = "Bearer " + JsonPath.read(resposta, "$.token");
+        // Primeira requisição autenticada carrega o principal no cache (um SELECT em users)
+        etagDe("/users");
+    }
+
+    @Test
+    void listagensInalteradasResponde304SemConsultarOBanco() throws Exception {
+        for (String url : new String[] {"/clientes", "/users", "/tarefas?from=2025-03-01T00:00:00&to=2025-03-31T23:59:59",
+                "/tarefas/dashboard?period=month&date=2025-03-10"}) {
+            String etag = etagDe(url);
+
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+            mvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, bearer).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified());
+            assertEquals(0, statistics.getPrepareStatementCount(), url);
+        }
+    }
+
+    @Test
+    void escritaEmClientesTrocaEtagDeClientesETarefas() throws Exception {
+        String clientes = etagDe("/clientes");
+        String tarefas = etagDe("/tarefas");
+        String dashboard = etagDe("/tarefas/dashboard");
+
+        mvc.perform(post("/clientes")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\":\"Cliente ETag\",\"telefone\":\"85999990000\",\"endereco\":\"Rua 1\"}"))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/clientes").header(HttpHeaders.AUTHORIZATION, bearer).header(HttpHeaders.IF_NONE_MATCH, clientes))
+                .andExpect(status().isOk());
+        assertNotEquals(clientes, etagDe("/clientes"));
+        assertNotEquals(tarefas, etagDe("/tarefas"));
+        // O dashboard só depende de tarefas
+        assertEquals(dashboard, etagDe("/tarefas/dashboard"));
+    }
+
+    private String etagDe(String url) throws Exception {
+        String etag = mvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag, url);
+        return etag;
+    }
+}
@@ -0,0 +1,169 @@
+package com.kmmanagement.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+import com.kmmanagement.model.DashboardDiario;
+import com.kmmanagement.repository.DashboardDiarioRepository;
+import com.kmmanagement.service.DashboardRollupService;
+
+/**
+ * Rollup do dashboard mantido por deltas (upsert ON DUPLICATE KEY UPDATE): depois de criar, editar,
+ * mover, excluir e gravar em lote, as linhas do dia batem com os valores esperados, com o que o
+ * reconstruir() calcula do zero e com o verificar(); com a tabela vazia, a subida reconstrói tudo.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class DashboardRollupTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private DashboardDiarioRepository rollupRepository;
+
+    @Autowired
+    private DashboardRollupService rollupService;
+
+    private String bearer;
+    private String admin;
+    private long clienteId;
+    private LocalDate terca;
+    private LocalDate quarta;
+
+    @BeforeEach
+    void preparar() throws Exception {
+        bearer = "Bearer " + JsonPath.read(registrar("KART2025"), "$.token");
+        admin = "Bearer " + JsonPath.read(registrar("KART_MASTER_KEY"), "$.token");
+
+        String cliente = mvc.perform(post("/clientes")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\":\"Rollup\",\"telefone\":\"85922221111\",\"endereco\":\"Rua 10\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        clienteId = ((Number) JsonPath.read(cliente, "$.id")).longValue();
+        // Dias diferentes por execução: data_servico é única no banco de testes compartilhado
+        terca = LocalDate.of(2049, 1, 1).plusWeeks(clienteId % 500).with(TemporalAdjusters.nextOrSame(DayOfWeek.TUESDAY));
+        quarta = terca.plusDays(1);
+    }
+
+    @Test
+    void deltasBatemComAReconstrucao() throws Exception {
+        long pago = criar(tarefa("PAGO", 1, clienteId, terca + " 15:00", 60.0, 100.0));
+        long movida = criar(tarefa("A_PAGAR", 2, clienteId, terca + " 16:00", 0.0, 50.0));
+        long excluida = criar(tarefa("FINALIZADO", null, clienteId, terca + " 17:00", 30.0, 30.0));
+        criar(tarefa("PAGO", 1, null, terca + " 18:00", 10.0, 10.0)); // sem cliente: fora do dashboard
+
+        // Segundo upsert na mesma linha do dia soma em cima do primeiro
+        assertEquals(List.of(3L, 1L, 1L, 18000L, 6000L, 9000L), linha(terca));
+
+        editar(pago, tarefa("A_PAGAR", 1, clienteId, terca + " 15:00", 60.0, 100.0));
+        editar(movida, tarefa("A_PAGAR", 2, clienteId, quarta + " 16:00", 0.0, 50.0));
+        mvc.perform(delete("/tarefas/" + excluida).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isNoContent());
+        mvc.perform(post("/tarefas/batch")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + tarefa("PAGO", 2, clienteId, quarta + " 17:00", 20.0, 20.0) + ","
+                                + tarefa("PAGO", 2, clienteId, quarta + " 18:00", 20.0, 20.0) + "]"))
+                .andExpect(status().isOk());
+
+        List<Long> diaTerca = List.of(1L, 1L, 0L, 10000L, 0L, 10000L);
+        List<Long> diaQuarta = List.of(3L, 0L, 3L, 9000L, 4000L, 5000L);
+        assertEquals(diaTerca, linha(terca));
+        assertEquals(diaQuarta, linha(quarta));
+
+        String dashboard = mvc.perform(get("/tarefas/dashboard?period=day&date=" + quarta)
+                        .header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(3, ((Number) JsonPath.read(dashboard, "$.totalAgendamentos")).intValue());
+        assertEquals(40.0, ((Number) JsonPath.read(dashboard, "$.valorRecebido")).doubleValue());
+
+        // Nenhum dia diverge da agregação direta sobre tarefas
+        String verificacao = mvc.perform(get("/tarefas/dashboard/rollup/check").header(HttpHeaders.AUTHORIZATION, admin))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(List.of(), JsonPath.read(verificacao, "$.diasDivergentes"));
+
+        // Reconstruído do zero, dá as mesmas linhas
+        mvc.perform(post("/tarefas/dashboard/rollup/rebuild").header(HttpHeaders.AUTHORIZATION, admin))
+                .andExpect(status().isOk());
+        assertEquals(diaTerca, linha(terca));
+        assertEquals(diaQuarta, linha(quarta));
+    }
+
+    @Test
+    void tabelaVaziaEhReconstruidaNaSubida() throws Exception {
+        criar(tarefa("PAGO", 1, clienteId, terca + " 15:00", 60.0, 100.0));
+        List<Long> antes = linha(terca);
+
+        rollupRepository.deleteAllInBatch();
+        rollupService.reconstruirSeVazio();
+
+        assertEquals(antes, linha(terca));
+        assertEquals(List.of(), rollupService.verificar().diasDivergentes());
+    }
+
+    // total, novos, recorrentes, esperado, recebido, a pagar (centavos)
+    private List<Long> linha(LocalDate dia) {
+        DashboardDiario d = rollupRepository.findById(dia).orElseThrow();
+        return List.of(d.getTotalAgendamentos(), d.getClientesNovos(), d.getClientesRecorrentes(),
+                d.getValorEsperado(), d.getValorRecebido(), d.getValorAPagar());
+    }
+
+    private static String tarefa(String status, Integer tipoCliente, Long cliente, String dataServico,
+                                 double valorPago, double valorTotal) {
+        return "{\"titulo\":\"Rollup\",\"status\":\"" + status + "\",\"prioridade\":" + tipoCliente
+                + ",\"clienteId\":" + cliente + ",\"dataServico\":\"" + dataServico + "\",\"valorPago\":" + valorPago
+                + ",\"valorTotal\":" + valorTotal + ",\"quantidadePessoas\":1}";
+    }
+
+    private long criar(String json) throws Exception {
+        String criada = mvc.perform(post("/tarefas")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return ((Number) JsonPath.read(criada, "$.id")).longValue();
+    }
+
+    private void editar(long id, String json) throws Exception {
+        mvc.perform(put("/tarefas/" + id)
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk());
+    }
+
+    private String registrar(String token) throws Exception {
+        String email = "rollup-" + UUID.randomUUID() + "@kart.com";
+        return mvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Rollup\",\"email\":\"" + email + "\",\"password\":\"senha\",\"token\":\"" + token + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
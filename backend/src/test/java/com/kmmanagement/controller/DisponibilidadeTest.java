@@ -0,0 +1,134 @@
+package com.kmmanagement.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * GET /tarefas/disponibilidade: segunda fechada, domingo só até 19:30, e os horários de tarefas
+ * e de ocorrências de recorrências saem dos livres e entram nos ocupados.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class DisponibilidadeTest {
+
+    private static final List<String> GRADE = List.of("15:00", "15:30", "16:00", "16:30", "17:00", "17:30", "18:00",
+            "18:30", "19:00", "19:30", "20:00", "20:30", "21:00", "21:30");
+
+    @Autowired
+    private MockMvc mvc;
+
+    private String bearer;
+    private long clienteId;
+    private LocalDate terca;
+
+    @BeforeEach
+    void preparar() throws Exception {
+        String email = "disponibilidade-" + UUID.randomUUID() + "@kart.com";
+        String resposta = mvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Disponivel\",\"email\":\"" + email + "\",\"password\":\"senha\",\"token\":\"KART2025\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        bearer = "Bearer " + JsonPath.read(resposta, "$.token");
+
+        String cliente = mvc.perform(post("/clientes")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\":\"Disponivel\",\"telefone\":\"85911110000\",\"endereco\":\"Rua 9\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        clienteId = ((Number) JsonPath.read(cliente, "$.id")).longValue();
+        // Uma semana diferente por execução: data_servico é única no banco de testes compartilhado
+        terca = LocalDate.of(2048, 1, 1).plusWeeks(clienteId % 500).with(TemporalAdjusters.nextOrSame(DayOfWeek.TUESDAY));
+    }
+
+    @Test
+    void semanaComTarefasERecorrencia() throws Exception {
+        criarTarefa(terca + " 15:00");
+        criarTarefa(terca + " 16:30");
+        LocalDate domingo = terca.plusDays(5);
+        mvc.perform(post("/recorrencias")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"clienteId\":" + clienteId + ",\"diaSemana\":7,\"hora\":\"18:00\",\"inicio\":\"" + terca
+                                + "\",\"fim\":\"" + domingo.plusWeeks(1) + "\",\"titulo\":\"Fixa\",\"status\":\"A_PAGAR\""
+                                + ",\"valorPago\":0.0,\"valorTotal\":100.0,\"quantidadePessoas\":1}"))
+                .andExpect(status().isOk());
+
+        // Segunda a domingo
+        String semana = mvc.perform(get("/tarefas/disponibilidade?from=" + terca.minusDays(1) + "&to=" + domingo)
+                        .header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(7, (int) JsonPath.read(semana, "$.length()"));
+
+        // Segunda: fechado, nem livre nem ocupado
+        assertEquals(terca.minusDays(1).toString(), JsonPath.read(semana, "$[0].dia"));
+        assertEquals(List.of(), JsonPath.read(semana, "$[0].livres"));
+        assertEquals(List.of(), JsonPath.read(semana, "$[0].ocupados"));
+
+        // Terça: as duas tarefas ocupam; o resto da grade está livre
+        assertEquals(List.of("15:00", "16:30"), JsonPath.read(semana, "$[1].ocupados"));
+        assertEquals(sem(GRADE, "15:00", "16:30"), JsonPath.read(semana, "$[1].livres"));
+
+        // Quarta a sábado: grade inteira livre
+        for (int i = 2; i <= 5; i++) {
+            assertEquals(GRADE, JsonPath.read(semana, "$[" + i + "].livres"));
+            assertEquals(List.of(), JsonPath.read(semana, "$[" + i + "].ocupados"));
+        }
+
+        // Domingo: só até 19:30, e a ocorrência da recorrência ocupa as 18:00
+        assertEquals(domingo.toString(), JsonPath.read(semana, "$[6].dia"));
+        assertEquals(List.of("18:00"), JsonPath.read(semana, "$[6].ocupados"));
+        assertEquals(sem(GRADE.subList(0, GRADE.indexOf("19:30") + 1), "18:00"), JsonPath.read(semana, "$[6].livres"));
+
+        // A regra é semanal: o domingo seguinte também vem ocupado
+        String seguinte = mvc.perform(get("/tarefas/disponibilidade?from=" + domingo.plusWeeks(1) + "&to=" + domingo.plusWeeks(1))
+                        .header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(List.of("18:00"), JsonPath.read(seguinte, "$[0].ocupados"));
+    }
+
+    @Test
+    void intervaloInvertidoEhRecusado() throws Exception {
+        mvc.perform(get("/tarefas/disponibilidade?from=" + terca + "&to=" + terca.minusDays(1))
+                        .header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void criarTarefa(String dataServico) throws Exception {
+        mvc.perform(post("/tarefas")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"Ocupa\",\"status\":\"A_PAGAR\",\"clienteId\":" + clienteId
+                                + ",\"dataServico\":\"" + dataServico + "\"}"))
+                .andExpect(status().isOk());
+    }
+
+    private static List<String> sem(List<String> horarios, String... fora) {
+        List<String> resto = new ArrayList<>(horarios);
+        resto.removeAll(List.of(fora));
+        return resto;
+    }
+}
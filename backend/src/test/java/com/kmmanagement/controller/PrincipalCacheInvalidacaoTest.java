@@ -0,0 +1,114 @@
+package com.kmmanagement.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * Cache de principals do SecurityFilter visto de fora: /users/principal-cache conta hits e misses,
+ * e editar ou excluir um usuário derruba o principal em cache (nome novo na hora, excluído sem acesso).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class PrincipalCacheInvalidacaoTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    private String admin;
+    private String usuario;
+    private long usuarioId;
+
+    @BeforeEach
+    void registrar() throws Exception {
+        admin = "Bearer " + JsonPath.read(registrar("Admin", "KART_MASTER_KEY"), "$.token");
+        String resposta = registrar("Usuária", "KART2025");
+        usuario = "Bearer " + JsonPath.read(resposta, "$.token");
+        usuarioId = ((Number) JsonPath.read(resposta, "$.id")).longValue();
+    }
+
+    @Test
+    void contadoresSeparamHitsDeMisses() throws Exception {
+        criadoPor(); // aquece o principal da usuária
+        String antes = stats();
+        criadoPor();
+        String depois = stats();
+
+        // Entre as duas leituras: o hit da usuária e o do próprio admin pedindo os contadores
+        assertEquals(contador(antes, "hits") + 2, contador(depois, "hits"));
+        assertEquals(contador(antes, "misses"), contador(depois, "misses"));
+    }
+
+    @Test
+    void editarTrocaOPrincipalEmCache() throws Exception {
+        assertEquals("Usuária", criadoPor());
+
+        mvc.perform(put("/users/" + usuarioId)
+                        .header(HttpHeaders.AUTHORIZATION, admin)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Renomeada\"}"))
+                .andExpect(status().isOk());
+
+        long misses = contador(stats(), "misses");
+        assertEquals("Renomeada", criadoPor());
+        assertEquals(misses + 1, contador(stats(), "misses"));
+    }
+
+    @Test
+    void excluirDerrubaOPrincipalEmCache() throws Exception {
+        criadoPor();
+
+        mvc.perform(delete("/users/" + usuarioId).header(HttpHeaders.AUTHORIZATION, admin))
+                .andExpect(status().isNoContent());
+
+        // O token ainda é válido, mas o usuário não existe mais
+        mvc.perform(get("/clientes").header(HttpHeaders.AUTHORIZATION, usuario))
+                .andExpect(status().isForbidden());
+    }
+
+    // Nome gravado em "criado por" de uma tarefa nova: é o principal que o SecurityFilter montou
+    private String criadoPor() throws Exception {
+        String tarefa = mvc.perform(post("/tarefas")
+                        .header(HttpHeaders.AUTHORIZATION, usuario)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"Quem criou\",\"status\":\"A_PAGAR\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(tarefa, "$.criadoPor");
+    }
+
+    private String stats() throws Exception {
+        return mvc.perform(get("/users/principal-cache").header(HttpHeaders.AUTHORIZATION, admin))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private static long contador(String stats, String nome) {
+        return ((Number) JsonPath.read(stats, "$." + nome)).longValue();
+    }
+
+    private String registrar(String nome, String token) throws Exception {
+        String email = "cache-" + UUID.randomUUID() + "@kart.com";
+        return mvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"" + nome + "\",\"email\":\"" + email + "\",\"password\":\"senha\",\"token\":\"" + token + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,154 @@
+package com.kmmanagement.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.jayway.jsonpath.JsonPath;
+import com.kmmanagement.dto.QuoteDTO;
+import com.kmmanagement.service.QuotePdfService;
+import com.kmmanagement.service.QuoteService;
+
+/**
+ * Orçamentos: totais calculados no servidor em centavos, descrição copiada da tarefa, itens
+ * inválidos recusados com 400, e o PDF de um orçamento inalterado sai do cache (ou vira 304).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class QuoteTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private QuoteService quoteService;
+
+    @Autowired
+    private QuotePdfService pdfService;
+
+    private String bearer;
+    private long clienteId;
+    private long outroClienteId;
+    private long tarefaId;
+
+    @BeforeEach
+    void preparar() throws Exception {
+        String email = "orcamento-" + UUID.randomUUID() + "@kart.com";
+        String resposta = mvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Orcamentista\",\"email\":\"" + email + "\",\"password\":\"senha\",\"token\":\"KART2025\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        bearer = "Bearer " + JsonPath.read(resposta, "$.token");
+
+        clienteId = criarCliente("Orçado");
+        outroClienteId = criarCliente("Outro");
+        String tarefa = mvc.perform(post("/tarefas")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"Limpeza do split\",\"status\":\"A_PAGAR\",\"clienteId\":" + clienteId + "}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        tarefaId = ((Number) JsonPath.read(tarefa, "$.id")).longValue();
+    }
+
+    @Test
+    void totaisSaoSomadosEmCentavos() throws Exception {
+        String quote = salvar(post("/orcamentos"), clienteId,
+                "[{\"tarefaId\":" + tarefaId + ",\"valor\":0.1},{\"descricao\":\"Visita\",\"valor\":0.2}]",
+                "[{\"descricao\":\"Filtro\",\"valor\":19.99}]")
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(0.3, ((Number) JsonPath.read(quote, "$.totalServicos")).doubleValue());
+        assertEquals(19.99, ((Number) JsonPath.read(quote, "$.totalEquipamentos")).doubleValue());
+        assertEquals(20.29, ((Number) JsonPath.read(quote, "$.totalGeral")).doubleValue());
+        assertEquals("Limpeza do split", JsonPath.read(quote, "$.servicos[0].descricao"));
+        assertEquals("Orcamentista", JsonPath.read(quote, "$.criadoPor"));
+    }
+
+    @Test
+    void itensInvalidosSaoRecusados() throws Exception {
+        salvar(post("/orcamentos"), null, "[{\"descricao\":\"Visita\",\"valor\":10}]", "[]")
+                .andExpect(status().isBadRequest());
+        salvar(post("/orcamentos"), clienteId, "[]", "[]")
+                .andExpect(status().isBadRequest());
+        salvar(post("/orcamentos"), clienteId, "[{\"descricao\":\"Visita\",\"valor\":-1}]", "[]")
+                .andExpect(status().isBadRequest());
+        salvar(post("/orcamentos"), clienteId, "[{\"descricao\":\"Visita\",\"valor\":10}]", "[{\"descricao\":\"Filtro\"}]")
+                .andExpect(status().isBadRequest());
+        // Tarefa de outro cliente não entra no orçamento
+        salvar(post("/orcamentos"), outroClienteId, "[{\"tarefaId\":" + tarefaId + ",\"valor\":10}]", "[]")
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void pdfInalteradoSaiDoCache() throws Exception {
+        String quote = salvar(post("/orcamentos"), clienteId, "[{\"descricao\":\"Visita\",\"valor\":50}]", "[]")
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long id = ((Number) JsonPath.read(quote, "$.id")).longValue();
+
+        String etag = mvc.perform(get("/orcamentos/" + id + "/pdf").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        mvc.perform(get("/orcamentos/" + id + "/pdf")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // Mesmo conteúdo, mesmo hash: o segundo pedido devolve o PDF já renderizado
+        QuoteDTO dto = quoteService.buscar(id).orElseThrow();
+        String hash = pdfService.hash(dto);
+        assertSame(pdfService.obter(dto, hash), pdfService.obter(dto, hash));
+
+        // Editado, o ETag muda
+        salvar(put("/orcamentos/" + id), clienteId, "[{\"descricao\":\"Visita\",\"valor\":60}]", "[]")
+                .andExpect(status().isOk());
+        String novo = mvc.perform(get("/orcamentos/" + id + "/pdf")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, novo);
+    }
+
+    private ResultActions salvar(MockHttpServletRequestBuilder requisicao, Long cliente, String servicos, String equipamentos)
+            throws Exception {
+        return mvc.perform(requisicao
+                .header(HttpHeaders.AUTHORIZATION, bearer)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"clienteId\":" + cliente + ",\"servicos\":" + servicos + ",\"equipamentos\":" + equipamentos + "}"));
+    }
+
+    private long criarCliente(String nome) throws Exception {
+        String cliente = mvc.perform(post("/clientes")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\":\"" + nome + "\",\"telefone\":\"85944443333\",\"endereco\":\"Rua 7\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return ((Number) JsonPath.read(cliente, "$.id")).longValue();
+    }
+}
@@ -0,0 +1,131 @@
+package com.kmmanagement.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+import com.kmmanagement.model.StatusTarefa;
+import com.kmmanagement.model.Task;
+import com.kmmanagement.repository.TaskRepository;
+
+/**
+ * Recorrência semanal: nenhuma linha em tarefas ao criar, ocorrências expandidas na listagem
+ * e no dashboard, horário bloqueado para avulsos, e uma ocorrência só vira tarefa ao ser editada.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class RecorrenciaTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private String bearer;
+    private long clienteId;
+
+    // Terças de um mês sem outros testes, das 16:00
+    private final LocalDate primeira = LocalDate.of(2043, 3, 1).with(TemporalAdjusters.nextOrSame(DayOfWeek.TUESDAY));
+
+    @BeforeEach
+    void registrar() throws Exception {
+        String email = "recorrencia-" + UUID.randomUUID() + "@kart.com";
+        String resposta = mvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Rec\",\"email\":\"" + email + "\",\"password\":\"senha\",\"token\":\"KART2025\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        bearer = "Bearer " + JsonPath.read(resposta, "$.token");
+
+        String cliente = mvc.perform(post("/clientes")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\":\"Fixo de Terça\",\"telefone\":\"85977776666\",\"endereco\":\"Rua 3\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        clienteId = ((Number) JsonPath.read(cliente, "$.id")).longValue();
+    }
+
+    @Test
+    void ocorrenciasSaoExpandidasEMaterializadasSoAoEditar() throws Exception {
+        long tarefasAntes = taskRepository.count();
+        String regra = mvc.perform(post("/recorrencias")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"clienteId\":" + clienteId + ",\"diaSemana\":2,\"hora\":\"16:00\",\"inicio\":\"" + primeira
+                                + "\",\"fim\":\"" + primeira.plusWeeks(3) + "\",\"titulo\":\"Bateria fixa\",\"status\":\"A_PAGAR\""
+                                + ",\"valorPago\":50.0,\"valorTotal\":100.0,\"quantidadePessoas\":2}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long regraId = ((Number) JsonPath.read(regra, "$.id")).longValue();
+        assertEquals(tarefasAntes, taskRepository.count());
+
+        // Quatro terças no período, sem id
+        List<Object> ids = JsonPath.read(listarMes(), "$[?(@.recorrenciaId == " + regraId + ")].id");
+        assertEquals(4, ids.size());
+        assertNull(ids.get(0));
+
+        // Horário de uma ocorrência não aceita agendamento avulso
+        mvc.perform(post("/tarefas")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"Avulso\",\"status\":\"A_PAGAR\",\"dataServico\":\"" + primeira + " 16:00\"}"))
+                .andExpect(status().isConflict());
+
+        // Pagar a segunda ocorrência a transforma em tarefa
+        LocalDate segunda = primeira.plusWeeks(1);
+        String paga = mvc.perform(post("/tarefas")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"Bateria fixa\",\"status\":\"PAGO\",\"clienteId\":" + clienteId
+                                + ",\"dataServico\":\"" + segunda + " 16:00\",\"valorPago\":50.0,\"valorTotal\":100.0"
+                                + ",\"quantidadePessoas\":2,\"recorrenciaId\":" + regraId + ",\"ocorrencia\":\"" + segunda + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Task tarefa = taskRepository.findById(((Number) JsonPath.read(paga, "$.id")).longValue()).orElseThrow();
+        assertEquals(StatusTarefa.PAGO, tarefa.getStatus());
+
+        // Pular a terceira
+        mvc.perform(delete("/recorrencias/" + regraId + "/ocorrencias/" + primeira.plusWeeks(2))
+                        .header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isNoContent());
+
+        String mes = listarMes();
+        assertEquals(2, JsonPath.<List<Object>>read(mes, "$[?(@.recorrenciaId == " + regraId + ")]").size());
+        assertEquals(1, JsonPath.<List<Object>>read(mes, "$[?(@.clienteId == " + clienteId + " && @.id > 0)]").size());
+
+        // Dashboard do mês: 2 ocorrências virtuais + a tarefa paga
+        String dashboard = mvc.perform(get("/tarefas/dashboard?period=month&date=" + primeira)
+                        .header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(3, ((Number) JsonPath.read(dashboard, "$.totalAgendamentos")).intValue());
+    }
+
+    private String listarMes() throws Exception {
+        return mvc.perform(get("/tarefas?from=" + primeira.withDayOfMonth(1) + "T00:00:00&to="
+                        + primeira.plusWeeks(4) + "T23:59:59").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,144 @@
+package com.kmmanagement.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+import com.kmmanagement.service.SlotOccupancyIndex;
+
+/**
+ * Reserva de horário no SlotOccupancyIndex: dois POSTs simultâneos no mesmo horário dão um 200 e
+ * um 409; um lote atômico desfeito devolve os horários reservados; mover uma tarefa libera o antigo.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReservaDeHorarioTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private SlotOccupancyIndex slotIndex;
+
+    private String bearer;
+    private LocalDate dia;
+
+    @BeforeEach
+    void registrar() throws Exception {
+        String email = "reserva-" + UUID.randomUUID() + "@kart.com";
+        String resposta = mvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Reserva\",\"email\":\"" + email + "\",\"password\":\"senha\",\"token\":\"KART2025\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        bearer = "Bearer " + JsonPath.read(resposta, "$.token");
+
+        String cliente = mvc.perform(post("/clientes")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\":\"Reserva\",\"telefone\":\"85933332222\",\"endereco\":\"Rua 8\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long clienteId = ((Number) JsonPath.read(cliente, "$.id")).longValue();
+        // Uma terça diferente por teste: data_servico é única no banco de testes compartilhado
+        dia = LocalDate.of(2045, 1, 1).plusWeeks(clienteId % 500).with(TemporalAdjusters.nextOrSame(DayOfWeek.TUESDAY));
+    }
+
+    @Test
+    void doisPostsSimultaneosNoMesmoHorarioDaoUm200EUm409() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            // Vários horários: cada rodada solta as duas requisições juntas
+            for (String hora : List.of("15:00", "16:00", "17:00", "18:00")) {
+                CountDownLatch largada = new CountDownLatch(1);
+                List<Future<Integer>> respostas = new ArrayList<>();
+                for (int i = 0; i < 2; i++) {
+                    String titulo = "Corrida " + i;
+                    respostas.add(pool.submit(() -> {
+                        largada.await();
+                        return criar(titulo, dia + " " + hora);
+                    }));
+                }
+                largada.countDown();
+
+                List<Integer> status = new ArrayList<>();
+                for (Future<Integer> r : respostas) status.add(r.get());
+                status.sort(null);
+                assertEquals(List.of(200, 409), status, "horário " + hora);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void loteAtomicoDesfeitoLiberaOsHorarios() throws Exception {
+        LocalDateTime horario = LocalDateTime.of(dia, LocalTime.of(15, 0));
+        // O primeiro item reserva o horário; o segundo (sem título) derruba o lote
+        mvc.perform(post("/tarefas/batch")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"titulo\":\"Vale\",\"status\":\"A_PAGAR\",\"dataServico\":\"" + dia + " 15:00\"},"
+                                + "{\"status\":\"A_PAGAR\",\"dataServico\":\"" + dia + " 16:00\"}]"))
+                .andExpect(status().isBadRequest());
+
+        assertFalse(slotIndex.ocupado(horario));
+        assertEquals(200, criar("Depois do lote", dia + " 15:00"));
+    }
+
+    @Test
+    void moverTarefaLiberaOHorarioAntigo() throws Exception {
+        String criada = mvc.perform(post("/tarefas")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"Movida\",\"status\":\"A_PAGAR\",\"dataServico\":\"" + dia + " 15:00\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long id = ((Number) JsonPath.read(criada, "$.id")).longValue();
+
+        mvc.perform(put("/tarefas/" + id)
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"Movida\",\"status\":\"A_PAGAR\",\"dataServico\":\"" + dia + " 17:00\"}"))
+                .andExpect(status().isOk());
+
+        assertFalse(slotIndex.ocupado(LocalDateTime.of(dia, LocalTime.of(15, 0))));
+        assertTrue(slotIndex.ocupado(LocalDateTime.of(dia, LocalTime.of(17, 0))));
+        assertEquals(200, criar("No horário antigo", dia + " 15:00"));
+        assertEquals(409, criar("No horário novo", dia + " 17:00"));
+    }
+
+    private int criar(String titulo, String dataServico) throws Exception {
+        return mvc.perform(post("/tarefas")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"" + titulo + "\",\"status\":\"A_PAGAR\",\"dataServico\":\"" + dataServico + "\"}"))
+                .andReturn().getResponse().getStatus();
+    }
+}
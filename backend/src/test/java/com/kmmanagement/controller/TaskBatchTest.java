@@ -0,0 +1,184 @@
+package com.kmmanagement.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.jayway.jsonpath.JsonPath;
+import com.kmmanagement.model.StatusTarefa;
+import com.kmmanagement.model.Task;
+import com.kmmanagement.repository.TaskRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * POST /tarefas/batch: um horário repetido derruba o lote inteiro no modo atômico e só o
+ * próprio item no modo parcial; os INSERTs do lote saem em lote JDBC, não um por tarefa;
+ * status fora do enum é recusado com 400. Só a constraint de horário único vira 409; campo
+ * obrigatório faltando é 400.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class TaskBatchTest {
+
+    private static final int ITENS = 10;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private String bearer;
+    private long clienteId;
+
+    @BeforeEach
+    void registrar() throws Exception {
+        String email = "lote-" + UUID.randomUUID() + "@kart.com";
+        String resposta = mvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Lote\",\"email\":\"" + email + "\",\"password\":\"senha\",\"token\":\"KART2025\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        bearer = "Bearer " + JsonPath.read(resposta, "$.token");
+
+        String cliente = mvc.perform(post("/clientes")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\":\"Grupo\",\"telefone\":\"85988887777\",\"endereco\":\"Rua 2\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        clienteId = ((Number) JsonPath.read(cliente, "$.id")).longValue();
+    }
+
+    @Test
+    void loteAtomicoComConflitoNaoGravaNada() throws Exception {
+        LocalDate dia = LocalDate.of(2041, 1, 1).with(TemporalAdjusters.nextOrSame(DayOfWeek.TUESDAY));
+
+        MvcResult r = mvc.perform(post("/tarefas/batch")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loteComRepetido(dia)))
+                .andExpect(status().isConflict())
+                .andReturn();
+
+        String corpo = r.getResponse().getContentAsString();
+        assertEquals(409, (int) JsonPath.read(corpo, "$[" + ITENS + "].status"));
+        assertEquals(424, (int) JsonPath.read(corpo, "$[0].status"));
+        assertEquals(0, tarefasNoDia(dia));
+    }
+
+    @Test
+    void loteParcialGravaValidosEmLoteJdbc() throws Exception {
+        LocalDate dia = LocalDate.of(2042, 1, 1).with(TemporalAdjusters.nextOrSame(DayOfWeek.TUESDAY));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        String corpo = mvc.perform(post("/tarefas/batch?atomico=false")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loteComRepetido(dia)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long statements = statistics.getPrepareStatementCount();
+
+        List<Integer> status = JsonPath.read(corpo, "$[*].status");
+        assertEquals(ITENS, status.stream().filter(s -> s == 200).count());
+        assertEquals(409, status.get(ITENS));
+        assertNotNull(JsonPath.read(corpo, "$[0].tarefa.id"));
+        assertEquals(ITENS, tarefasNoDia(dia));
+        // Clientes + gerador de ids + INSERT em lote + rollup do dia: bem menos que um comando por tarefa
+        assertTrue(statements < ITENS, "statements: " + statements);
+    }
+
+    @Test
+    void statusDesconhecidoERecusadoNaEntrada() throws Exception {
+        LocalDate dia = LocalDate.of(2042, 6, 1).with(TemporalAdjusters.nextOrSame(DayOfWeek.TUESDAY));
+
+        // "pago" em minúsculas é normalizado; "quitado" não existe
+        String corpo = mvc.perform(post("/tarefas/batch?atomico=false")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"titulo\":\"Ok\",\"status\":\"pago\",\"clienteId\":" + clienteId
+                                + ",\"dataServico\":\"" + dia + " 15:00\"},"
+                                + "{\"titulo\":\"Erro\",\"status\":\"quitado\",\"clienteId\":" + clienteId
+                                + ",\"dataServico\":\"" + dia + " 15:30\"}]"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(200, (int) JsonPath.read(corpo, "$[0].status"));
+        assertEquals("PAGO", JsonPath.read(corpo, "$[0].tarefa.status"));
+        assertEquals(400, (int) JsonPath.read(corpo, "$[1].status"));
+
+        mvc.perform(get("/tarefas?status=quitado").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void soHorarioRepetidoNoBancoViraConflito() throws Exception {
+        LocalDate dia = LocalDate.of(2043, 3, 1).with(TemporalAdjusters.nextOrSame(DayOfWeek.TUESDAY));
+
+        mvc.perform(post("/tarefas")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"A_PAGAR\",\"dataServico\":\"" + dia + " 15:00\"}"))
+                .andExpect(status().isBadRequest());
+
+        // Gravada por fora da API: o índice em memória não sabe do horário e só a constraint barra
+        Task direta = new Task();
+        direta.setTitulo("Direta");
+        direta.setStatus(StatusTarefa.A_PAGAR);
+        direta.setDataServico(dia.atTime(16, 0));
+        taskRepository.save(direta);
+
+        mvc.perform(post("/tarefas")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"Repetida\",\"status\":\"A_PAGAR\",\"dataServico\":\"" + dia + " 16:00\"}"))
+                .andExpect(status().isConflict());
+    }
+
+    // ITENS horários seguidos a partir das 15:00 e, no fim, o primeiro horário de novo
+    private String loteComRepetido(LocalDate dia) {
+        StringJoiner json = new StringJoiner(",", "[", "]");
+        for (int i = 0; i <= ITENS; i++) {
+            LocalTime hora = LocalTime.of(15, 0).plusMinutes(30L * (i % ITENS));
+            json.add("{\"titulo\":\"Grupo " + i + "\",\"status\":\"A_PAGAR\",\"prioridade\":2,\"clienteId\":" + clienteId
+                    + ",\"dataServico\":\"" + dia + " " + hora + "\",\"valorPago\":80.0,\"valorTotal\":160.0,\"quantidadePessoas\":2}");
+        }
+        return json.toString();
+    }
+
+    private int tarefasNoDia(LocalDate dia) throws Exception {
+        String corpo = mvc.perform(get("/tarefas?from=" + dia + "T00:00:00&to=" + dia + "T23:59:59")
+                        .header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.<List<Object>>read(corpo, "$").size();
+    }
+}
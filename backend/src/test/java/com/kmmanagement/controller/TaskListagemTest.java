@@ -0,0 +1,143 @@
+package com.kmmanagement.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * GET /tarefas: sem limit/cursor devolve tudo o que casa com o filtro; paginado, as páginas
+ * seguem (dataServico, id) e as tarefas sem data vêm no fim, sem sumir da listagem. Ocorrências
+ * de recorrências entram na mesma ordem e no mesmo cursor, em qualquer página. O /tarefas/export
+ * segue a mesma janela e ordem.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskListagemTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    private String bearer;
+    private long clienteId;
+    private LocalDate dia;
+
+    @BeforeEach
+    void preparar() throws Exception {
+        String email = "listagem-" + UUID.randomUUID() + "@kart.com";
+        String resposta = mvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Listagem\",\"email\":\"" + email + "\",\"password\":\"senha\",\"token\":\"KART2025\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        bearer = "Bearer " + JsonPath.read(resposta, "$.token");
+
+        String cliente = mvc.perform(post("/clientes")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\":\"Listado\",\"telefone\":\"85966665555\",\"endereco\":\"Rua 6\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        clienteId = ((Number) JsonPath.read(cliente, "$.id")).longValue();
+
+        // Dia diferente por execução: data_servico é única no banco de testes compartilhado
+        dia = LocalDate.of(2044, 1, 1).plusWeeks(clienteId % 500).with(TemporalAdjusters.nextOrSame(DayOfWeek.TUESDAY));
+        criar("Sem data 1", null);
+        criar("Das 17", dia + " 17:00");
+        criar("Sem data 2", null);
+        criar("Das 15", dia + " 15:00");
+    }
+
+    @Test
+    void semLimiteDevolveTudoComAsSemDataNoFim() throws Exception {
+        MockHttpServletResponse resposta = listar("/tarefas?clienteId=" + clienteId);
+        assertNull(resposta.getHeader(TaskController.NEXT_CURSOR_HEADER));
+        assertEquals(List.of("Das 15", "Das 17", "Sem data 1", "Sem data 2"),
+                JsonPath.read(resposta.getContentAsString(), "$[*].titulo"));
+    }
+
+    @Test
+    void paginasDeUmPercorremAsComDataEDepoisAsSemData() throws Exception {
+        List<String> titulos = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletResponse pagina = listar("/tarefas?clienteId=" + clienteId + "&limit=1"
+                    + (cursor != null ? "&cursor=" + cursor : ""));
+            titulos.addAll(JsonPath.read(pagina.getContentAsString(), "$[*].titulo"));
+            cursor = pagina.getHeader(TaskController.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+        assertEquals(List.of("Das 15", "Das 17", "Sem data 1", "Sem data 2"), titulos);
+
+        // Com janela de datas as sem data ficam de fora
+        assertEquals(List.of("Das 15", "Das 17"), JsonPath.read(listar("/tarefas?clienteId=" + clienteId + "&limit=10&from="
+                + dia + "T00:00:00&to=" + dia + "T23:59:59").getContentAsString(), "$[*].titulo"));
+    }
+
+    @Test
+    void ocorrenciasEntramNaOrdemENoCursor() throws Exception {
+        mvc.perform(post("/recorrencias")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"clienteId\":" + clienteId + ",\"diaSemana\":2,\"hora\":\"16:00\",\"inicio\":\"" + dia
+                                + "\",\"fim\":\"" + dia.plusWeeks(1) + "\",\"titulo\":\"Fixa\",\"status\":\"A_PAGAR\""
+                                + ",\"valorPago\":0.0,\"valorTotal\":100.0,\"quantidadePessoas\":1}"))
+                .andExpect(status().isOk());
+
+        String janela = "/tarefas?clienteId=" + clienteId + "&from=" + dia + "T00:00:00&to=" + dia.plusWeeks(1) + "T23:59:59";
+        List<String> horarios = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletResponse pagina = listar(janela + "&limit=1" + (cursor != null ? "&cursor=" + cursor : ""));
+            horarios.addAll(JsonPath.read(pagina.getContentAsString(), "$[*].dataServico"));
+            cursor = pagina.getHeader(TaskController.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+        List<String> esperado = List.of(dia + " 15:00", dia + " 16:00", dia + " 17:00", dia.plusWeeks(1) + " 16:00");
+        assertEquals(esperado, horarios);
+
+        // Sem paginação: a mesma ordem
+        assertEquals(esperado, JsonPath.read(listar(janela).getContentAsString(), "$[*].dataServico"));
+    }
+
+    @Test
+    void exportacaoCsvTrazAsTarefasDaJanelaEmOrdem() throws Exception {
+        String csv = listar("/tarefas/export?format=csv&from=" + dia + "T00:00:00&to=" + dia + "T23:59:59").getContentAsString();
+        List<String> linhas = csv.lines().toList();
+        assertEquals(3, linhas.size());
+        assertEquals(List.of("Das 15", "Das 17"), linhas.subList(1, 3).stream().map(l -> l.split(",")[1]).toList());
+    }
+
+    private void criar(String titulo, String dataServico) throws Exception {
+        mvc.perform(post("/tarefas")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"" + titulo + "\",\"status\":\"A_PAGAR\",\"clienteId\":" + clienteId
+                                + (dataServico != null ? ",\"dataServico\":\"" + dataServico + "\"" : "") + "}"))
+                .andExpect(status().isOk());
+    }
+
+    private MockHttpServletResponse listar(String url) throws Exception {
+        return mvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+    }
+}
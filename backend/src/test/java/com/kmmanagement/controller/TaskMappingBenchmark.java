@@ -0,0 +1,111 @@
+package com.kmmanagement.controller;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.kmmanagement.benchmark.BenchmarkData;
+import com.kmmanagement.dto.TaskDTO;
+import com.kmmanagement.dto.TaskRow;
+import com.kmmanagement.model.Cliente;
+import com.kmmanagement.model.Task;
+import com.kmmanagement.repository.ClienteRepository;
+
+/**
+ * Mapeamentos do TaskController: toDTO (entidade e projeção TaskRow) e toEntity,
+ * que inclui o replace("T", " ") + LocalDateTime.parse da data vinda do front.
+ * O ClienteRepository é um stub em memória: mede o mapeamento, não o banco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskMappingBenchmark {
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    @Param({"1000", "5000"})
+    public int tarefas;
+
+    private TaskController controller;
+    private List<Task> entidades;
+    private List<TaskRow> rows;
+    private List<TaskDTO> dtos;
+
+    @Setup
+    public void setup() {
+        List<Cliente> clientes = BenchmarkData.clientes(500);
+        entidades = BenchmarkData.tarefas(tarefas, clientes);
+        dtos = BenchmarkData.dtosDeEntrada(entidades);
+        rows = entidades.stream()
+                .map(t -> new TaskRow(t.getId(), t.getTitulo(), t.getDescricao(), t.getStatus(), t.getTipoCliente(),
+                        t.getCliente() != null ? t.getCliente().getId() : null,
+                        t.getCliente() != null ? t.getCliente().getNome() : null,
+                        t.getCliente() != null ? t.getCliente().getEndereco() : null,
+                        t.getDataServico(), t.getCriadoPor(), t.getValorPago(), t.getValorTotal(),
+                        t.getQuantidadePessoas()))
+                .toList();
+
+        controller = new TaskController();
+        ReflectionTestUtils.setField(controller, "clienteRepository", clienteRepositoryEmMemoria(clientes));
+    }
+
+    @Benchmark
+    public void toDtoEntidade(Blackhole bh) {
+        for (Task t : entidades) bh.consume(controller.toDTO(t));
+    }
+
+    @Benchmark
+    public void toDtoProjecao(Blackhole bh) {
+        for (TaskRow r : rows) bh.consume(controller.toDTO(r));
+    }
+
+    @Benchmark
+    public void toEntity(Blackhole bh) {
+        for (TaskDTO dto : dtos) bh.consume(controller.toEntity(dto));
+    }
+
+    // Só o parse da data, isolado do resto do toEntity
+    @Benchmark
+    public void parseDataServico(Blackhole bh) {
+        for (TaskDTO dto : dtos) {
+            bh.consume(LocalDateTime.parse(dto.getDataServico().replace("T", " "), DATE_TIME_FORMATTER));
+        }
+    }
+
+    private static ClienteRepository clienteRepositoryEmMemoria(List<Cliente> clientes) {
+        Map<Long, Cliente> porId = new HashMap<>();
+        clientes.forEach(c -> porId.put(c.getId(), c));
+        return (ClienteRepository) Proxy.newProxyInstance(
+                ClienteRepository.class.getClassLoader(),
+                new Class<?>[] {ClienteRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.ofNullable(porId.get((Long) args[0]));
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "ClienteRepository(em memória)";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,86 @@
+package com.kmmanagement.controller;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+import com.kmmanagement.service.TaskChangeFeed;
+
+/**
+ * GET /tarefas/stream: a conexão abre com "ready", uma tarefa criada chega como "upsert" depois do
+ * commit e um lote atômico desfeito não gera evento nenhum.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskStreamTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void tarefaGravadaChegaNoStreamELoteDesfeitoNao() throws Exception {
+        String email = "stream-" + UUID.randomUUID() + "@kart.com";
+        String resposta = mvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Stream\",\"email\":\"" + email + "\",\"password\":\"senha\",\"token\":\"KART2025\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String bearer = "Bearer " + JsonPath.read(resposta, "$.token");
+
+        MockHttpServletResponse stream = mvc.perform(get("/tarefas/stream").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        esperarConteudo(stream, "event:" + TaskChangeFeed.READY);
+
+        // Lote atômico com um item inválido: nada é gravado, nada é publicado
+        String titulo = "Desfeita " + UUID.randomUUID();
+        mvc.perform(post("/tarefas/batch")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"titulo\":\"" + titulo + "\",\"status\":\"A_PAGAR\"},{\"status\":\"A_PAGAR\"}]"))
+                .andExpect(status().isBadRequest());
+
+        // Dia diferente por execução: data_servico é única no banco de testes compartilhado
+        LocalDate dia = LocalDate.of(2046, 1, 1).plusWeeks(Math.floorMod(UUID.randomUUID().hashCode(), 500))
+                .with(TemporalAdjusters.nextOrSame(DayOfWeek.TUESDAY));
+        String criada = mvc.perform(post("/tarefas")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"Gravada\",\"status\":\"A_PAGAR\",\"dataServico\":\"" + dia + " 15:00\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long id = ((Number) JsonPath.read(criada, "$.id")).longValue();
+
+        esperarConteudo(stream, "\"id\":" + id + ",");
+        String eventos = stream.getContentAsString();
+        assertTrue(eventos.contains("event:" + TaskChangeFeed.UPSERT));
+        assertFalse(eventos.contains(titulo));
+    }
+
+    private static void esperarConteudo(MockHttpServletResponse stream, String trecho) throws Exception {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!stream.getContentAsString().contains(trecho)) {
+            if (System.nanoTime() > limite) throw new AssertionError("sem \"" + trecho + "\" em: " + stream.getContentAsString());
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.kmmanagement.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+import com.kmmanagement.model.Dinheiro;
+
+/**
+ * Valores em centavos: somas que em double acumulam erro (0,30 - 0,10, doze vezes) batem
+ * exatamente no dashboard, no rollup e nos totais do orçamento.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ValoresEmCentavosTest {
+
+    private static final int TAREFAS = 12;
+
+    @Autowired
+    private MockMvc mvc;
+
+    private String bearer;
+    private long clienteId;
+
+    @BeforeEach
+    void registrar() throws Exception {
+        // ADMIN: /tarefas/dashboard/rollup/check é restrito
+        String email = "centavos-" + UUID.randomUUID() + "@kart.com";
+        String resposta = mvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Caixa\",\"email\":\"" + email + "\",\"password\":\"senha\",\"token\":\"KART_MASTER_KEY\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        bearer = "Bearer " + JsonPath.read(resposta, "$.token");
+
+        String cliente = mvc.perform(post("/clientes")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\":\"Centavo\",\"telefone\":\"85966665555\",\"endereco\":\"Rua 4\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        clienteId = ((Number) JsonPath.read(cliente, "$.id")).longValue();
+    }
+
+    @Test
+    void dashboardSomaAteOCentavo() throws Exception {
+        LocalDate dia = LocalDate.of(2044, 6, 1).with(TemporalAdjusters.nextOrSame(DayOfWeek.TUESDAY));
+        StringJoiner lote = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < TAREFAS; i++) {
+            LocalTime hora = LocalTime.of(15, 0).plusMinutes(30L * i);
+            lote.add("{\"titulo\":\"Sinal " + i + "\",\"status\":\"PAGO\",\"prioridade\":1,\"clienteId\":" + clienteId
+                    + ",\"dataServico\":\"" + dia + " " + hora + "\",\"valorPago\":0.1,\"valorTotal\":0.3,\"quantidadePessoas\":3}");
+        }
+        mvc.perform(post("/tarefas/batch")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(lote.toString()))
+                .andExpect(status().isOk());
+
+        String dashboard = mvc.perform(get("/tarefas/dashboard?period=day&date=" + dia)
+                        .header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(TAREFAS, ((Number) JsonPath.read(dashboard, "$.totalAgendamentos")).intValue());
+        assertReais("3.60", JsonPath.read(dashboard, "$.valorEsperado"));
+        assertReais("1.20", JsonPath.read(dashboard, "$.valorRecebido"));
+        assertReais("2.40", JsonPath.read(dashboard, "$.valorAPagar"));
+
+        // Rollup e agregação direta sobre tarefas comparados sem tolerância
+        String check = mvc.perform(get("/tarefas/dashboard/rollup/check").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<String> divergentes = JsonPath.read(check, "$.diasDivergentes");
+        assertFalse(divergentes.contains(dia.toString()), "divergentes: " + divergentes);
+
+        // Ida e volta pela API: o valor informado volta igual
+        String lista = mvc.perform(get("/tarefas?from=" + dia + "T00:00:00&to=" + dia + "T23:59:59")
+                        .header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertReais("0.30", JsonPath.read(lista, "$[0].valorTotal"));
+    }
+
+    @Test
+    void totaisDoOrcamentoSaoExatos() throws Exception {
+        String orcamento = mvc.perform(post("/orcamentos")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"clienteId\":" + clienteId
+                                + ",\"servicos\":[{\"descricao\":\"Bateria\",\"valor\":0.7},{\"descricao\":\"Taxa\",\"valor\":1.005}]"
+                                + ",\"equipamentos\":[{\"descricao\":\"Luva\",\"valor\":0.1},{\"descricao\":\"Balaclava\",\"valor\":0.2},"
+                                + "{\"descricao\":\"Capacete\",\"valor\":19.99}]}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertReais("1.71", JsonPath.read(orcamento, "$.totalServicos"));
+        assertReais("20.29", JsonPath.read(orcamento, "$.totalEquipamentos"));
+        assertReais("22.00", JsonPath.read(orcamento, "$.totalGeral"));
+    }
+
+    @Test
+    void conversaoArredondaPeloValorDecimal() {
+        assertEquals(101, Dinheiro.centavos(1.005));
+        assertEquals(30, Dinheiro.centavos(0.1 + 0.2));
+        assertEquals(-1999, Dinheiro.centavos(-19.99));
+        assertEquals(0.3, Dinheiro.deReais(0.3).reais());
+    }
+
+    private static void assertReais(String esperado, Object valor) {
+        assertEquals(0, new BigDecimal(esperado).compareTo(new BigDecimal(valor.toString())), "valor: " + valor);
+    }
+}
@@ -0,0 +1,239 @@
+package com.kmmanagement.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kmmanagement.KmManagementApplication;
+
+/**
+ * Teste de carga de ponta a ponta: sobe a aplicação com H2 em memória (uma vez com threads
+ * de plataforma, outra com o perfil vthreads) e dispara uma mistura de login, listagem da
+ * agenda, dashboard e criação de agendamentos, como na manhã de sábado.
+ * Reporta vazão e latências p50/p99 por operação em cada modo.
+ *
+ * Uso: mvn -P loadtest test [-Dloadtest.users=100 -Dloadtest.seconds=30 -Dloadtest.modes=platform,virtual]
+ */
+public class LoadTestHarness {
+
+    enum Operacao { LOGIN, LISTAGEM, DASHBOARD, AGENDAMENTO }
+
+    private static final DateTimeFormatter DATA_HORA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final String SENHA = "senha-carga";
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final int usuarios = Integer.getInteger("loadtest.users", 50);
+    private final int segundos = Integer.getInteger("loadtest.seconds", 20);
+    private final int aquecimento = Integer.getInteger("loadtest.warmup", 5);
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        LoadTestHarness harness = new LoadTestHarness();
+        for (String modo : System.getProperty("loadtest.modes", "platform,virtual").split(",")) {
+            harness.executar(modo.trim());
+        }
+        System.exit(0);
+    }
+
+    void executar(String modo) throws Exception {
+        boolean virtual = "virtual".equals(modo);
+        ConfigurableApplicationContext app = new SpringApplicationBuilder(KmManagementApplication.class)
+                .profiles(virtual ? new String[] {"vthreads"} : new String[0])
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:loadtest_" + modo + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN")
+                .run();
+        try {
+            int porta = ((WebServerApplicationContext) app).getWebServer().getPort();
+            Cenario cenario = new Cenario("http://localhost:" + porta);
+
+            rodar(cenario, aquecimento, null);
+            Map<Operacao, List<Long>> latencias = new EnumMap<>(Operacao.class);
+            Map<Operacao, AtomicInteger> erros = new EnumMap<>(Operacao.class);
+            for (Operacao op : Operacao.values()) {
+                latencias.put(op, new ArrayList<>());
+                erros.put(op, new AtomicInteger());
+            }
+            rodar(cenario, segundos, new Coleta(latencias, erros));
+            relatorio(modo, latencias, erros);
+        } finally {
+            app.close();
+        }
+    }
+
+    private record Coleta(Map<Operacao, List<Long>> latencias, Map<Operacao, AtomicInteger> erros) {}
+
+    // N usuários concorrentes em loop até o fim do tempo; coleta == null é aquecimento
+    private void rodar(Cenario cenario, int duracaoSegundos, Coleta coleta) throws InterruptedException {
+        long fim = System.nanoTime() + TimeUnit.SECONDS.toNanos(duracaoSegundos);
+        ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor();
+        for (int u = 0; u < usuarios; u++) {
+            clientes.submit(() -> {
+                while (System.nanoTime() < fim) {
+                    Operacao op = sortear();
+                    long t0 = System.nanoTime();
+                    boolean ok = cenario.executar(op);
+                    long ns = System.nanoTime() - t0;
+                    if (coleta == null) continue;
+                    if (ok) {
+                        List<Long> lista = coleta.latencias().get(op);
+                        synchronized (lista) {
+                            lista.add(ns);
+                        }
+                    } else {
+                        coleta.erros().get(op).incrementAndGet();
+                    }
+                }
+            });
+        }
+        clientes.shutdown();
+        clientes.awaitTermination(duracaoSegundos + 60L, TimeUnit.SECONDS);
+    }
+
+    // Mistura: 50% listagem, 25% dashboard, 15% novos agendamentos, 10% login
+    private static Operacao sortear() {
+        int r = ThreadLocalRandom.current().nextInt(100);
+        if (r < 50) return Operacao.LISTAGEM;
+        if (r < 75) return Operacao.DASHBOARD;
+        if (r < 90) return Operacao.AGENDAMENTO;
+        return Operacao.LOGIN;
+    }
+
+    private void relatorio(String modo, Map<Operacao, List<Long>> latencias, Map<Operacao, AtomicInteger> erros) {
+        System.out.printf("%n=== modo %s: %d usuários, %d s ===%n", modo, usuarios, segundos);
+        System.out.printf("%-12s %8s %7s %10s %9s %9s%n", "operação", "ok", "erros", "req/s", "p50 ms", "p99 ms");
+        List<Long> todas = new ArrayList<>();
+        for (Operacao op : Operacao.values()) {
+            List<Long> lista = latencias.get(op);
+            todas.addAll(lista);
+            linha(op.name(), lista, erros.get(op).get());
+        }
+        linha("TOTAL", todas, erros.values().stream().mapToInt(AtomicInteger::get).sum());
+    }
+
+    private void linha(String nome, List<Long> lista, int erros) {
+        long[] ns = lista.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(ns);
+        System.out.printf("%-12s %8d %7d %10.1f %9.2f %9.2f%n",
+                nome, ns.length, erros, ns.length / (double) segundos, percentil(ns, 0.50), percentil(ns, 0.99));
+    }
+
+    private static double percentil(long[] ordenado, double p) {
+        if (ordenado.length == 0) return 0;
+        int i = (int) Math.ceil(p * ordenado.length) - 1;
+        return ordenado[Math.max(0, i)] / 1e6;
+    }
+
+    /** Estado de um modo: usuário, token, clientes e o próximo horário livre para agendar. */
+    private class Cenario {
+        private final String base;
+        private final String email = "carga@kart.com";
+        private final String token;
+        private final List<Long> clientes = new ArrayList<>();
+        private final List<LocalDateTime> horarios = new ArrayList<>();
+        private final AtomicInteger proximoHorario = new AtomicInteger();
+        private final LocalDate hoje = LocalDate.of(2030, 3, 1);
+
+        Cenario(String base) throws Exception {
+            this.base = base;
+            JsonNode registro = post("/auth/register",
+                    "{\"name\":\"Carga\",\"email\":\"" + email + "\",\"password\":\"" + SENHA + "\",\"token\":\"KART2025\"}",
+                    null);
+            this.token = registro.get("token").asText();
+
+            for (int i = 0; i < 50; i++) {
+                JsonNode c = post("/clientes",
+                        "{\"nome\":\"Cliente " + i + "\",\"telefone\":\"1190000" + i + "\",\"endereco\":\"Rua " + i + "\"}",
+                        token);
+                clientes.add(c.get("id").asLong());
+            }
+
+            // Horários válidos da grade (segunda fechado, domingo até 19:30), em ordem, a partir de hoje
+            for (LocalDate dia = hoje; horarios.size() < 500_000; dia = dia.plusDays(1)) {
+                if (dia.getDayOfWeek() == DayOfWeek.MONDAY) continue;
+                LocalTime ultimo = dia.getDayOfWeek() == DayOfWeek.SUNDAY ? LocalTime.of(19, 30) : LocalTime.of(21, 30);
+                for (LocalTime h = LocalTime.of(15, 0); !h.isAfter(ultimo); h = h.plusMinutes(30)) {
+                    horarios.add(LocalDateTime.of(dia, h));
+                }
+            }
+        }
+
+        boolean executar(Operacao op) {
+            try {
+                return switch (op) {
+                    case LOGIN -> status(request("/auth/login")
+                            .POST(body("{\"email\":\"" + email + "\",\"password\":\"" + SENHA + "\"}"))) == 200;
+                    case LISTAGEM -> status(autenticado("/tarefas?from=" + hoje + "T00:00:00&to="
+                            + hoje.plusDays(6) + "T23:59:59").GET()) == 200;
+                    case DASHBOARD -> status(autenticado("/tarefas/dashboard?period=month&date=" + hoje).GET()) == 200;
+                    case AGENDAMENTO -> {
+                        LocalDateTime slot = horarios.get(proximoHorario.getAndIncrement() % horarios.size());
+                        long cliente = clientes.get(ThreadLocalRandom.current().nextInt(clientes.size()));
+                        yield status(autenticado("/tarefas").POST(body(
+                                "{\"titulo\":\"Bateria\",\"status\":\"A_PAGAR\",\"prioridade\":2,\"clienteId\":" + cliente
+                                        + ",\"dataServico\":\"" + slot.format(DATA_HORA)
+                                        + "\",\"valorPago\":80.0,\"valorTotal\":160.0,\"quantidadePessoas\":2}"))) == 200;
+                    }
+                };
+            } catch (Exception e) {
+                return false;
+            }
+        }
+
+        private HttpRequest.Builder request(String path) {
+            return HttpRequest.newBuilder(URI.create(base + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json");
+        }
+
+        private HttpRequest.Builder autenticado(String path) {
+            return request(path).header("Authorization", "Bearer " + token);
+        }
+
+        private int status(HttpRequest.Builder builder) throws Exception {
+            return http.send(builder.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+
+        private JsonNode post(String path, String json, String bearer) throws Exception {
+            HttpRequest.Builder builder = request(path).POST(body(json));
+            if (bearer != null) builder.header("Authorization", "Bearer " + bearer);
+            HttpResponse<String> resp = http.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+            if (resp.statusCode() != 200) {
+                throw new IllegalStateException("POST " + path + " -> " + resp.statusCode() + ": " + resp.body());
+            }
+            return JSON.readTree(resp.body());
+        }
+
+        private static HttpRequest.BodyPublisher body(String json) {
+            return HttpRequest.BodyPublishers.ofString(json);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.kmmanagement.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import com.kmmanagement.dto.DashboardDiaGrupo;
+import com.kmmanagement.model.Cliente;
+import com.kmmanagement.model.Dinheiro;
+import com.kmmanagement.model.StatusTarefa;
+import com.kmmanagement.model.Task;
+import com.kmmanagement.model.TipoCliente;
+import com.kmmanagement.service.DashboardRollupService.Contribuicao;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Confere que a agregação no banco que alimenta o rollup (aggregateDashboardPorDia) dá os mesmos
+ * números do caminho antigo do dashboard (carregar entidades + streams) em um mês sintético.
+ * O tempo de cada caminho é medido no JMH (benchmark/DashboardQueryBenchmark).
+ */
+@DataJpaTest
+class DashboardAggregateTest {
+
+    private static final int CLIENTES = 30;
+    private static final int TAREFAS_NO_MES = 1_500;
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(LocalDate.of(2025, 3, 1), LocalTime.MIN);
+    private static final LocalDateTime FIM = LocalDateTime.of(LocalDate.of(2025, 3, 31), LocalTime.MAX);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void popular() {
+        Random random = new Random(42);
+        List<Cliente> clientes = new ArrayList<>();
+        for (int i = 0; i < CLIENTES; i++) {
+            Cliente c = new Cliente();
+            c.setNome("Cliente " + i);
+            c.setTelefone("1199999" + i);
+            c.setEndereco("Rua " + i);
+            clientes.add(c);
+        }
+        clientes = clienteRepository.saveAll(clientes);
+
+        List<Task> tarefas = new ArrayList<>(TAREFAS_NO_MES);
+        for (int i = 0; i < TAREFAS_NO_MES; i++) {
+            Task t = new Task();
+            t.setTitulo("Bateria " + i);
+            t.setStatus(random.nextBoolean() ? StatusTarefa.PAGO
+                    : (random.nextBoolean() ? StatusTarefa.A_PAGAR : StatusTarefa.FINALIZADO));
+            // ~1/3 sem tipo de cliente informado
+            t.setTipoCliente(TipoCliente.deCodigo(random.nextInt(3) == 0 ? null : 1 + random.nextInt(2)));
+            // ~5% sem cliente, que o dashboard deve ignorar
+            t.setCliente(random.nextInt(20) == 0 ? null : clientes.get(random.nextInt(CLIENTES)));
+            // Horários distintos (data_servico é único), espalhados pelo mês
+            t.setDataServico(INICIO.plusMinutes(20L * i + random.nextInt(2)));
+            int qtd = 1 + random.nextInt(10);
+            double unitario = 50 + random.nextInt(100);
+            t.setQuantidadePessoas(qtd);
+            t.setValorPago(random.nextInt(10) == 0 ? null : Dinheiro.deReais(unitario));
+            t.setValorTotal(Dinheiro.deReais(unitario * qtd));
+            tarefas.add(t);
+        }
+        taskRepository.saveAll(tarefas);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void agregadoPorDiaBateComCaminhoAntigo() {
+        long[] antigo = caminhoAntigo();
+        Contribuicao agg = agregado();
+
+        assertEquals(antigo[0], agg.total());
+        assertEquals(antigo[1], agg.novos());
+        assertEquals(antigo[2], agg.recorrentes());
+        assertEquals(antigo[3], agg.esperado());
+        assertEquals(antigo[4], agg.recebido());
+        assertEquals(antigo[5], agg.aPagar());
+    }
+
+    // Linhas por dia, status e tipo de cliente, somadas dentro do mês como no rollup
+    private Contribuicao agregado() {
+        Contribuicao soma = new Contribuicao(null, 0, 0, 0, 0, 0, 0);
+        for (DashboardDiaGrupo g : taskRepository.aggregateDashboardPorDia()) {
+            if (g.getDia().isBefore(INICIO.toLocalDate()) || g.getDia().isAfter(FIM.toLocalDate())) continue;
+            soma = soma.mais(Contribuicao.de(g.getDia(), g));
+        }
+        return soma;
+    }
+
+    // Cópia do cálculo que existia no TaskController (sobre os valores em reais), devolvendo centavos
+    private long[] caminhoAntigo() {
+        List<Task> tarefas = taskRepository.findByDataServicoBetween(INICIO, FIM).stream()
+                .filter(t -> t.getCliente() != null)
+                .toList();
+
+        BigDecimal esperado = tarefas.stream()
+                .map(t -> t.getValorTotal() != null ? BigDecimal.valueOf(t.getValorTotal().reais()) : BigDecimal.ZERO)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal recebido = tarefas.stream()
+                .map(t -> t.getStatus() == StatusTarefa.PAGO && t.getValorPago() != null
+                        ? BigDecimal.valueOf(t.getValorPago().reais()) : BigDecimal.ZERO)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal aPagar = tarefas.stream()
+                .map(t -> {
+                    double total = t.getValorTotal() != null ? t.getValorTotal().reais() : 0.0;
+                    double pago = t.getValorPago() != null ? t.getValorPago().reais() : 0.0;
+                    if (t.getStatus() == StatusTarefa.PAGO) return BigDecimal.valueOf(Math.max(0, total - pago));
+                    if (t.getStatus() == StatusTarefa.A_PAGAR) return BigDecimal.valueOf(total);
+                    return BigDecimal.ZERO;
+                })
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        long novos = tarefas.stream().filter(t -> t.getTipoCliente() == TipoCliente.NOVO).count();
+        long recorrentes = tarefas.stream().filter(t -> t.getTipoCliente() == TipoCliente.RECORRENTE).count();
+
+        return new long[] {
+                tarefas.size(), novos, recorrentes,
+                esperado.movePointRight(2).longValue(),
+                recebido.movePointRight(2).longValue(),
+                aPagar.movePointRight(2).longValue()
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package com.kmmanagement.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * V1_1__Duplicados: com horários/e-mails repetidos a migração para com a lista dos ids e não apaga
+ * nada; só com o placeholder duplicados=mover as cópias vão para as tabelas de revisão.
+ */
+class MigracaoDuplicadosTest {
+
+    private final String url = "jdbc:h2:mem:migracao_" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void repetidosParamAMigracaoSemApagarNada() throws Exception {
+        popularComRepetidos();
+
+        FlywayException erro = assertThrows(FlywayException.class, () -> flyway("falhar").migrate());
+        // O Flyway embrulha a exceção da migração; o relatório está na causa original
+        Throwable causa = erro;
+        while (causa.getCause() != null) causa = causa.getCause();
+        String relatorio = causa.getMessage();
+        assertTrue(relatorio.contains("2030-01-08 15:00:00: [1, 3]"), relatorio);
+        assertTrue(relatorio.contains("ana@kart.com: [1, 2]"), relatorio);
+        assertEquals(List.of(1L, 2L, 3L), ids("tarefas"));
+        assertEquals(List.of(1L, 2L, 3L), ids("users"));
+    }
+
+    @Test
+    void operadorAutorizaEAsLinhasVaoParaRevisao() throws Exception {
+        popularComRepetidos();
+
+        flyway("mover").migrate();
+        assertEquals(List.of(1L, 2L), ids("tarefas"));
+        assertEquals(List.of(3L), ids("tarefas_conflitantes"));
+        assertEquals(List.of(1L, 3L), ids("users"));
+        assertEquals(List.of(2L), ids("users_duplicados"));
+    }
+
+    // V1 aplicada e dados gravados antes dos índices únicos existirem
+    private void popularComRepetidos() throws SQLException {
+        Flyway.configure().dataSource(url, "sa", "").target("1").load().migrate();
+        try (Connection c = DriverManager.getConnection(url, "sa", ""); Statement st = c.createStatement()) {
+            st.executeUpdate("INSERT INTO tarefas (id, titulo, status, data_servico) VALUES "
+                    + "(1, 'Primeira', 'A_PAGAR', '2030-01-08 15:00:00'), "
+                    + "(2, 'Outra hora', 'A_PAGAR', '2030-01-08 16:00:00'), "
+                    + "(3, 'Repetida', 'A_PAGAR', '2030-01-08 15:00:00')");
+            st.executeUpdate("INSERT INTO users (id, name, email) VALUES "
+                    + "(1, 'Ana', 'ana@kart.com'), (2, 'Ana de novo', 'ana@kart.com'), (3, 'Bia', 'bia@kart.com')");
+        }
+    }
+
+    private Flyway flyway(String duplicados) {
+        return Flyway.configure()
+                .dataSource(url, "sa", "")
+                .placeholders(Map.of("duplicados", duplicados))
+                .load();
+    }
+
+    private List<Long> ids(String tabela) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (Connection c = DriverManager.getConnection(url, "sa", "");
+             Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT id FROM " + tabela + " ORDER BY id")) {
+            while (rs.next()) ids.add(rs.getLong(1));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,63 @@
+package com.kmmanagement.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Roda as migrations do Flyway no H2 e confere, via EXPLAIN, que as consultas
+ * quentes usam os índices criados em vez de varrer a tabela inteira.
+ */
+@JdbcTest
+class SchemaIndexExplainTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void dashboardPorPeriodoUsaIndiceDeData() {
+        String plano = explain("""
+                SELECT COUNT(*) FROM tarefas
+                WHERE data_servico BETWEEN TIMESTAMP '2025-03-01 00:00:00' AND TIMESTAMP '2025-03-31 23:59:59'
+                  AND cliente_id IS NOT NULL
+                """);
+
+        assertFalse(plano.contains("TABLESCAN"), plano);
+        assertTrue(plano.contains("IDX_TAREFAS_DATA_CLIENTE") || plano.contains("UK_TAREFAS_DATA_SERVICO"), plano);
+    }
+
+    @Test
+    void historicoDoClienteUsaIndiceDeCliente() {
+        String plano = explain("""
+                SELECT id, data_servico FROM tarefas
+                WHERE cliente_id = 42
+                ORDER BY data_servico
+                """);
+
+        assertFalse(plano.contains("TABLESCAN"), plano);
+    }
+
+    @Test
+    void filtroPorStatusUsaIndiceDeStatus() {
+        String plano = explain("SELECT id FROM tarefas WHERE status = 1 ORDER BY data_servico");
+
+        assertFalse(plano.contains("TABLESCAN"), plano);
+        assertTrue(plano.contains("IDX_TAREFAS_STATUS_DATA"), plano);
+    }
+
+    @Test
+    void loginUsaIndiceUnicoDeEmail() {
+        String plano = explain("SELECT id, role FROM users WHERE email = 'recepcao@kart.com'");
+
+        assertFalse(plano.contains("TABLESCAN"), plano);
+        assertTrue(plano.contains("UK_USERS_EMAIL"), plano);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).toUpperCase();
+    }
+}
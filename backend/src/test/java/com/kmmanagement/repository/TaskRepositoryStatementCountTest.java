@@ -0,0 +1,102 @@
+package com.kmmanagement.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import com.kmmanagement.dto.TaskRow;
+import com.kmmanagement.model.Cliente;
+import com.kmmanagement.model.StatusTarefa;
+import com.kmmanagement.model.Task;
+import com.kmmanagement.model.TipoCliente;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Garante que as leituras de tarefas não geram N+1: a listagem de 5.000 tarefas
+ * (com centenas de clientes distintos) deve ser um único SELECT.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TaskRepositoryStatementCountTest {
+
+    private static final int CLIENTES = 400;
+    private static final int TAREFAS = 5_000;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long primeiraTarefaId;
+
+    @BeforeEach
+    void popular() {
+        List<Cliente> clientes = new ArrayList<>();
+        for (int i = 0; i < CLIENTES; i++) {
+            Cliente c = new Cliente();
+            c.setNome("Cliente " + i);
+            c.setTelefone("1198888" + i);
+            c.setEndereco("Av. " + i);
+            c.setNotas("n".repeat(1000));
+            clientes.add(c);
+        }
+        clientes = clienteRepository.saveAll(clientes);
+
+        LocalDateTime inicio = LocalDateTime.of(2025, 1, 1, 15, 0);
+        List<Task> tarefas = new ArrayList<>();
+        for (int i = 0; i < TAREFAS; i++) {
+            Task t = new Task();
+            t.setTitulo("Bateria " + i);
+            t.setStatus(StatusTarefa.A_PAGAR);
+            t.setTipoCliente(TipoCliente.RECORRENTE);
+            t.setCliente(clientes.get(i % CLIENTES));
+            t.setDataServico(inicio.plusMinutes(30L * i));
+            tarefas.add(t);
+        }
+        primeiraTarefaId = taskRepository.saveAll(tarefas).get(0).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listagemCompletaUsaUmUnicoSelect() {
+        List<TaskRow> rows = taskRepository.findPage(null, null, null, null, null, null, PageRequest.of(0, TAREFAS + 1));
+
+        assertEquals(TAREFAS, rows.size());
+        assertTrue(rows.stream().allMatch(r -> r.clienteNome() != null));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void buscaPorIdUsaUmUnicoSelect() {
+        TaskRow row = taskRepository.findRowById(primeiraTarefaId).orElseThrow();
+
+        assertEquals("Cliente 0", row.clienteNome());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
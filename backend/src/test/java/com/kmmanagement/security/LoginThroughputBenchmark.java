@@ -0,0 +1,115 @@
+package com.kmmanagement.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.kmmanagement.model.User;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Troca de turno: 16 threads fazendo login ao mesmo tempo que 2 threads atendem requisições
+ * comuns (validação do JWT). "direto" roda o BCrypt na thread da requisição, como antes;
+ * "isolado" passa pelo PasswordHasher (pool limitado; com a fila cheia o login é recusado com 503).
+ * Comparar ops/s de "requisicao" nos dois grupos: é o que o resto da API sente durante o pico.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginThroughputBenchmark {
+
+    @Param({"10"})
+    public int custo;
+
+    @Param({"2"})
+    public int threadsHash;
+
+    private PasswordEncoder encoder;
+    private PasswordHasher hasher;
+    private String hash;
+    private TokenService tokenService;
+    private String token;
+
+    @Setup
+    public void setup() {
+        encoder = new BCryptPasswordEncoder(custo);
+        hash = encoder.encode("senha-da-recepcao");
+        hasher = new PasswordHasher(encoder, new SimpleMeterRegistry(), threadsHash, 32, 30);
+
+        // Sem cache: cada requisição comum paga o HMAC inteiro
+        tokenService = new TokenService("chave-de-benchmark", 0);
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("recepcao@kart.com");
+        user.setRole("USER");
+        token = tokenService.generateToken(user);
+    }
+
+    @TearDown
+    public void encerrar() {
+        hasher.encerrar();
+    }
+
+    @Benchmark
+    @Group("direto")
+    @GroupThreads(16)
+    public boolean loginDireto() {
+        return encoder.matches("senha-da-recepcao", hash);
+    }
+
+    @Benchmark
+    @Group("direto")
+    @GroupThreads(2)
+    public String requisicaoDireto() {
+        return tokenService.validateToken(token);
+    }
+
+    @Benchmark
+    @Group("isolado")
+    @GroupThreads(16)
+    public void loginIsolado(Blackhole bh) {
+        try {
+            bh.consume(hasher.verificar("senha-da-recepcao", hash).confere());
+        } catch (ResponseStatusException e) {
+            // 503 de fila cheia: no cliente vira "tente novamente"
+            bh.consume(e);
+        }
+    }
+
+    @Benchmark
+    @Group("isolado")
+    @GroupThreads(2)
+    public String requisicaoIsolado() {
+        return tokenService.validateToken(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LoginThroughputBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
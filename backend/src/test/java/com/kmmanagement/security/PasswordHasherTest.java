@@ -0,0 +1,110 @@
+package com.kmmanagement.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.kmmanagement.model.User;
+import com.kmmanagement.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Hash antigo (BCrypt puro, sem prefixo) confere e é regravado no formato do DelegatingPasswordEncoder
+ * no primeiro login; com o pool ocupado e a fila cheia, o próximo pedido é recusado na hora com 503.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class PasswordHasherTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void loginRegravaHashAntigo() throws Exception {
+        String email = "legado-" + UUID.randomUUID() + "@kart.com";
+        User user = new User();
+        user.setName("Legado");
+        user.setEmail(email);
+        user.setRole("USER");
+        user.setPassword(new BCryptPasswordEncoder(4).encode("senha"));
+        userRepository.save(user);
+
+        mvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + email + "\",\"password\":\"senha\"}"))
+                .andExpect(status().isOk());
+
+        String hash = userRepository.findByEmail(email).orElseThrow().getPassword();
+        assertTrue(hash.startsWith("{bcrypt}$2a$10$"), hash);
+
+        // O hash novo continua valendo
+        mvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + email + "\",\"password\":\"senha\"}"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void filaCheiaRecusaNaHora() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        PasswordEncoder lento = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence senha) {
+                try {
+                    liberar.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence senha, String hash) {
+                return false;
+            }
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHasher hasher = new PasswordHasher(lento, registry, 1, 1, 5);
+        try {
+            // Um rodando, um na fila
+            CompletableFuture<String> rodando = CompletableFuture.supplyAsync(() -> hasher.hash("a"));
+            CompletableFuture<String> naFila = CompletableFuture.supplyAsync(() -> hasher.hash("b"));
+            long limite = System.currentTimeMillis() + 5000;
+            while (hasher.getFila() < 1 && System.currentTimeMillis() < limite) {
+                Thread.sleep(5);
+            }
+
+            ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> hasher.hash("c"));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+            assertEquals(1.0, registry.get("km.senha.rejeitadas").counter().count());
+
+            liberar.countDown();
+            assertEquals("hash", rodando.get(5, TimeUnit.SECONDS));
+            assertEquals("hash", naFila.get(5, TimeUnit.SECONDS));
+        } finally {
+            hasher.encerrar();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.kmmanagement.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * PrincipalCache: hits/misses, LRU limitado, e a geração que impede um load iniciado antes de uma
+ * invalidação de gravar o principal velho.
+ */
+class PrincipalCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void segundoGetEhHitSemIrAoLoader() {
+        PrincipalCache cache = new PrincipalCache(10, 300);
+        AuthenticatedUser primeiro = cache.get("ana@kart.com", this::carregar);
+        assertSame(primeiro, cache.get("ana@kart.com", this::carregar));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void invalidacaoDuranteOLoadNaoGravaOPrincipalVelho() {
+        PrincipalCache cache = new PrincipalCache(10, 300);
+        // O usuário é editado (e invalidado) enquanto o SecurityFilter ainda lê o registro antigo
+        AuthenticatedUser velho = cache.get("ana@kart.com", email -> {
+            AuthenticatedUser lido = carregar(email);
+            cache.invalidate(email);
+            return lido;
+        });
+        assertEquals("ana@kart.com", velho.email());
+        assertEquals(0, cache.size());
+
+        // A próxima requisição recarrega do banco
+        cache.get("ana@kart.com", this::carregar);
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void usuarioInexistenteNaoEntraNoCache() {
+        PrincipalCache cache = new PrincipalCache(10, 300);
+        cache.get("sumiu@kart.com", email -> null);
+        cache.get("sumiu@kart.com", email -> null);
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void passandoDoLimiteSaiOMenosUsado() {
+        PrincipalCache cache = new PrincipalCache(2, 300);
+        cache.get("a@kart.com", this::carregar);
+        cache.get("b@kart.com", this::carregar);
+        cache.get("a@kart.com", this::carregar); // "a" passa a ser o mais recente
+        cache.get("c@kart.com", this::carregar); // "b" sai
+
+        assertEquals(2, cache.size());
+        int antes = loads.get();
+        cache.get("a@kart.com", this::carregar);
+        assertEquals(antes, loads.get());
+        cache.get("b@kart.com", this::carregar);
+        assertEquals(antes + 1, loads.get());
+    }
+
+    @Test
+    void entradaExpiradaEhRecarregada() {
+        PrincipalCache cache = new PrincipalCache(10, 0);
+        cache.get("ana@kart.com", this::carregar);
+        cache.get("ana@kart.com", this::carregar);
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.getHits());
+    }
+
+    private AuthenticatedUser carregar(String email) {
+        return new AuthenticatedUser((long) loads.incrementAndGet(), "Usuário", email, "USER");
+    }
+}
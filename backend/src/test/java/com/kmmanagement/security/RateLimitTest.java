@@ -0,0 +1,156 @@
+package com.kmmanagement.security;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+
+/**
+ * Limite de tentativas no login: o balde do e-mail e o do IP barram com 429 antes do controller
+ * (o contador de senha errada não anda); o store repõe fichas com o tempo e não passa de maxChaves;
+ * o corpo relido do login também atende leitura não bloqueante.
+ */
+@SpringBootTest(properties = {
+        "auth.limite.rotas.login.path=/auth/login",
+        "auth.limite.rotas.login.ip.capacidade=3",
+        "auth.limite.rotas.login.ip.por-minuto=1",
+        "auth.limite.rotas.login.email.capacidade=2",
+        "auth.limite.rotas.login.email.por-minuto=1"
+})
+@AutoConfigureMockMvc
+class RateLimitTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void emailRepetidoEBarradoAntesDoController() throws Exception {
+        String email = registrar();
+        double falhasAntes = falhasDeSenha();
+
+        login(email, "10.0.0.1").andExpect(status().isBadRequest());
+        // Maiúsculas e espaços contam como o mesmo e-mail
+        login(" " + email.toUpperCase() + " ", "10.0.0.1").andExpect(status().isBadRequest());
+        login(email, "10.0.0.1")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        assertEquals(falhasAntes + 2, falhasDeSenha());
+
+        // E-mail sem cadastro responde como senha errada, não 500
+        login("ninguem-" + UUID.randomUUID() + "@kart.com", "10.0.0.4").andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void mesmoIpComVariosEmailsEBarrado() throws Exception {
+        String primeiro = registrar();
+        String segundo = registrar();
+
+        login(primeiro, "10.0.0.2").andExpect(status().isBadRequest());
+        login(segundo, "10.0.0.2").andExpect(status().isBadRequest());
+        login(primeiro, "10.0.0.2").andExpect(status().isBadRequest());
+        // Quarta tentativa do IP: o balde do IP (3) acabou, o do segundo e-mail ainda tinha ficha
+        login(segundo, "10.0.0.2").andExpect(status().isTooManyRequests());
+        // Outro IP segue livre
+        login(segundo, "10.0.0.3").andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void storeRepoeFichasELimitaChaves() {
+        AtomicLong agora = new AtomicLong();
+        StripedTokenBucketStore store = new StripedTokenBucketStore(64, Duration.ofMinutes(10), agora::get);
+
+        assertEquals(0, store.consumir("a", 1, 1.0));
+        assertTrue(store.consumir("a", 1, 1.0) > 0);
+        agora.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertEquals(0, store.consumir("a", 1, 1.0));
+
+        // Uma chave por faixa: milhares de e-mails inventados não crescem a memória
+        for (int i = 0; i < 5000; i++) {
+            store.consumir("chave-" + i, 1, 1.0);
+        }
+        assertTrue(store.tamanho() <= 64, "chaves retidas: " + store.tamanho());
+    }
+
+    @Test
+    void corpoLidoAceitaLeituraNaoBloqueante() throws Exception {
+        byte[] corpo = "{\"email\":\"a@kart.com\"}".getBytes(StandardCharsets.UTF_8);
+        ServletInputStream in = new RateLimitFilter.CorpoLido(new MockHttpServletRequest(), corpo).getInputStream();
+        ByteArrayOutputStream lido = new ByteArrayOutputStream();
+        List<String> eventos = new ArrayList<>();
+
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                eventos.add("dados");
+                while (in.isReady() && !in.isFinished()) lido.write(in.read());
+            }
+
+            @Override
+            public void onAllDataRead() {
+                eventos.add("fim");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                eventos.add("erro");
+            }
+        });
+
+        assertEquals(List.of("dados", "fim"), eventos);
+        assertArrayEquals(corpo, lido.toByteArray());
+        assertTrue(in.isFinished());
+    }
+
+    private ResultActions login(String email, String ip) throws Exception {
+        return mvc.perform(post("/auth/login")
+                .with(request -> {
+                    request.setRemoteAddr(ip);
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + email + "\",\"password\":\"errada\"}"));
+    }
+
+    private String registrar() throws Exception {
+        String email = "limite-" + UUID.randomUUID() + "@kart.com";
+        mvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Limite\",\"email\":\"" + email + "\",\"password\":\"senha\",\"token\":\"KART2025\"}"))
+                .andExpect(status().isOk());
+        return email;
+    }
+
+    private double falhasDeSenha() {
+        var contador = registry.find("km.login.falhas").tag("motivo", "senha").counter();
+        return contador != null ? contador.count() : 0;
+    }
+}
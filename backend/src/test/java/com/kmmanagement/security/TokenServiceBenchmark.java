@@ -0,0 +1,111 @@
+package com.kmmanagement.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.kmmanagement.model.User;
+
+import jakarta.servlet.FilterChain;
+
+/**
+ * Custo da autenticação por requisição: validação do JWT e o SecurityFilter inteiro.
+ * "legacy" reproduz o código antigo (Algorithm + JWTVerifier recriados a cada chamada);
+ * cacheSize=0 usa só o verifier reaproveitado e cacheSize>0 liga o LRU de tokens verificados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+    private static final String SECRET = "chave-de-benchmark";
+
+    @Param({"0", "10000"})
+    public int cacheSize;
+
+    private TokenService tokenService;
+    private SecurityFilter filter;
+    private String token;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private final FilterChain chain = (req, res) -> {};
+
+    @Setup
+    public void setup() {
+        tokenService = new TokenService(SECRET, cacheSize);
+
+        User user = new User();
+        user.setId(1L);
+        user.setName("Recepção");
+        user.setEmail("recepcao@kart.com");
+        user.setRole("USER");
+        token = tokenService.generateToken(user);
+
+        // Principal já em cache: o benchmark mede token + filtro, não o banco
+        PrincipalCache principalCache = new PrincipalCache(1000, 3600);
+        principalCache.get(user.getEmail(), login -> AuthenticatedUser.of(user));
+
+        filter = new SecurityFilter();
+        filter.tokenService = tokenService;
+        filter.principalCache = principalCache;
+
+        request = new MockHttpServletRequest("GET", "/tarefas/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public String legacyValidate() {
+        try {
+            Algorithm algorithm = Algorithm.HMAC256(SECRET);
+            return JWT.require(algorithm)
+                    .withIssuer("login-auth-api")
+                    .build()
+                    .verify(token)
+                    .getSubject();
+        } catch (JWTVerificationException exception) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public String validate() {
+        return tokenService.validateToken(token);
+    }
+
+    @Benchmark
+    public Object filterChain() throws Exception {
+        filter.doFilter(request, response, chain);
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,84 @@
+package com.kmmanagement.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+
+/**
+ * LRU de tokens verificados do TokenService: o cache só pula a verificação do mesmo token (chave é o
+ * SHA-256 do token inteiro), então token adulterado, de outra chave ou vencido continua recusado.
+ */
+class TokenServiceTest {
+
+    private static final String SECRET = "chave-de-teste";
+
+    private final TokenService tokenService = new TokenService(SECRET, 100);
+
+    @Test
+    void tokenAdulteradoEhRecusadoMesmoComOOriginalEmCache() {
+        String token = token(SECRET, "ana@kart.com", Instant.now().plus(1, ChronoUnit.HOURS));
+        assertEquals("ana@kart.com", tokenService.validateToken(token));
+        assertEquals("ana@kart.com", tokenService.validateToken(token));
+
+        // Assinatura trocada
+        String[] partes = token.split("\\.");
+        String assinatura = partes[2];
+        char trocado = assinatura.charAt(0) == 'A' ? 'B' : 'A';
+        assertNull(tokenService.validateToken(partes[0] + "." + partes[1] + "." + trocado + assinatura.substring(1)));
+
+        // Payload de outro usuário com a assinatura do original
+        String outro = token(SECRET, "bia@kart.com", Instant.now().plus(1, ChronoUnit.HOURS));
+        assertNull(tokenService.validateToken(partes[0] + "." + outro.split("\\.")[1] + "." + assinatura));
+
+        // Mesmo subject assinado com outra chave
+        assertNull(tokenService.validateToken(token("outra-chave", "ana@kart.com", Instant.now().plus(1, ChronoUnit.HOURS))));
+    }
+
+    @Test
+    void tokenVencidoSaiDoCache() throws Exception {
+        // A expiração do JWT é em segundos: vence no início do próximo segundo cheio
+        Instant expira = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        String token = token(SECRET, "ana@kart.com", expira);
+        assertEquals("ana@kart.com", tokenService.validateToken(token));
+
+        Thread.sleep(Math.max(0, expira.toEpochMilli() - System.currentTimeMillis()) + 50);
+        assertNull(tokenService.validateToken(token));
+        assertNull(tokenService.validateToken(token));
+    }
+
+    @Test
+    void tokensDiferentesNaoDividemEntrada() {
+        Instant expira = Instant.now().plus(1, ChronoUnit.HOURS);
+        String ana = token(SECRET, "ana@kart.com", expira);
+        String bia = token(SECRET, "bia@kart.com", expira);
+
+        // Os dois em cache: cada um continua resolvendo para o próprio subject
+        for (int i = 0; i < 3; i++) {
+            assertEquals("ana@kart.com", tokenService.validateToken(ana));
+            assertEquals("bia@kart.com", tokenService.validateToken(bia));
+        }
+    }
+
+    @Test
+    void cacheDesligadoValidaDoMesmoJeito() {
+        TokenService semCache = new TokenService(SECRET, 0);
+        String token = token(SECRET, "ana@kart.com", Instant.now().plus(1, ChronoUnit.HOURS));
+        assertEquals("ana@kart.com", semCache.validateToken(token));
+        assertNull(semCache.validateToken(token.substring(0, token.length() - 2)));
+    }
+
+    private static String token(String secret, String subject, Instant expira) {
+        return JWT.create()
+                .withIssuer("login-auth-api")
+                .withSubject(subject)
+                .withExpiresAt(expira)
+                .sign(Algorithm.HMAC256(secret));
+    }
+}
@@ -0,0 +1,69 @@
+package com.kmmanagement.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.kmmanagement.dto.ClienteDTO;
+
+/**
+ * Regras da busca de clientes: acentos, telefone só com dígitos, ranking e sincronização
+ * com edições/exclusões.
+ */
+class ClienteSearchIndexTest {
+
+    private ClienteSearchIndex indice;
+
+    @BeforeEach
+    void popular() {
+        indice = new ClienteSearchIndex();
+        indice.indexar(cliente(1L, "João Conceição", "(85) 98717-5445", "Rua São Jerônimo, 465", "joao@mail.com"));
+        indice.indexar(cliente(2L, "Joana Araújo", "(85) 99999-0000", "Av. Brasil, 10", null));
+        indice.indexar(cliente(3L, "Fábio Gonçalves", "(11) 91234-5678", "Rua das Flores, 7", "fabio@kart.com"));
+    }
+
+    @Test
+    void ignoraAcentosEMaiusculas() {
+        assertEquals(List.of(1L), ids(indice.buscar("conceicao", 10)));
+        assertEquals(List.of(3L), ids(indice.buscar("GONCALVES", 10)));
+        assertEquals(List.of(1L), ids(indice.buscar("jerônimo", 10)));
+    }
+
+    @Test
+    void telefoneCasaSoPelosDigitos() {
+        assertEquals(List.of(1L), ids(indice.buscar("98717-5445", 10)));
+        assertEquals(List.of(3L), ids(indice.buscar("(11) 9123", 10)));
+    }
+
+    @Test
+    void prefixoCurtoEOrdenacao() {
+        List<Long> resultado = ids(indice.buscar("jo", 10));
+        assertEquals(List.of(1L, 2L), resultado); // empate de pontos: cadastro mais antigo primeiro
+
+        assertEquals(List.of(1L), ids(indice.buscar("joao", 10)).subList(0, 1));
+        assertEquals(1, indice.buscar("jo", 1).size());
+    }
+
+    @Test
+    void acompanhaEdicaoEExclusao() {
+        indice.indexar(cliente(2L, "Joana Ribeiro", "(85) 99999-0000", "Av. Brasil, 10", null));
+        assertTrue(indice.buscar("araujo", 10).isEmpty());
+        assertEquals(List.of(2L), ids(indice.buscar("ribeiro", 10)));
+
+        indice.remover(2L);
+        assertTrue(indice.buscar("ribeiro", 10).isEmpty());
+        assertEquals(2, indice.size());
+    }
+
+    private static ClienteDTO cliente(Long id, String nome, String telefone, String endereco, String email) {
+        return new ClienteDTO(id, nome, telefone, endereco, email, null);
+    }
+
+    private static List<Long> ids(List<ClienteDTO> clientes) {
+        return clientes.stream().map(ClienteDTO::getId).toList();
+    }
+}
@@ -0,0 +1,128 @@
+package com.kmmanagement.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kmmanagement.dto.ClienteDTO;
+
+/**
+ * Exportação em streaming: NDJSON com um objeto por linha, CSV com aspas do RFC 4180, gzip só
+ * quando o cliente pede, e as linhas chegam na resposta enquanto o Stream ainda está sendo lido.
+ */
+class StreamingExporterTest {
+
+    private static final List<String> CABECALHO = List.of("id", "nome", "endereco");
+
+    private final StreamingExporter exporter = new StreamingExporter();
+
+    StreamingExporterTest() {
+        ReflectionTestUtils.setField(exporter, "objectMapper", new ObjectMapper());
+    }
+
+    @Test
+    void ndjsonTemUmObjetoPorLinha() throws Exception {
+        MockHttpServletResponse response = exportar(StreamingExporter.Formato.NDJSON, null,
+                Stream.of(cliente(1L, "Ana", "Rua 1"), cliente(2L, "Bruno", "Rua 2")));
+
+        assertEquals("application/x-ndjson", response.getContentType().split(";")[0]);
+        assertEquals("attachment; filename=\"clientes.ndjson\"", response.getHeader("Content-Disposition"));
+        assertNull(response.getHeader("Content-Encoding"));
+        ObjectMapper mapper = new ObjectMapper();
+        List<String> linhas = response.getContentAsString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(2, linhas.size());
+        assertEquals("Ana", mapper.readTree(linhas.get(0)).get("nome").asText());
+        assertEquals(2, mapper.readTree(linhas.get(1)).get("id").asLong());
+    }
+
+    @Test
+    void csvTemCabecalhoEAspasQuandoPrecisa() throws Exception {
+        MockHttpServletResponse response = exportar(StreamingExporter.Formato.CSV, null,
+                Stream.of(cliente(1L, "João \"Jota\"", "Rua São Jerônimo, 465"), cliente(2L, "Ana", null)));
+
+        assertEquals("text/csv", response.getContentType().split(";")[0]);
+        assertEquals("id,nome,endereco\r\n"
+                + "1,\"João \"\"Jota\"\"\",\"Rua São Jerônimo, 465\"\r\n"
+                + "2,Ana,\r\n", response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void gzipSoQuandoOClienteAceita() throws Exception {
+        MockHttpServletResponse response = exportar(StreamingExporter.Formato.CSV, "br, gzip;q=0.8",
+                Stream.of(cliente(1L, "Ana", "Rua 1")));
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("id,nome,endereco\r\n1,Ana,Rua 1\r\n", gunzip(response.getContentAsByteArray()));
+
+        MockHttpServletResponse semGzip = exportar(StreamingExporter.Formato.CSV, "br",
+                Stream.of(cliente(1L, "Ana", "Rua 1")));
+        assertNull(semGzip.getHeader("Content-Encoding"));
+        assertEquals("id,nome,endereco\r\n1,Ana,Rua 1\r\n", semGzip.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void linhasSaemEnquantoOStreamAindaEstaSendoLido() throws Exception {
+        for (StreamingExporter.Formato formato : StreamingExporter.Formato.values()) {
+            int total = 20_000;
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            AtomicInteger lidas = new AtomicInteger();
+            AtomicInteger bytesAntesDaUltima = new AtomicInteger(-1);
+
+            // Stream preguiçoso: na última linha, o que já foi escrito na resposta é anotado
+            Stream<ClienteDTO> linhas = LongStream.rangeClosed(1, total)
+                    .mapToObj(id -> cliente(id, "Cliente " + id, "Rua " + id))
+                    .peek(c -> {
+                        if (lidas.incrementAndGet() == total) {
+                            bytesAntesDaUltima.set(response.getContentAsByteArray().length);
+                        }
+                    });
+            exporter.exportar(linhas, ClienteDTO.class, formato, "clientes", CABECALHO, StreamingExporterTest::colunas,
+                    new MockHttpServletRequest(), response);
+
+            int bytesNoFim = response.getContentAsByteArray().length;
+            assertEquals(total, lidas.get());
+            // Quase tudo já tinha saído antes de ler a última linha: nada foi acumulado em lista
+            assertTrue(bytesAntesDaUltima.get() > bytesNoFim / 2, formato + ": " + bytesAntesDaUltima + " de " + bytesNoFim);
+        }
+    }
+
+    private MockHttpServletResponse exportar(StreamingExporter.Formato formato, String acceptEncoding,
+                                             Stream<ClienteDTO> linhas) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (acceptEncoding != null) request.addHeader("Accept-Encoding", acceptEncoding);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        exporter.exportar(linhas, ClienteDTO.class, formato, "clientes", CABECALHO, StreamingExporterTest::colunas,
+                request, response);
+        return response;
+    }
+
+    private static List<Object> colunas(ClienteDTO c) {
+        return Arrays.asList(c.getId(), c.getNome(), c.getEndereco());
+    }
+
+    private static ClienteDTO cliente(long id, String nome, String endereco) {
+        return new ClienteDTO(id, nome, "85900000000", endereco, null, null);
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.kmmanagement.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kmmanagement.dto.TaskDTO;
+
+/**
+ * Feed do /tarefas/stream: conexão nova recebe "ready", reconexão com Last-Event-ID recebe só o
+ * que perdeu, id que saiu do buffer (ou de outro processo) vira "reset", evento só sai no commit,
+ * e um assinante lento estoura a própria fila e é desconectado sem segurar quem publica.
+ */
+class TaskChangeFeedTest {
+
+    private static final int BUFFER = 4;
+    private static final int FILA = 3;
+
+    private final List<Gravador> emitters = new CopyOnWriteArrayList<>();
+    private volatile CountDownLatch segurarEnvio;
+
+    // Emitter que grava cada evento como "tipo:id"; criado com segurarEnvio, trava no envio como um cliente lento
+    private final class Gravador extends SseEmitter {
+        final List<String> eventos = new CopyOnWriteArrayList<>();
+        final CountDownLatch trava = segurarEnvio;
+        volatile boolean completo;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (trava != null) {
+                try {
+                    trava.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            StringBuilder texto = new StringBuilder();
+            for (DataWithMediaType parte : builder.build()) texto.append(parte.getData());
+            String id = null;
+            String tipo = null;
+            for (String linha : texto.toString().split("\n")) {
+                if (linha.startsWith("id:")) id = linha.substring(3);
+                if (linha.startsWith("event:")) tipo = linha.substring(6);
+            }
+            if (tipo != null) eventos.add(tipo + ":" + id);
+        }
+
+        @Override
+        public synchronized void complete() {
+            completo = true;
+        }
+    }
+
+    private final TaskChangeFeed feed = new TaskChangeFeed(new ObjectMapper(), BUFFER, FILA, 10, 1, 3600) {
+        @Override
+        SseEmitter novoEmitter() {
+            Gravador g = new Gravador();
+            emitters.add(g);
+            return g;
+        }
+    };
+
+    @AfterEach
+    void encerrar() {
+        for (Gravador g : emitters) {
+            if (g.trava != null) g.trava.countDown();
+        }
+        feed.encerrar();
+    }
+
+    @Test
+    void reconexaoRecebeSoOQuePerdeu() {
+        Gravador primeiro = assinar(null);
+        esperar(() -> primeiro.eventos.size() == 1);
+        String pronto = primeiro.eventos.get(0);
+        assertTrue(pronto.startsWith(TaskChangeFeed.READY + ":"));
+        String idPronto = pronto.substring(pronto.indexOf(':') + 1);
+        long seq = Long.parseLong(idPronto.substring(idPronto.lastIndexOf('-') + 1));
+        String epoca = idPronto.substring(0, idPronto.lastIndexOf('-'));
+
+        feed.publicar(TaskChangeFeed.UPSERT, tarefa(1L));
+        feed.publicar(TaskChangeFeed.DELETE, tarefa(2L));
+        esperar(() -> primeiro.eventos.size() == 3);
+
+        Gravador reconectado = assinar(idPronto);
+        esperar(() -> reconectado.eventos.size() == 2);
+        assertEquals(List.of(TaskChangeFeed.UPSERT + ":" + epoca + "-" + (seq + 1),
+                TaskChangeFeed.DELETE + ":" + epoca + "-" + (seq + 2)), reconectado.eventos);
+        assertEquals(reconectado.eventos, primeiro.eventos.subList(1, 3));
+    }
+
+    @Test
+    void idForaDoBufferOuDeOutroProcessoViraReset() {
+        Gravador primeiro = assinar(null);
+        esperar(() -> primeiro.eventos.size() == 1);
+        String idPronto = primeiro.eventos.get(0).substring(TaskChangeFeed.READY.length() + 1);
+
+        // O buffer guarda só os últimos BUFFER eventos
+        for (long i = 0; i < BUFFER + 1; i++) feed.publicarRecarga();
+
+        Gravador atrasado = assinar(idPronto);
+        Gravador outroProcesso = assinar("xyz-1");
+        esperar(() -> atrasado.eventos.size() == 1 && outroProcesso.eventos.size() == 1);
+        assertTrue(atrasado.eventos.get(0).startsWith(TaskChangeFeed.RESET + ":"));
+        assertTrue(outroProcesso.eventos.get(0).startsWith(TaskChangeFeed.RESET + ":"));
+    }
+
+    @Test
+    void publicaSoDepoisDoCommit() {
+        Gravador assinante = assinar(null);
+        esperar(() -> assinante.eventos.size() == 1);
+
+        // Rollback: nada sai
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            feed.publicar(TaskChangeFeed.UPSERT, tarefa(1L));
+            for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) {
+                s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Commit: sai uma vez, só no afterCommit
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            feed.publicar(TaskChangeFeed.UPSERT, tarefa(2L));
+            assertEquals(1, assinante.eventos.size());
+            for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) {
+                s.afterCommit();
+                s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        esperar(() -> assinante.eventos.size() == 2);
+        assertTrue(assinante.eventos.get(1).startsWith(TaskChangeFeed.UPSERT + ":"));
+        assertEquals(seqDe(assinante.eventos.get(0)) + 1, seqDe(assinante.eventos.get(1)));
+    }
+
+    @Test
+    void assinanteLentoEstouraAFilaESaiSemSegurarQuemPublica() {
+        segurarEnvio = new CountDownLatch(1);
+        Gravador lento = assinar(null);
+        segurarEnvio = null;
+        assertEquals(1, feed.assinantes());
+
+        // O envio dele está travado no "ready": a fila (FILA) enche, ele é desconectado e publicar não bloqueia
+        for (long i = 0; i < FILA + 2; i++) feed.publicar(TaskChangeFeed.UPSERT, tarefa(i));
+        assertTrue(lento.completo);
+        assertEquals(0, feed.assinantes());
+        lento.trava.countDown();
+
+        // Quem conecta depois segue recebendo
+        Gravador novo = assinar(null);
+        feed.publicar(TaskChangeFeed.UPSERT, tarefa(99L));
+        esperar(() -> novo.eventos.size() == 2);
+    }
+
+    private Gravador assinar(String lastEventId) {
+        feed.assinar(lastEventId);
+        return emitters.get(emitters.size() - 1);
+    }
+
+    private static long seqDe(String evento) {
+        return Long.parseLong(evento.substring(evento.lastIndexOf('-') + 1));
+    }
+
+    private static TaskDTO tarefa(Long id) {
+        TaskDTO t = new TaskDTO();
+        t.setId(id);
+        t.setTitulo("Tarefa " + id);
+        return t;
+    }
+
+    private static void esperar(BooleanSupplier condicao) {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicao.getAsBoolean()) {
+            if (System.nanoTime() > limite) throw new AssertionError("condição não atingida em 5 s");
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 import React, { useEffect, useState, useRef } from 'react';
-import api from '../services/api';
+import api, { fetchTarefas as fetchTarefasPeriodo, toLocalIso } from '../services/api';
+import useClienteSearch from '../services/useClienteSearch';
+import { assinarTarefas } from '../services/tarefasStream';
 import {
   Button,
   Modal,
@@ -17,6 +19,11 @@ import startOfWeek from 'date-fns/startOfWeek';
 import getDay from 'date-fns/getDay';
 import addMinutes from 'date-fns/addMinutes';
 import addDays from 'date-fns/addDays';
+import startOfMonth from 'date-fns/startOfMonth';
+import endOfMonth from 'date-fns/endOfMonth';
+import endOfWeek from 'date-fns/endOfWeek';
+import startOfDay from 'date-fns/startOfDay';
+import endOfDay from 'date-fns/endOfDay';
 import differenceInMinutes from 'date-fns/differenceInMinutes';
 import ptBR from 'date-fns/locale/pt-BR';
 import 'react-big-calendar/lib/css/react-big-calendar.css';
@@ -61,6 +68,19 @@ const HORARIOS_PERMITIDOS = [
 const DURACAO_PADRAO_MINUTOS = 20;
 
 // --- CARD DO EVENTO ---
+// Ocorrências de recorrência ainda não têm id: são identificadas pela regra + data
+const chaveTarefa = (t) => t.id ?? `r${t.recorrenciaId}-${t.ocorrencia}`;
+
+// Aplica um evento (upsert/delete) na lista do período visível, sem recarregar do servidor.
+// Uma ocorrência materializada chega com id e também com recorrenciaId/ocorrencia: some a virtual.
+function aplicarAlteracao(tarefas, tipo, tarefa, [inicio, fim]) {
+  const virtual = tarefa.recorrenciaId ? `r${tarefa.recorrenciaId}-${tarefa.ocorrencia}` : null;
+  const semEla = tarefas.filter(t => chaveTarefa(t) !== chaveTarefa(tarefa) && chaveTarefa(t) !== virtual);
+  if (tipo === 'delete' || !tarefa.dataServico) return semEla;
+  const quando = new Date(tarefa.dataServico);
+  return quando < inicio || quando > fim ? semEla : [...semEla, tarefa];
+}
+
 const CustomEvent = ({ event }) => {
   const { resource } = event;
   const start = event.start;
@@ -164,10 +184,24 @@ export default function Agenda() {
   const [horariosOpcoes, setHorariosOpcoes] = useState(HORARIOS_PERMITIDOS);
 
   useEffect(() => {
-    fetchTarefas();
     fetchClientes();
   }, []);
 
+  // Só busca as tarefas do período visível no calendário ("recarga" vem do reset do stream)
+  const [recarga, setRecarga] = useState(0);
+  useEffect(() => {
+    fetchTarefas();
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, [date, view, recarga]);
+
+  // Alterações (inclusive de outras recepções) chegam por /tarefas/stream e são aplicadas na lista
+  const periodoRef = useRef(null);
+  periodoRef.current = periodoVisivel();
+  useEffect(() => assinarTarefas((tipo, tarefa) => {
+    if (tipo === 'reset') setRecarga(n => n + 1);
+    else if (tarefa) setTarefas(prev => aplicarAlteracao(prev, tipo, tarefa, periodoRef.current));
+  }), []);
+
   useEffect(() => {
     const novosEventos = tarefas
       .filter(t => t.dataServico)
@@ -182,7 +216,7 @@ export default function Agenda() {
         const telefoneCliente = cliente ? (cliente.telefone || cliente.celular) : '';
 
         return {
-          id: t.id,
+          id: chaveTarefa(t),
           title: nomeCliente || t.titulo, 
           start: dataInicio,
           end: dataFim,
@@ -205,22 +239,49 @@ export default function Agenda() {
     setEventos(novosEventos);
   }, [tarefas, clientes]);
 
+  // Horários livres do dia vêm do servidor (regras de funcionamento + ocupação)
   useEffect(() => {
-    if (modalData?.datePart) {
-        const [ano, mes, dia] = modalData.datePart.split('-').map(Number);
-        const dataObj = new Date(ano, mes - 1, dia);
-        const dayOfWeek = getDay(dataObj); 
-
-        if (dayOfWeek === 0) {
-            setHorariosOpcoes(HORARIOS_PERMITIDOS.filter(h => h <= '19:30'));
-        } else {
-            setHorariosOpcoes(HORARIOS_PERMITIDOS);
-        }
-    }
+    if (!modalData?.datePart) return;
+    const datePart = modalData.datePart;
+    let cancelado = false;
+
+    api.get('/tarefas/disponibilidade', { params: { from: datePart, to: datePart } })
+      .then(({ data }) => {
+        if (cancelado) return;
+        const livres = data[0]?.livres || [];
+        // Ao editar, o horário da própria tarefa continua disponível
+        setHorariosOpcoes(HORARIOS_PERMITIDOS.filter(h =>
+          livres.includes(h) || modalData.dataServico === `${datePart} ${h}`
+        ));
+      })
+      .catch(() => {
+        if (cancelado) return;
+        const [ano, mes, dia] = datePart.split('-').map(Number);
+        const dayOfWeek = getDay(new Date(ano, mes - 1, dia));
+        setHorariosOpcoes(dayOfWeek === 0 ? HORARIOS_PERMITIDOS.filter(h => h <= '19:30') : HORARIOS_PERMITIDOS);
+      });
+
+    return () => { cancelado = true; };
+    // eslint-disable-next-line react-hooks/exhaustive-deps
   }, [modalData?.datePart]);
 
+  function periodoVisivel() {
+    if (view === 'day') return [startOfDay(date), endOfDay(date)];
+    if (view === 'month') {
+      // A visão mensal também mostra dias das semanas vizinhas
+      return [
+        startOfWeek(startOfMonth(date), { weekStartsOn: 1 }),
+        endOfWeek(endOfMonth(date), { weekStartsOn: 1 })
+      ];
+    }
+    return [startOfWeek(date, { weekStartsOn: 1 }), endOfWeek(date, { weekStartsOn: 1 })];
+  }
+
   async function fetchTarefas() {
-    try { const r = await api.get('/tarefas'); setTarefas(r.data); } catch (e) { console.error(e); }
+    const [from, to] = periodoVisivel();
+    try {
+      setTarefas(await fetchTarefasPeriodo({ from: toLocalIso(from), to: toLocalIso(to) }));
+    } catch (e) { console.error(e); }
   }
   async function fetchClientes() {
     try { const r = await api.get('/clientes'); setClientes(r.data); } catch (e) { console.error(e); }
@@ -416,23 +477,39 @@ export default function Agenda() {
     };
 
     try {
-      if (modalData.id) await api.put(`/tarefas/${modalData.id}`, payload);
-      else await api.post('/tarefas', payload);
-      fetchTarefas(); closeModal();
+      // Novo agendamento semanal: vira uma regra de recorrência (ocorrências expandidas pelo servidor)
+      if (!modalData.id && !modalData.recorrenciaId && modalData.repetirAte) {
+        if (!payload.clienteId) { alert('Agendamento semanal precisa de um cliente.'); return; }
+        await api.post('/recorrencias', {
+          clienteId: payload.clienteId, diaSemana: day === 0 ? 7 : day, hora: modalData.timePart,
+          inicio: modalData.datePart, fim: modalData.repetirAte,
+          titulo: payload.titulo, descricao: payload.descricao, status: payload.status, prioridade: payload.prioridade,
+          valorPago: payload.valorPago, valorTotal: payload.valorTotal, quantidadePessoas: payload.quantidadePessoas
+        });
+        setRecarga(n => n + 1); closeModal();
+        return;
+      }
+      // Ocorrência de recorrência vai como POST com recorrenciaId/ocorrencia e vira tarefa
+      const { data } = modalData.id
+        ? await api.put(`/tarefas/${modalData.id}`, payload)
+        : await api.post('/tarefas', payload);
+      setTarefas(prev => aplicarAlteracao(prev, 'upsert', data, periodoVisivel()));
+      closeModal();
     } catch (err) { alert('Erro ao salvar.'); }
   }
 
   async function handleConfirmDelete() {
     if (tarefaParaExcluir) {
-      await api.delete(`/tarefas/${tarefaParaExcluir}`);
-      fetchTarefas(); setShowConfirm(false); closeModal();
+      const t = tarefaParaExcluir;
+      if (t.id) await api.delete(`/tarefas/${t.id}`);
+      else await api.delete(`/recorrencias/${t.recorrenciaId}/ocorrencias/${t.ocorrencia}`);
+      setTarefas(prev => aplicarAlteracao(prev, 'delete', t, periodoVisivel()));
+      setShowConfirm(false); closeModal();
     }
   }
 
-  const clientesFiltrados = clientes.filter(c =>
-    c.nome.toLowerCase().includes(clienteFiltro.toLowerCase()) ||
-    c.endereco.toLowerCase().includes(clienteFiltro.toLowerCase())
-  );
+  const resultadosBusca = useClienteSearch(clienteFiltro, { limit: 50 });
+  const clientesFiltrados = resultadosBusca ?? clientes;
 
   const eventStyleGetter = (event) => {
     const backgroundColor = FREQUENCIA_COLORS[event.resource.prioridade] || '#DC3545';
@@ -565,7 +642,7 @@ export default function Agenda() {
       </div>
 
       <Modal show={showModal} onHide={closeModal} centered size="lg">
-        <Modal.Header closeButton className="bg-dark text-white border-secondary"><Modal.Title>{modalData?.id ? 'Editar' : 'Novo'} Agendamento</Modal.Title></Modal.Header>
+        <Modal.Header closeButton className="bg-dark text-white border-secondary"><Modal.Title>{modalData?.id || modalData?.recorrenciaId ? 'Editar' : 'Novo'} Agendamento</Modal.Title></Modal.Header>
         <Form noValidate validated={validated} onSubmit={handleSubmit}>
           <Modal.Body className="bg-dark text-white">
             <Form.Group className="mb-3">
@@ -590,6 +667,16 @@ export default function Agenda() {
               </Col>
             </Row>
 
+            {!modalData?.id && !modalData?.recorrenciaId && (
+              <Form.Group className="mb-3">
+                <Form.Label>Repetir toda semana até (opcional)</Form.Label>
+                <Form.Control type="date" value={modalData?.repetirAte || ''} min={modalData?.datePart} onChange={e => setModalData(d => ({ ...d, repetirAte: e.target.value }))} className="bg-dark text-white border-secondary" />
+              </Form.Group>
+            )}
+            {modalData?.recorrenciaId && !modalData?.id && (
+              <p className="small text-info mb-3"><i className="bi bi-arrow-repeat me-1" />Ocorrência de agendamento semanal: ao salvar, só esta data é alterada.</p>
+            )}
+
             <Row>
                 <Col xs={12} md={6}>
                     <Form.Group className="mb-3">
@@ -682,7 +769,7 @@ export default function Agenda() {
 
           </Modal.Body>
           <Modal.Footer className="bg-dark border-secondary">
-             {modalData?.id && (<Button variant="outline-danger" onClick={() => { setShowConfirm(true); setTarefaParaExcluir(modalData.id); }} className="me-auto"><i className="bi bi-trash-fill me-1"/> Excluir</Button>)}
+             {(modalData?.id || modalData?.recorrenciaId) && (<Button variant="outline-danger" onClick={() => { setShowConfirm(true); setTarefaParaExcluir(modalData); }} className="me-auto"><i className="bi bi-trash-fill me-1"/> Excluir</Button>)}
             <Button variant="secondary" onClick={closeModal}>Cancelar</Button>
             <Button variant="success" type="submit">Salvar</Button>
           </Modal.Footer>
@@ -11,6 +11,7 @@ import {
   Modal
 } from 'react-bootstrap';
 import api from '../services/api';
+import useClienteSearch from '../services/useClienteSearch';
 import 'bootstrap-icons/font/bootstrap-icons.css';
 import '../index.css';
 import TipToast from '../components/TipToast';
@@ -43,15 +44,9 @@ export default function Clients() {
     return () => window.removeEventListener('resize', onResize);
   }, []);
 
-  const filtered = clients.filter(c => {
-    const term = search.toLowerCase();
-    return (
-      c.nome.toLowerCase().includes(term) ||
-      c.telefone.toLowerCase().includes(term) ||
-      c.email?.toLowerCase().includes(term) ||
-      c.endereco?.toLowerCase().includes(term)
-    );
-  });
+  // Com termo digitado, a lista vem de /clientes/search (refeita quando a lista recarrega)
+  const resultadosBusca = useClienteSearch(search, { limit: 50, recarga: clients });
+  const filtered = resultadosBusca ?? clients;
 
   const handleSearch = e => setSearch(e.target.value);
 
@@ -1,5 +1,6 @@
 import React, { useEffect, useState } from 'react';
-import api from '../services/api';
+import api, { fetchTarefas } from '../services/api';
+import useClienteSearch from '../services/useClienteSearch';
 import {
   Form,
   Button,
@@ -10,15 +11,13 @@ import {
   Card,
   ListGroup
 } from 'react-bootstrap';
-import jsPDF from 'jspdf';
 import 'bootstrap-icons/font/bootstrap-icons.css';
 import TipToast from '../components/TipToast';
 
 export default function Orcamentos() {
-  const [clientes, setClientes] = useState([]);
   const [clienteBusca, setClienteBusca] = useState('');
   const [clienteSelecionado, setClienteSel] = useState('');
-  const [clientesFiltrados, setClientesFiltrados] = useState([]);
+  const [clienteObj, setClienteObj] = useState(null);
   const [tarefas, setTarefas] = useState([]);
   const [tarefasSelecionadas, setTarefasSel] = useState([]);
   const [valoresTarefas, setValoresTarefas] = useState({});
@@ -35,40 +34,26 @@ export default function Orcamentos() {
     return () => window.removeEventListener('resize', handleResize);
   }, []);
 
-  // Buscar clientes e tarefas ao montar
+  // Clientes vêm da busca do servidor, não da lista completa
+  const clientesFiltrados = useClienteSearch(clienteBusca) || [];
+
+  // Tarefas só do cliente selecionado (o backend filtra por clienteId)
   useEffect(() => {
+    setTarefasSel((prev) => prev.filter((x) => x === 'outros'));
+    if (!clienteSelecionado) {
+      setTarefas([]);
+      return;
+    }
     (async () => {
       try {
-        const [resClientes, resTarefas] = await Promise.all([
-          api.get('/clientes'),
-          api.get('/tarefas')
-        ]);
-        setClientes(resClientes.data);
+        const resTarefas = await fetchTarefas({ clienteId: clienteSelecionado });
         // filtrar tarefas que não estejam finalizadas
-        const somenteAtivas = resTarefas.data.filter(t => t.status !== 'FINALIZADO');
-        setTarefas(somenteAtivas);
-        setClientesFiltrados(resClientes.data);
+        setTarefas(resTarefas.filter((t) => t.status !== 'FINALIZADO'));
       } catch (err) {
-        console.error('Erro ao carregar dados', err);
+        console.error('Erro ao carregar tarefas', err);
       }
     })();
-  }, []);
-
-  // Filtrar clientes conforme entrada de texto
-  useEffect(() => {
-    const term = clienteBusca.toLowerCase();
-    const filtrados = clientes.filter(
-      (c) =>
-        c.nome.toLowerCase().includes(term) ||
-        c.telefone.toLowerCase().includes(term)
-    );
-    setClientesFiltrados(filtrados);
-
-    const match = clientes.find(
-      (c) => `${c.nome} - ${c.telefone}`.toLowerCase() === term
-    );
-    setClienteSel(match ? String(match.id) : '');
-  }, [clienteBusca, clientes]);
+  }, [clienteSelecionado]);
 
   const toggleTarefa = (id) => {
     setTarefasSel((prev) =>
@@ -101,8 +86,6 @@ export default function Orcamentos() {
     setTimeout(() => setMensagemErro(''), 4000);
   };
 
-  const clienteObj =
-    clienteSelecionado && clientes.find((c) => String(c.id) === clienteSelecionado);
   const totalEquipamentos = equipamentos.reduce(
     (acc, eq) => acc + (parseFloat(eq.valor) || 0),
     0
@@ -112,7 +95,7 @@ export default function Orcamentos() {
     (tarefasSelecionadas.includes('outros') ? parseFloat(outrosValor || 0) : 0);
   const totalGeral = parseFloat(totalServicos) + parseFloat(totalEquipamentos);
 
-  const handleGerarPDF = () => {
+  const handleGerarPDF = async () => {
     if (!clienteSelecionado)
       return exibirErro('Selecione um cliente antes de gerar o PDF.');
     if (tarefasSelecionadas.length === 0)
@@ -144,112 +127,39 @@ export default function Orcamentos() {
       }
     }
 
-    const pdf = new jsPDF();
-    const logo = new Image();
-    logo.src = '/logo-cse.png';
-    logo.onload = () => {
-      const dataHoje = new Date().toLocaleDateString('pt-BR');
-      let y = 20;
-
-      pdf.addImage(logo, 'PNG', 10, y, 45, 45);
-      pdf.setFontSize(12);
-      pdf.setFont(undefined, 'bold');
-      pdf.text('CSE & REFRIGERAÇÃO', 60, y + 5);
-      pdf.setFont(undefined, 'normal');
-      pdf.text('CNPJ: 21.935.339/0001-50', 60, y + 12);
-      pdf.text('Rua São Jerônimo, 465', 60, y + 19);
-      pdf.text('Novo Maranguape II, Maranguape-CE', 60, y + 26);
-      pdf.text('CEP 61944-620', 60, y + 33);
-      pdf.text('cserefrigeracaowy@gmail.com – (85) 98717-5445', 60, y + 40);
-      y += 60;
-
-      pdf.setFillColor(230);
-      pdf.rect(10, y, 190, 10, 'F');
-      pdf.setFontSize(14);
-      pdf.text(`Orçamento ${Math.floor(100 + Math.random() * 900)}-2025`, 15, y + 7);
-      y += 20;
-
-      pdf.setFontSize(12);
-      pdf.text(`Cliente: ${clienteObj?.nome || ''}`, 15, y);
-      y += 7;
-      pdf.text(`Telefone: ${clienteObj?.telefone || ''}`, 15, y);
-      y += 12;
-
-      pdf.setFontSize(13);
-      pdf.setFont(undefined, 'bold');
-      pdf.text('Serviços', 15, y);
-      y += 7;
-      pdf.setFont(undefined, 'normal');
-
-      const colDesc = 20;
-      const colVal = 180;
-
-      tarefas
-        .filter((t) => t.titulo !== 'AA')
-        .filter((t) => tarefasSelecionadas.includes(t.id))
-        .forEach((t) => {
-          const valor = parseFloat(valoresTarefas[t.id]) || 0;
-          pdf.text(`- ${t.titulo}`, colDesc, y);
-          pdf.text(`R$ ${valor.toFixed(2)}`, colVal, y, { align: 'right' });
-          y += 6;
-        });
-
-      if (tarefasSelecionadas.includes('outros') && outrosTexto) {
-        const valorOutros = parseFloat(outrosValor || 0);
-        pdf.text(`- ${outrosTexto}`, colDesc, y);
-        pdf.text(`R$ ${valorOutros.toFixed(2)}`, colVal, y, { align: 'right' });
-        y += 6;
-      }
-
-      y += 4;
-      pdf.setFont(undefined, 'bold');
-      pdf.text('Total Serviços:', colDesc, y);
-      pdf.text(`R$ ${totalServicos.toFixed(2)}`, colVal, y, { align: 'right' });
-      y += 12;
-
-      if (equipamentos.length > 0) {
-        pdf.setFont(undefined, 'bold');
-        pdf.text('Equipamentos', 15, y);
-        y += 7;
-        pdf.setFont(undefined, 'normal');
-
-        equipamentos.forEach((e) => {
-          const valEq = parseFloat(e.valor || 0);
-          pdf.text(`- ${e.nome}`, colDesc, y);
-          pdf.text(`R$ ${valEq.toFixed(2)}`, colVal, y, { align: 'right' });
-          y += 6;
-        });
-
-        y += 4;
-        pdf.setFont(undefined, 'bold');
-        pdf.text('Total Equipamentos:', colDesc, y);
-        pdf.text(`R$ ${totalEquipamentos.toFixed(2)}`, colVal, y, { align: 'right' });
-        y += 12;
-      }
-
-      pdf.setFont(undefined, 'bold');
-      pdf.text('Total Geral:', colDesc, y);
-      pdf.text(`R$ ${totalGeral.toFixed(2)}`, colVal, y, { align: 'right' });
-      y += 15;
-
-      pdf.text('Pagamento', 15, y);
-      y += 7;
-      pdf.setFont(undefined, 'normal');
-      pdf.setFontSize(11);
-      pdf.text(
-        'Meios de pagamento: Boleto, transferência bancária, dinheiro, cheque, cartão ou pix.',
-        15,
-        y
-      );
-      y += 15;
-      pdf.text(`Maranguape, ${dataHoje}`, 15, y);
-      y += 15;
-      pdf.text('_____________________________________', 15, y);
-      pdf.setFont(undefined, 'bold');
-      pdf.text('CSE & REFRIGERAÇÃO', 15, y + 6);
-      pdf.text('Weyne Arruda', 15, y + 12);
-      pdf.save(`Orçamento ${clienteObj?.nome}.pdf`);
+    // Totais e PDF são calculados/gerados no servidor
+    const payload = {
+      clienteId: Number(clienteSelecionado),
+      servicos: [
+        ...tarefas
+          .filter((t) => t.titulo !== 'AA')
+          .filter((t) => tarefasSelecionadas.includes(t.id))
+          .map((t) => ({ tarefaId: t.id, valor: parseFloat(valoresTarefas[t.id]) })),
+        ...(tarefasSelecionadas.includes('outros')
+          ? [{ descricao: outrosTexto, valor: parseFloat(outrosValor) }]
+          : [])
+      ],
+      equipamentos: equipamentos.map((e) => ({
+        descricao: e.nome,
+        valor: parseFloat(e.valor)
+      }))
     };
+
+    try {
+      const { data: orcamento } = await api.post('/orcamentos', payload);
+      const resPdf = await api.get(`/orcamentos/${orcamento.id}/pdf`, {
+        responseType: 'blob'
+      });
+      const url = URL.createObjectURL(resPdf.data);
+      const link = document.createElement('a');
+      link.href = url;
+      link.download = `Orçamento ${clienteObj?.nome}.pdf`;
+      link.click();
+      URL.revokeObjectURL(url);
+    } catch (err) {
+      const msg = err.response?.data?.message;
+      exibirErro(typeof msg === 'string' ? msg : 'Não foi possível gerar o orçamento.');
+    }
   };
 
   return (
@@ -295,12 +205,11 @@ export default function Orcamentos() {
                         !e.target.value
                           .toLowerCase()
                           .includes(
-                            (clientes.find((c) => String(c.id) === clienteSelecionado)
-                              ?.nome || ''
-                            ).toLowerCase()
+                            (clienteObj?.nome || '').toLowerCase()
                           )
                       ) {
                         setClienteSel('');
+                        setClienteObj(null);
                       }
                     }}
                     style={{ background: '#fff', border: '1px solid #ccc' }}
@@ -324,6 +233,7 @@ export default function Orcamentos() {
                             onClick={() => {
                               setClienteBusca(`${c.nome} - ${c.telefone}`);
                               setClienteSel(String(c.id));
+                              setClienteObj(c);
                             }}
                           >
                             {c.nome} – {c.telefone}
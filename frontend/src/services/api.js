@@ -30,4 +30,29 @@ api.interceptors.response.use(
   }
 );
 
-export default api;
\ No newline at end of file
+export default api;
+
+// Formata Date local como 'yyyy-MM-ddTHH:mm:ss' (formato aceito por from/to em /tarefas)
+export function toLocalIso(date) {
+  const pad = (n) => String(n).padStart(2, '0');
+  return `${date.getFullYear()}-${pad(date.getMonth() + 1)}-${pad(date.getDate())}` +
+    `T${pad(date.getHours())}:${pad(date.getMinutes())}:${pad(date.getSeconds())}`;
+}
+
+// /tarefas é paginado por cursor (header X-Next-Cursor): percorre todas as páginas do filtro
+export async function fetchTarefas(params = {}) {
+  const tarefas = [];
+  let cursor;
+  do {
+    const r = await api.get('/tarefas', { params: { ...params, cursor } });
+    tarefas.push(...r.data);
+    cursor = r.headers['x-next-cursor'];
+  } while (cursor);
+  return tarefas;
+}
+
+// Busca no servidor por nome, telefone, email ou endereço (sem diferenciar acentos)
+export async function searchClientes(q, limit = 20) {
+  const r = await api.get('/clientes/search', { params: { q, limit } });
+  return r.data;
+}
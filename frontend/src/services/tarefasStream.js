@@ -0,0 +1,68 @@
+import api from './api';
+
+const ESPERA_RECONEXAO_MS = 3000;
+
+// Assina /tarefas/stream (SSE). Usa fetch em vez de EventSource para mandar o Authorization;
+// ao reconectar envia Last-Event-ID e o servidor reenvia só os eventos perdidos.
+// onEvento(tipo, tarefa) recebe 'upsert', 'delete' ou 'reset' (recarregar tudo). Devolve a função que cancela.
+export function assinarTarefas(onEvento) {
+  let ativo = true;
+  let lastEventId = null;
+  let controller = null;
+
+  async function conectar() {
+    while (ativo) {
+      controller = new AbortController();
+      try {
+        const headers = { Accept: 'text/event-stream' };
+        const token = localStorage.getItem('token');
+        if (token) headers.Authorization = `Bearer ${token}`;
+        if (lastEventId) headers['Last-Event-ID'] = lastEventId;
+
+        const resp = await fetch(`${api.defaults.baseURL}/tarefas/stream`, { headers, signal: controller.signal });
+        if (resp.status === 401 || resp.status === 403) return;
+        if (!resp.ok || !resp.body) throw new Error(`stream ${resp.status}`);
+
+        const reader = resp.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffer = '';
+        for (;;) {
+          const { value, done } = await reader.read();
+          if (done) break;
+          buffer += value;
+          let fim;
+          while ((fim = buffer.indexOf('\n\n')) >= 0) {
+            const evento = lerEvento(buffer.slice(0, fim));
+            buffer = buffer.slice(fim + 2);
+            if (evento.id) lastEventId = evento.id;
+            if (evento.tipo && evento.tipo !== 'ready') onEvento(evento.tipo, evento.data ? JSON.parse(evento.data) : null);
+          }
+        }
+      } catch (err) {
+        if (!ativo) return;
+        console.error('Conexão com a agenda em tempo real caiu', err);
+      }
+      if (ativo) await new Promise((r) => setTimeout(r, ESPERA_RECONEXAO_MS));
+    }
+  }
+
+  conectar();
+  return () => {
+    ativo = false;
+    controller?.abort();
+  };
+}
+
+// Um bloco SSE: linhas "campo:valor"; comentários (":ping") são ignorados
+function lerEvento(bloco) {
+  const evento = { id: null, tipo: null, data: null };
+  for (const linha of bloco.split('\n')) {
+    if (!linha || linha.startsWith(':')) continue;
+    const sep = linha.indexOf(':');
+    const campo = sep < 0 ? linha : linha.slice(0, sep);
+    const valor = sep < 0 ? '' : linha.slice(sep + 1).replace(/^ /, '');
+    if (campo === 'id') evento.id = valor;
+    else if (campo === 'event') evento.tipo = valor;
+    else if (campo === 'data') evento.data = evento.data == null ? valor : `${evento.data}\n${valor}`;
+  }
+  return evento;
+}
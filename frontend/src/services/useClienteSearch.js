@@ -0,0 +1,31 @@
+import { useEffect, useState } from 'react';
+import { searchClientes } from './api';
+
+// Resultados de /clientes/search para o termo digitado, com debounce.
+// Devolve null enquanto o termo está vazio; "recarga" refaz a busca quando muda (ex.: após salvar).
+export default function useClienteSearch(termo, { limit = 20, delay = 200, recarga } = {}) {
+  const [resultados, setResultados] = useState(null);
+
+  useEffect(() => {
+    const q = termo.trim();
+    if (!q) {
+      setResultados(null);
+      return undefined;
+    }
+    let ativo = true;
+    const timer = setTimeout(async () => {
+      try {
+        const r = await searchClientes(q, limit);
+        if (ativo) setResultados(r);
+      } catch (err) {
+        console.error('Erro na busca de clientes', err);
+      }
+    }, delay);
+    return () => {
+      ativo = false;
+      clearTimeout(timer);
+    };
+  }, [termo, limit, delay, recarga]);
+
+  return resultados;
+}